@@ -3,8 +3,11 @@ package com.og.templateback.configuration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.og.templateback.configuration.core.specification.explain.ExplainStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
 import org.modelmapper.Conditions;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
@@ -41,6 +44,11 @@ public class ApplicationConfiguration {
         return mapper.writer().withDefaultPrettyPrinter();
     }
 
+    @Bean
+    HibernatePropertiesCustomizer explainStatementInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new ExplainStatementInspector());
+    }
+
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder.build();
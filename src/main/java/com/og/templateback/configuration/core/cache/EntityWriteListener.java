@@ -0,0 +1,83 @@
+package com.og.templateback.configuration.core.cache;
+
+import com.og.templateback.configuration.core.matview.MaterializedViewManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells {@link SearchResultCache} and {@link MaterializedViewManager} about every committed insert, update and delete of an entity,
+ * whether it was written by a service, a repository or a cascade.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Component
+public class EntityWriteListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final SearchResultCache searchResultCache;
+
+    private final MaterializedViewManager materializedViewManager;
+
+    public EntityWriteListener(SearchResultCache searchResultCache, MaterializedViewManager materializedViewManager,
+                               EntityManagerFactory entityManagerFactory) {
+        this.searchResultCache = searchResultCache;
+        this.materializedViewManager = materializedViewManager;
+        if (!searchResultCache.isActive() && !materializedViewManager.isWriteTriggered()) {
+            //post-commit listeners make hibernate keep every written entity until the commit, don't register them for nothing
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onCommit(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onCommit(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onCommit(event.getPersister().getMappedClass());
+    }
+
+    private void onCommit(Class<?> writtenClass) {
+        searchResultCache.onCommit(writtenClass);
+        materializedViewManager.onCommit(writtenClass);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+}
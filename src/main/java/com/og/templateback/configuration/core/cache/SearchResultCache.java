@@ -0,0 +1,348 @@
+package com.og.templateback.configuration.core.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.og.templateback.configuration.core.cache.SearchResultCacheProperties.EntitySettings;
+import com.og.templateback.configuration.core.datasource.ReplicaRoutingDataSource;
+import com.og.templateback.configuration.core.metamodel.EntityMetamodel;
+import com.og.templateback.configuration.core.specification.plan.SearchShape;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.web.dto.AggregateResponse;
+import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Entity;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional cache of search, page, distinct and aggregate results of the services, keyed by entity type, operation
+ * and the normalized request. Disabled unless {@code search.result-cache} enables it globally or per entity.
+ * <p>
+ * Results are evicted when a write of the entity, or of any entity it reaches through associations, commits
+ * ({@link EntityWriteListener}), or later within the configured max staleness. Bulk JPQL and native updates
+ * bypass hibernate events, their entities are only refreshed by TTL, as are plain views.
+ * Results of materialized views are evicted when they are refreshed.
+ * Results are served only to read-only transactions, so a transaction never sees a cached result older than its own writes.
+ * A result read on a replica is cached only if no write it depends on committed within the lag the replica may have,
+ * otherwise it could miss a write whose eviction already happened and be served until the next one.
+ * Only results without entities are cached: projections, aggregates, facets and values of fields. Entities may hold lazy
+ * proxies bound to the session that loaded them and may be changed by their callers, so they are not shared across requests,
+ * pages of entities are loaded every time. Rows of cached pages are unmodifiable, and every hit gets its own page object.
+ * Hit, miss and eviction counts are exported as {@code cache.*} meters with tag {@code cache=search.result}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class SearchResultCache {
+    public static final String CACHE_NAME = "search.result";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final SearchResultCacheProperties properties;
+
+    private final EntityMetamodel entityMetamodel;
+
+    private final boolean active;
+
+    private final Cache<ResultKey, Object> results;
+
+    private final Map<Class<?>, EntityState> states = new ConcurrentHashMap<>();
+
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    public SearchResultCache(SearchResultCacheProperties properties, MeterRegistry meterRegistry, EntityMetamodel entityMetamodel,
+                             ObjectProvider<ReplicaRoutingDataSource> replicaRouting) {
+        this.properties = properties;
+        this.entityMetamodel = entityMetamodel;
+        this.replicaRouting = replicaRouting;
+        this.active = properties.isActive();
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxWeight())
+                .weigher((ResultKey key, Object value) -> weigh(value))
+                .expireAfter(new Expiry<ResultKey, Object>() {
+                    @Override
+                    public long expireAfterCreate(ResultKey key, Object value, long currentTime) {
+                        return state(key.entityClass()).settings.getTtl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ResultKey key, Object value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(ResultKey key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached result of the search, loading and caching it on a miss.
+     *
+     * @param entityClass entity the request is executed against
+     * @param request     search request, filters are normalized so their order doesn't matter
+     * @param loader      executes the search
+     * @return cached or loaded result
+     * @throws Exception thrown by the loader
+     */
+    public <V> V search(Class<?> entityClass, SearchRequest request, Callable<V> loader) throws Exception {
+        return get(entityClass, "search", request, loader);
+    }
+
+    /**
+     * Returns the cached result of the operation with the given arguments, loading and caching it on a miss.
+     * The loader is called directly if caching is disabled for the entity or the transaction is not read-only.
+     *
+     * @param entityClass entity the operation reads
+     * @param operation   name of the operation, e.g. "page" or "distinct"
+     * @param arguments   arguments of the operation, part of the key as json
+     * @param loader      executes the operation
+     * @return cached or loaded result
+     * @throws Exception thrown by the loader
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Class<?> entityClass, String operation, Object arguments, Callable<V> loader) throws Exception {
+        if (!active) {
+            return loader.call();
+        }
+        EntityState state = state(entityClass);
+        if (!state.settings.getEnabled() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return loader.call();
+        }
+        state.evictIfDue();
+
+        ResultKey key = new ResultKey(entityClass, operation, keyOf(arguments));
+        Object cached = results.getIfPresent(key);
+        if (cached != null) {
+            return (V) copyOf(cached);
+        }
+        long generation = state.generation.get();
+        V value = loader.call();
+        if (value != null && !holdsEntities(value) && state.generation.get() == generation && isReplayed(state)) {
+            results.put(key, freeze(value));
+            state.cached = true;
+            //an eviction between the check and the put could have missed the entry, it's stale if so
+            if (state.generation.get() != generation) {
+                results.invalidate(key);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Evicts results depending on the written entity type, now or within their max staleness.
+     * Called once a write of that type committed.
+     *
+     * @param writtenClass type of the inserted, updated or deleted entity
+     */
+    public void onCommit(Class<?> writtenClass) {
+        if (!active) {
+            return;
+        }
+        for (Class<?> entityClass : entityMetamodel.dependentsOf(writtenClass)) {
+            EntityState state = state(entityClass);
+            state.lastCommit = System.nanoTime();
+            long staleness = state.settings.getMaxStaleness().toNanos();
+            if (staleness <= 0) {
+                evict(entityClass);
+            } else {
+                state.evictAt(System.nanoTime() + staleness);
+            }
+        }
+    }
+
+    /**
+     * Evicts every cached result of the entity.
+     */
+    public void evict(Class<?> entityClass) {
+        EntityState state = state(entityClass);
+        state.generation.incrementAndGet();
+        state.pendingEviction.set(0);
+        if (state.cached) {
+            state.cached = false;
+            results.asMap().keySet().removeIf(key -> key.entityClass() == entityClass);
+            log.debug("Evicted cached results of {}", entityClass.getSimpleName());
+        }
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void invalidateAll() {
+        states.values().forEach(state -> state.generation.incrementAndGet());
+        results.invalidateAll();
+    }
+
+    /**
+     * @return true if the current transaction read on the primary, or on a replica that surely replayed the last write of the entity
+     */
+    private boolean isReplayed(EntityState state) {
+        String route = ReplicaRoutingDataSource.currentRoute();
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        if (route == null || routing == null || ReplicaRoutingDataSource.PRIMARY.equals(route)) {
+            return true;
+        }
+        Duration maxLag = routing.maxLag(route);
+        long lastCommit = state.lastCommit;
+        return maxLag != null && (lastCommit == 0 || System.nanoTime() - lastCommit > maxLag.toNanos());
+    }
+
+    private EntityState state(Class<?> entityClass) {
+        return states.computeIfAbsent(entityClass, type -> new EntityState(type, properties.settingsOf(type)));
+    }
+
+    private static String keyOf(Object arguments) throws JsonProcessingException {
+        if (arguments instanceof SearchRequest request) {
+            SearchRequest normalized = SearchRequest.builder()
+                    .filters(SearchShape.normalize(request.getFilters()))
+                    .groups(request.getGroups())
+                    .sorts(request.getSorts())
+                    .page(request.getPage())
+                    .size(request.getSize())
+                    .pagination(request.getPagination())
+                    .cursor(request.getCursor())
+                    .count(request.getCount())
+                    .fields(request.getFields())
+                    .build();
+            return MAPPER.writeValueAsString(normalized);
+        }
+        return MAPPER.writeValueAsString(arguments);
+    }
+
+    /**
+     * @return true if the result holds an entity or an embeddable, also as a value of a projected row
+     */
+    private static boolean holdsEntities(Object value) {
+        if (value instanceof ApiPaginationResponse response) {
+            return holdsEntities(response.getContent());
+        }
+        if (value instanceof AggregateResponse response) {
+            return holdsEntities(response.getRows());
+        }
+        if (value instanceof FacetResponse response) {
+            return response.getValues() != null && response.getValues().stream().anyMatch(facetValue -> holdsEntities(facetValue.getValue()));
+        }
+        if (value instanceof Collection<?> values) {
+            return values.stream().anyMatch(SearchResultCache::holdsEntities);
+        }
+        if (value instanceof Map<?, ?> row) {
+            return row.values().stream().anyMatch(SearchResultCache::holdsEntities);
+        }
+        if (value == null) {
+            return false;
+        }
+        Class<?> type = Hibernate.getClass(value);
+        return type.isAnnotationPresent(Entity.class) || type.isAnnotationPresent(Embeddable.class);
+    }
+
+    /**
+     * @return The page with its content and the rows in it unmodifiable, other results as they are
+     */
+    private static Object freeze(Object value) {
+        if (value instanceof ApiPaginationResponse response && response.getContent() instanceof List<?> rows) {
+            ApiPaginationResponse frozen = copyOf(response);
+            frozen.setContent(Collections.unmodifiableList(rows.stream()
+                    .map(row -> row instanceof Map<?, ?> map ? Collections.unmodifiableMap(map) : row)
+                    .toList()));
+            return frozen;
+        }
+        return value;
+    }
+
+    /**
+     * @return A new page object sharing the content of the cached one, other results as they are
+     */
+    private static Object copyOf(Object cached) {
+        return cached instanceof ApiPaginationResponse response ? copyOf(response) : cached;
+    }
+
+    private static ApiPaginationResponse copyOf(ApiPaginationResponse response) {
+        return new ApiPaginationResponse(response.getContent(), response.getTotalElements(), response.getTotalPages(),
+                response.getNextCursor(), response.getHasNext(), response.getTotalKind());
+    }
+
+    /**
+     * One per result plus one per row, so both the number of results and their size are bounded.
+     */
+    private static int weigh(Object value) {
+        Object content = value instanceof ApiPaginationResponse response ? response.getContent()
+                : value instanceof AggregateResponse response ? response.getRows()
+                : value;
+        return content instanceof Collection<?> rows ? rows.size() + 1 : 1;
+    }
+
+    private record ResultKey(Class<?> entityClass, String operation, String arguments) {
+    }
+
+    /**
+     * Settings and eviction state of the results of one entity.
+     */
+    private final class EntityState {
+        private final Class<?> entityClass;
+        private final EntitySettings settings;
+
+        /**
+         * Incremented on every eviction, a result loaded across an eviction is not cached.
+         */
+        private final AtomicLong generation = new AtomicLong();
+
+        /**
+         * {@link System#nanoTime()} a deferred eviction is due at, zero if none is pending.
+         */
+        private final AtomicLong pendingEviction = new AtomicLong();
+
+        /**
+         * {@link System#nanoTime()} a write the results depend on last committed at, zero if none did.
+         */
+        private volatile long lastCommit;
+
+        /**
+         * False if the entity surely has no cached results, so evictions skip scanning the cache.
+         */
+        private volatile boolean cached;
+
+        private EntityState(Class<?> entityClass, EntitySettings settings) {
+            this.entityClass = entityClass;
+            this.settings = settings;
+        }
+
+        /**
+         * Schedules the eviction, keeping an earlier one, so no result is served longer than max staleness after a write.
+         */
+        private void evictAt(long deadline) {
+            pendingEviction.compareAndSet(0, deadline);
+        }
+
+        private void evictIfDue() {
+            long deadline = pendingEviction.get();
+            if (deadline != 0 && System.nanoTime() - deadline >= 0 && pendingEviction.compareAndSet(deadline, 0)) {
+                evict(entityClass);
+            }
+        }
+    }
+}
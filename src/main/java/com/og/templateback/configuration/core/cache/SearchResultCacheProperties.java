@@ -0,0 +1,93 @@
+package com.og.templateback.configuration.core.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Settings of {@link SearchResultCache}, bound from {@code search.result-cache}.
+ * <pre>
+ * search:
+ *   result-cache:
+ *     enabled: false
+ *     max-weight: 100000
+ *     ttl: 30s
+ *     max-staleness: 0s
+ *     entities:
+ *       Customer:
+ *         enabled: true
+ *         ttl: 5m
+ *         max-staleness: 10s
+ * </pre>
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.result-cache")
+public class SearchResultCacheProperties {
+
+    /**
+     * Caches results of every entity, unless the entity disables it in {@link #entities}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum total weight of cached results, one per result plus one per row in it.
+     */
+    private long maxWeight = 100_000;
+
+    /**
+     * How long a result is cached if no write invalidates it before.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /**
+     * How long a result may still be served after a write committed, zero to evict it on commit.
+     */
+    private Duration maxStaleness = Duration.ZERO;
+
+    /**
+     * Overrides keyed by simple class name of the entity, case-insensitive.
+     */
+    private Map<String, EntitySettings> entities = new HashMap<>();
+
+    /**
+     * @return true if results of at least one entity may be cached
+     */
+    public boolean isActive() {
+        return enabled || entities.values().stream().anyMatch(settings -> Boolean.TRUE.equals(settings.getEnabled()));
+    }
+
+    /**
+     * @return overrides of the entity merged with the defaults
+     */
+    EntitySettings settingsOf(Class<?> entityClass) {
+        EntitySettings override = entities.entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(entityClass.getSimpleName()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseGet(EntitySettings::new);
+        EntitySettings settings = new EntitySettings();
+        settings.setEnabled(Objects.requireNonNullElse(override.getEnabled(), enabled));
+        settings.setTtl(Objects.requireNonNullElse(override.getTtl(), ttl));
+        settings.setMaxStaleness(Objects.requireNonNullElse(override.getMaxStaleness(), maxStaleness));
+        return settings;
+    }
+
+    /**
+     * Settings of one entity, null values fall back to the defaults.
+     */
+    @Data
+    public static class EntitySettings {
+        private Boolean enabled;
+        private Duration ttl;
+        private Duration maxStaleness;
+    }
+}
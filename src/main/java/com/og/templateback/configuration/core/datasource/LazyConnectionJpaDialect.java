@@ -0,0 +1,41 @@
+package com.og.templateback.configuration.core.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DelegatingTransactionDefinition;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * {@link HibernateJpaDialect} for connections released after every transaction, which it refuses to set an isolation level for.
+ * The isolation level and read-only flag are set on the connection of the {@link LazyConnectionDataSourceProxy}, which applies
+ * them to the pooled connection taken on the first statement. The pool resets them when the connection is returned.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+class LazyConnectionJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        if (definition.getIsolationLevel() == TransactionDefinition.ISOLATION_DEFAULT && !definition.isReadOnly()) {
+            return super.beginTransaction(entityManager, definition);
+        }
+        Object transactionData = super.beginTransaction(entityManager, new DelegatingTransactionDefinition(definition) {
+            @Override
+            public int getIsolationLevel() {
+                return TransactionDefinition.ISOLATION_DEFAULT;
+            }
+        });
+        Connection connection = entityManager.unwrap(SessionImplementor.class).getJdbcCoordinator().getLogicalConnection().getPhysicalConnection();
+        DataSourceUtils.prepareConnectionForTransaction(connection, definition);
+        return transactionData;
+    }
+}
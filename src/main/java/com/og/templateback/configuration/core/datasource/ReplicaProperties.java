@@ -0,0 +1,63 @@
+package com.og.templateback.configuration.core.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of {@link ReplicaRoutingDataSource}, bound from {@code search.replica}.
+ * <pre>
+ * search:
+ *   replica:
+ *     enabled: true
+ *     max-lag: 10s
+ *     lag-check-interval: 5s
+ *     pool-size: 10
+ *     instances:
+ *       - url: jdbc:postgresql://replica-1:5432/db
+ *       - url: jdbc:postgresql://replica-2:5432/db
+ *         username: reader
+ *         password: secret
+ * </pre>
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.replica")
+public class ReplicaProperties {
+
+    /**
+     * Routes read-only transactions to the replicas, every transaction goes to {@code spring.datasource} if false.
+     */
+    private boolean enabled = false;
+
+    /**
+     * A replica lagging behind the primary longer than this gets no transactions until it catches up.
+     */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of connections of the pool of every replica.
+     */
+    private int poolSize = 10;
+
+    private List<Instance> instances = new ArrayList<>();
+
+    /**
+     * One replica, credentials of {@code spring.datasource} if not given.
+     */
+    @Data
+    public static class Instance {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
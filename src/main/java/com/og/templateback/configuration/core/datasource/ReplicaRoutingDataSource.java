@@ -0,0 +1,292 @@
+package com.og.templateback.configuration.core.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Routes read-only transactions to the streaming replicas of {@link ReplicaProperties}, round robin,
+ * and every other transaction and statement to the primary.
+ * <p>
+ * The lag of every replica is checked every {@code lag-check-interval}, a replica lagging more than {@code max-lag}
+ * or not answering gets no transactions until it catches up, with no healthy replica reads go to the primary.
+ * Once a request ran a read-write transaction, its later read-only transactions go to the primary too,
+ * so a request reads its own writes. A transaction keeps the route of its first statement, a transaction it suspends
+ * routes on its own, other threads join it with {@link #onRoute}. The lag is exported as {@code search.replica.lag} in seconds, tagged with {@code replica}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    public static final String PRIMARY = "primary";
+
+    /**
+     * Resource key of the route of the current transaction.
+     */
+    private static final Object ROUTE = new Object();
+
+    private static final String WROTE = ReplicaRoutingDataSource.class.getName() + ".WROTE";
+
+    private static final ThreadLocal<String> PINNED_ROUTE = new ThreadLocal<>();
+
+    /**
+     * Zero while the replica replays everything it received, else the age of the last transaction it replayed.
+     */
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final HikariDataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final long maxLagMillis;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, DataSourceProperties properties, ReplicaProperties replicaProperties,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMillis = replicaProperties.getMaxLag().toMillis();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaProperties.Instance instance : replicaProperties.getInstances()) {
+            String name = "replica-" + replicas.size();
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(instance.getUrl())
+                    .username(Objects.requireNonNullElse(instance.getUsername(), properties.determineUsername()))
+                    .password(Objects.requireNonNullElse(instance.getPassword(), properties.determinePassword()))
+                    .build();
+            dataSource.setPoolName(name);
+            dataSource.setMaximumPoolSize(replicaProperties.getPoolSize());
+            dataSource.setReadOnly(true);
+            Replica replica = new Replica(name, dataSource);
+            replicas.add(replica);
+            targets.put(name, dataSource);
+            Gauge.builder("search.replica.lag", replica, Replica::lagSeconds)
+                    .tag("replica", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-lag-");
+        threadFactory.setDaemon(true);
+        lagChecker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        if (!replicas.isEmpty()) {
+            long interval = replicaProperties.getLagCheckInterval().toMillis();
+            lagChecker.scheduleWithFixedDelay(this::checkLag, 0, interval, TimeUnit.MILLISECONDS);
+        }
+        log.info("Read-only transactions are routed to {} replicas", replicas.size());
+    }
+
+    /**
+     * @return the target of the current transaction, null if it has taken no connection yet or there is no transaction
+     */
+    public static String currentRoute() {
+        return (String) TransactionSynchronizationManager.getResource(ROUTE);
+    }
+
+    /**
+     * Runs the work with every connection taken on this thread routed to the given target, e.g. so a transaction of
+     * another thread importing the snapshot of the current transaction runs on the same server.
+     *
+     * @param route target returned by {@link #currentRoute()}, null to route as usual
+     */
+    public static <R> R onRoute(String route, Supplier<R> work) {
+        String previous = PINNED_ROUTE.get();
+        PINNED_ROUTE.set(route);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PINNED_ROUTE.remove();
+            } else {
+                PINNED_ROUTE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return the primary and every replica, healthy or not, as routes for {@link #onRoute}
+     */
+    public List<String> getRoutes() {
+        List<String> routes = new ArrayList<>(replicas.size() + 1);
+        routes.add(PRIMARY);
+        replicas.forEach(replica -> routes.add(replica.name));
+        return routes;
+    }
+
+    /**
+     * Replay lag can't grow faster than time passes, so the lag of the last check plus the time since it bounds the lag now.
+     *
+     * @param route route returned by {@link #currentRoute()}
+     * @return how far the route may be behind the primary now at most, zero for the primary,
+     * null if the replica is unknown or didn't answer its last check
+     */
+    public Duration maxLag(String route) {
+        if (PRIMARY.equals(route)) {
+            return Duration.ZERO;
+        }
+        for (Replica replica : replicas) {
+            if (replica.name.equals(route)) {
+                long lagMillis = replica.lagMillis;
+                long checkedAt = replica.checkedAt;
+                return lagMillis < 0 ? null : Duration.ofMillis(lagMillis).plusNanos(System.nanoTime() - checkedAt);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String pinned = PINNED_ROUTE.get();
+        if (pinned != null) {
+            return pinned;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        String route = currentRoute();
+        if (route != null) {
+            //a read-write transaction never writes to a replica, even if a route of another transaction leaked to it
+            return readOnly || PRIMARY.equals(route) ? route : PRIMARY;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (!readOnly && request != null) {
+            request.setAttribute(WROTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+        route = readOnly && (request == null || request.getAttribute(WROTE, RequestAttributes.SCOPE_REQUEST) == null)
+                ? nextReplica()
+                : PRIMARY;
+        TransactionSynchronizationManager.bindResource(ROUTE, route);
+        TransactionSynchronizationManager.registerSynchronization(new RouteSynchronization(route));
+        return route;
+    }
+
+    /**
+     * @return the next healthy replica round robin, the primary if none is healthy
+     */
+    private String nextReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    private void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                long checkedAt = System.nanoTime();
+                resultSet.next();
+                replica.checkedAt = checkedAt;
+                replica.lagMillis = Math.round(resultSet.getDouble(1) * 1000);
+                boolean healthy = replica.lagMillis <= maxLagMillis;
+                if (healthy != replica.healthy) {
+                    log.warn("Replica {} {}, lag {} ms", replica.name, healthy ? "is back" : "lags behind, reads go to other servers", replica.lagMillis);
+                }
+                replica.healthy = healthy;
+            } catch (Exception e) {
+                if (replica.healthy) {
+                    log.warn("Replica {} is unavailable, reads go to other servers: {}", replica.name, e.getMessage());
+                }
+                replica.healthy = false;
+                replica.lagMillis = -1;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lagChecker.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    /**
+     * Keeps the route bound to its transaction: unbound while the transaction is suspended, e.g. by a {@code REQUIRES_NEW} one,
+     * so the inner transaction picks its own route, and bound again when it resumes.
+     */
+    private record RouteSynchronization(String route) implements TransactionSynchronization {
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ROUTE);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(ROUTE, route);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ROUTE);
+        }
+    }
+
+    /**
+     * One replica, unhealthy until its lag is checked.
+     */
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+
+        /**
+         * Lag of the last check, -1 if the replica didn't answer.
+         */
+        private volatile long lagMillis = -1;
+
+        /**
+         * {@link System#nanoTime()} the last answered check started at.
+         */
+        private volatile long checkedAt;
+
+        private Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private double lagSeconds() {
+            return lagMillis < 0 ? Double.NaN : lagMillis / 1000.0;
+        }
+    }
+}
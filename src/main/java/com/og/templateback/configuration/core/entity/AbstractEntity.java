@@ -2,10 +2,10 @@ package com.og.templateback.configuration.core.entity;
 
 
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.io.Serializable;
@@ -14,6 +14,7 @@ import java.util.Objects;
 /**
  * The AbstractEntity class is an abstract entity class that represents the base entity in the system.
  * It provides an id field that serves as the primary key for the entity.
+ * Ids come from the identity column, or from a pooled sequence if the entity is annotated with {@link PooledSequence}.
  *
  * @author ogbozoyan
  * @date 08.02.2023
@@ -26,7 +27,8 @@ import java.util.Objects;
 @AllArgsConstructor
 public abstract class AbstractEntity implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = PooledSequenceIdGenerator.NAME)
+    @GenericGenerator(name = PooledSequenceIdGenerator.NAME, type = PooledSequenceIdGenerator.class)
     protected Long id;
 
     @Override
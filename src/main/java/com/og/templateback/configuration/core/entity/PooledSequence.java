@@ -0,0 +1,36 @@
+package com.og.templateback.configuration.core.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts an {@link AbstractEntity} into ids from a database sequence with the pooled optimizer instead of an identity column.
+ * Hibernate takes {@link #allocationSize()} ids per call of {@code nextval}, knows the id before the insert
+ * and can batch inserts of the entity, which it can't for identity columns.
+ * <p>
+ * The sequence must exist with {@code INCREMENT BY} equal to the allocation size and start above the ids already in the table:
+ * <pre>
+ * CREATE SEQUENCE customer_seq INCREMENT BY 50;
+ * SELECT setval('customer_seq', (SELECT coalesce(max(id), 0) + 1 FROM customer));
+ * </pre>
+ * The identity column stays, rows inserted by other clients still get ids from it, so both must not overlap.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PooledSequence {
+
+    /**
+     * Name of the sequence, {@code <table>_seq} if empty.
+     */
+    String name() default "";
+
+    /**
+     * Number of ids taken per call of {@code nextval}, the {@code INCREMENT BY} of the sequence.
+     */
+    int allocationSize() default 50;
+}
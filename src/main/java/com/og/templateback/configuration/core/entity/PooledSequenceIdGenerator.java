@@ -0,0 +1,87 @@
+package com.og.templateback.configuration.core.entity;
+
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.EnumSet;
+import java.util.Properties;
+
+/**
+ * Id generator of {@link AbstractEntity}: the identity column, or a pooled sequence for entities annotated with {@link PooledSequence}.
+ * It is an {@link IdentityGenerator}, so the id column stays an identity column for schema generation and validation,
+ * whichever way ids are generated.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+public class PooledSequenceIdGenerator extends IdentityGenerator implements IdentifierGenerator {
+    public static final String NAME = "pooled-sequence-or-identity";
+
+    /**
+     * Null if the entity uses the identity column.
+     */
+    private SequenceStyleGenerator sequence;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        Class<?> entityClass = serviceRegistry.getService(ClassLoaderService.class).classForName(parameters.getProperty(ENTITY_NAME));
+        PooledSequence pooled = entityClass.getAnnotation(PooledSequence.class);
+        if (pooled == null) {
+            return;
+        }
+        Properties sequenceParameters = new Properties();
+        sequenceParameters.putAll(parameters);
+        //the generator is shared by every entity, its name must not become the name of the sequence
+        sequenceParameters.remove(GENERATOR_NAME);
+        sequenceParameters.setProperty(SequenceStyleGenerator.SEQUENCE_PARAM,
+                pooled.name().isBlank() ? parameters.getProperty(PersistentIdentifierGenerator.TABLE) + "_seq" : pooled.name());
+        sequenceParameters.setProperty(OptimizableGenerator.INCREMENT_PARAM, String.valueOf(pooled.allocationSize()));
+        sequenceParameters.setProperty(OptimizableGenerator.OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+        sequence = new SequenceStyleGenerator();
+        sequence.configure(type, sequenceParameters, serviceRegistry);
+    }
+
+    @Override
+    public void registerExportables(Database database) {
+        if (sequence != null) {
+            sequence.registerExportables(database);
+        }
+    }
+
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        if (sequence != null) {
+            sequence.initialize(context);
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return sequence.generate(session, object);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * @return true if the database generates the id on insert, false if it is taken from the sequence before
+     */
+    @Override
+    public boolean generatedOnExecution() {
+        return sequence == null;
+    }
+}
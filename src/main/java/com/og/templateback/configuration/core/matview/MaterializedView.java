@@ -0,0 +1,74 @@
+package com.og.templateback.configuration.core.matview;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Backs an {@link com.og.templateback.configuration.core.entity.AbstractViewEntity} with a materialized view
+ * of its table, so searches read stored rows instead of running the joins and aggregates of the view every time.
+ * <pre>
+ * &#64;Entity
+ * &#64;Table(name = "customer_stats")
+ * &#64;MaterializedView(
+ *         query = "SELECT c.id, c.city, count(o.id) AS orders FROM customer c LEFT JOIN orders o ON o.customer_id = c.id GROUP BY c.id",
+ *         refresh = RefreshPolicy.ON_WRITE,
+ *         interval = "1m",
+ *         sources = {Customer.class, Orders.class},
+ *         indexes = &#64;MaterializedView.Index(columns = "city"))
+ * public class CustomerStats extends AbstractViewEntity { ... }
+ * </pre>
+ * The view is refreshed {@code CONCURRENTLY}, reads are not blocked, which needs the unique index on the id column
+ * {@link MaterializedViewManager} creates.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaterializedView {
+
+    /**
+     * Query the view is created with if it doesn't exist yet, empty if it is created by a migration.
+     */
+    String query() default "";
+
+    RefreshPolicy refresh() default RefreshPolicy.ON_DEMAND;
+
+    /**
+     * Period of {@link RefreshPolicy#INTERVAL}, minimum time between two refreshes of {@link RefreshPolicy#ON_WRITE},
+     * e.g. "30s" or "PT5M".
+     */
+    String interval() default "5m";
+
+    /**
+     * Entities the view selects from, a committed write of one of them triggers {@link RefreshPolicy#ON_WRITE}.
+     */
+    Class<?>[] sources() default {};
+
+    /**
+     * Indexes created on the view if they don't exist yet, besides the unique index on the id column.
+     */
+    Index[] indexes() default {};
+
+    @Documented
+    @Target({})
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Index {
+
+        /**
+         * Name of the index, {@code <view>_<columns>_idx} if empty.
+         */
+        String name() default "";
+
+        /**
+         * Columns or expressions of the index, in order.
+         */
+        String[] columns();
+
+        boolean unique() default false;
+    }
+}
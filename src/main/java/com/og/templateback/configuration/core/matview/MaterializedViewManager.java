@@ -0,0 +1,336 @@
+package com.og.templateback.configuration.core.matview;
+
+import com.og.templateback.configuration.core.cache.SearchResultCache;
+import com.og.templateback.configuration.core.entity.AbstractViewEntity;
+import com.og.templateback.configuration.core.metamodel.AttributePath;
+import com.og.templateback.configuration.core.metamodel.EntityDescriptor;
+import com.og.templateback.configuration.core.metamodel.EntityMetamodel;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@link MaterializedView}s of view entities: creates missing views and their indexes at startup
+ * and refreshes them by their {@link RefreshPolicy} on a bounded pool, {@code CONCURRENTLY} once they are populated.
+ * A refresh takes a transaction scoped advisory lock on the view, so of several instances only one refreshes it at a time.
+ * Cached search results of the view are evicted after every refresh.
+ * <p>
+ * {@code search.matview.enabled: false} neither creates views nor schedules refreshes, e.g. for instances
+ * reading a replica, refreshes on demand still run. Meters, tagged with {@code view}:
+ * {@code search.matview.refresh} times refreshes by {@code outcome}, {@code search.matview.staleness} is the age
+ * in seconds of the rows of the view, since the start of the last refresh of this instance.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class MaterializedViewManager implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SearchResultCache searchResultCache;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    private final int threads;
+
+    private final Map<Class<?>, ViewState> views;
+
+    /**
+     * Write-triggered views by written entity type, filled on first write of the type.
+     */
+    private final Map<Class<?>, List<ViewState>> viewsBySource = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService refreshExecutor;
+
+    public MaterializedViewManager(EntityMetamodel entityMetamodel, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   SearchResultCache searchResultCache, MeterRegistry meterRegistry,
+                                   @Value("${search.matview.enabled:true}") boolean enabled,
+                                   @Value("${search.matview.threads:1}") int threads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.searchResultCache = searchResultCache;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.threads = threads;
+        Map<Class<?>, ViewState> registered = new HashMap<>();
+        for (EntityDescriptor descriptor : entityMetamodel.getDescriptors()) {
+            MaterializedView view = descriptor.getEntityClass().getAnnotation(MaterializedView.class);
+            if (view != null && AbstractViewEntity.class.isAssignableFrom(descriptor.getEntityClass())) {
+                AttributePath id = descriptor.resolve(SearchPlan.ID);
+                registered.put(descriptor.getEntityClass(), new ViewState(descriptor.getEntityClass(), view, id.getTable(), id.getColumn()));
+            }
+        }
+        this.views = Collections.unmodifiableMap(registered);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (views.isEmpty()) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("matview-refresh-");
+        threadFactory.setDaemon(true);
+        refreshExecutor = Executors.newScheduledThreadPool(threads, threadFactory);
+        for (ViewState view : views.values()) {
+            Gauge.builder("search.matview.staleness", view, ViewState::staleness)
+                    .tag("view", view.name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            if (!enabled) {
+                continue;
+            }
+            create(view);
+            if (view.policy == RefreshPolicy.INTERVAL) {
+                long period = view.interval.toMillis();
+                refreshExecutor.scheduleWithFixedDelay(() -> refreshQuietly(view), period, period, TimeUnit.MILLISECONDS);
+            }
+        }
+        log.info("Materialized views: {}", views.values().stream().map(view -> view.name + " " + view.policy).toList());
+    }
+
+    @PreDestroy
+    void stopRefreshExecutor() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true if a write of some entity triggers a refresh, so writes have to be listened to
+     */
+    public boolean isWriteTriggered() {
+        return enabled && views.values().stream().anyMatch(view -> view.policy == RefreshPolicy.ON_WRITE);
+    }
+
+    /**
+     * @param entityClass view entity
+     * @return true if the entity is backed by a materialized view
+     */
+    public boolean isMaterialized(Class<?> entityClass) {
+        return views.containsKey(entityClass);
+    }
+
+    /**
+     * Schedules a refresh of every {@link RefreshPolicy#ON_WRITE} view selecting from the written entity type.
+     * Called once a write of that type committed.
+     *
+     * @param writtenClass type of the inserted, updated or deleted entity
+     */
+    public void onCommit(Class<?> writtenClass) {
+        if (!enabled || refreshExecutor == null) {
+            return;
+        }
+        List<ViewState> triggered = viewsBySource.computeIfAbsent(writtenClass, written -> views.values().stream()
+                .filter(view -> view.policy == RefreshPolicy.ON_WRITE)
+                .filter(view -> Arrays.stream(view.sources).anyMatch(source -> source.isAssignableFrom(written)))
+                .toList());
+        triggered.forEach(this::scheduleRefresh);
+    }
+
+    /**
+     * Refreshes the view of the entity now, waiting for a refresh already running.
+     *
+     * @param entityClass view entity
+     * @throws IllegalArgumentException if the entity is not backed by a materialized view
+     */
+    public void refresh(Class<?> entityClass) {
+        ViewState view = views.get(entityClass);
+        if (view == null) {
+            throw new IllegalArgumentException(entityClass.getSimpleName() + " is not a materialized view");
+        }
+        refresh(view);
+    }
+
+    /**
+     * Refreshes once the interval since the previous refresh passed, a write during the refresh schedules the next one.
+     */
+    private void scheduleRefresh(ViewState view) {
+        if (view.pending.compareAndSet(false, true)) {
+            long delay = Math.max(0, view.lastAttempt + view.interval.toMillis() - System.currentTimeMillis());
+            refreshExecutor.schedule(() -> refreshQuietly(view), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * A scheduled task that throws is never run again.
+     */
+    private void refreshQuietly(ViewState view) {
+        try {
+            refresh(view);
+        } catch (Exception e) {
+            log.warn("Can't refresh materialized view {}: {}", view.name, e.getMessage());
+        }
+    }
+
+    private void refresh(ViewState view) {
+        synchronized (view) {
+            view.pending.set(false);
+            view.lastAttempt = System.currentTimeMillis();
+            long startedAt = view.lastAttempt;
+            long start = System.nanoTime();
+            Boolean refreshed;
+            try {
+                refreshed = transactionTemplate.execute(status -> {
+                    if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(hashtext(?))", Boolean.class, view.table))) {
+                        return false;
+                    }
+                    List<Boolean> populated = jdbcTemplate.queryForList("SELECT m.ispopulated FROM pg_matviews m " +
+                            "WHERE format('%I.%I', m.schemaname, m.matviewname)::regclass = to_regclass(?)", Boolean.class, view.table);
+                    if (populated.isEmpty()) {
+                        throw new IllegalStateException(view.table + " is not a materialized view");
+                    }
+                    //CONCURRENTLY diffs against the current rows, a view created WITH NO DATA has none
+                    jdbcTemplate.execute("REFRESH MATERIALIZED VIEW " + (populated.get(0) ? "CONCURRENTLY " : "") + view.table);
+                    return true;
+                });
+            } catch (RuntimeException e) {
+                record(view, "failure", start);
+                throw e;
+            }
+            if (!Boolean.TRUE.equals(refreshed)) {
+                //another instance is refreshing it, maybe from a snapshot older than the write that triggered this refresh
+                record(view, "skipped", start);
+                if (view.policy == RefreshPolicy.ON_WRITE) {
+                    scheduleRefresh(view);
+                }
+                return;
+            }
+            record(view, "success", start);
+            view.lastRefresh = startedAt;
+            searchResultCache.evict(view.entityClass);
+            log.debug("Refreshed materialized view {} in {} ms", view.name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private void record(ViewState view, String outcome, long start) {
+        Timer.builder("search.matview.refresh")
+                .tag("view", view.name)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates the view if it has a query and doesn't exist, the unique index a concurrent refresh needs and the declared indexes.
+     * An empty table of the name of the view is dropped first: {@code ddl-auto} creates one for the entity before the view.
+     * A failure is logged, the view is still searched and refreshed as it is.
+     */
+    private void create(ViewState view) {
+        try {
+            if (!view.query.isBlank()) {
+                dropEmptyTable(view);
+                jdbcTemplate.execute("CREATE MATERIALIZED VIEW IF NOT EXISTS " + view.table + " AS " + view.query);
+            }
+            createIndex(view, "", new String[]{view.idColumn}, true);
+            for (MaterializedView.Index index : view.indexes) {
+                createIndex(view, index.name(), index.columns(), index.unique());
+            }
+        } catch (Exception e) {
+            log.error("Can't create materialized view {} or its indexes: {}", view.name, e.getMessage());
+        }
+    }
+
+    private void dropEmptyTable(ViewState view) {
+        Boolean table = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass(?) AND relkind IN ('r', 'p'))",
+                Boolean.class, view.table);
+        if (Boolean.TRUE.equals(table)
+                && Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM " + view.table + ")", Boolean.class))) {
+            log.info("Dropping empty table {} to create materialized view {}", view.table, view.name);
+            jdbcTemplate.execute("DROP TABLE " + view.table);
+        }
+    }
+
+    private void createIndex(ViewState view, String name, String[] columns, boolean unique) {
+        String indexName = name.isBlank() ? indexName(view.table, columns) : name;
+        jdbcTemplate.execute("CREATE " + (unique ? "UNIQUE " : "") + "INDEX IF NOT EXISTS " + indexName
+                + " ON " + view.table + " (" + String.join(", ", columns) + ")");
+    }
+
+    /**
+     * {@code <view>_<columns>_idx} without schema and quotes, truncated to the 63 characters postgres keeps.
+     */
+    private static String indexName(String table, String[] columns) {
+        String view = table.substring(table.lastIndexOf('.') + 1).replace("\"", "");
+        String name = view + "_" + Arrays.stream(columns)
+                .map(column -> column.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]+", "_"))
+                .collect(Collectors.joining("_")) + "_idx";
+        return name.length() > 63 ? name.substring(0, 63) : name;
+    }
+
+    /**
+     * Declaration and refresh state of one view.
+     */
+    private static final class ViewState {
+        private final Class<?> entityClass;
+        private final String name;
+        private final String table;
+        private final String idColumn;
+        private final String query;
+        private final RefreshPolicy policy;
+        private final Duration interval;
+        private final Class<?>[] sources;
+        private final MaterializedView.Index[] indexes;
+
+        /**
+         * True while a write-triggered refresh is scheduled and not started yet.
+         */
+        private final AtomicBoolean pending = new AtomicBoolean();
+
+        /**
+         * Wall clock time the last refresh started at, successful or not.
+         */
+        private volatile long lastAttempt;
+
+        /**
+         * Wall clock time the last successful refresh started at, zero if there was none.
+         */
+        private volatile long lastRefresh;
+
+        private ViewState(Class<?> entityClass, MaterializedView view, String table, String idColumn) {
+            this.entityClass = entityClass;
+            this.name = entityClass.getSimpleName();
+            this.table = table;
+            this.idColumn = idColumn;
+            this.query = view.query();
+            this.policy = view.refresh();
+            this.interval = DurationStyle.detectAndParse(view.interval());
+            this.sources = view.sources();
+            this.indexes = view.indexes();
+        }
+
+        private double staleness() {
+            return lastRefresh == 0 ? Double.NaN : (System.currentTimeMillis() - lastRefresh) / 1000.0;
+        }
+    }
+}
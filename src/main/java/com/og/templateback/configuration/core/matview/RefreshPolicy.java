@@ -0,0 +1,22 @@
+package com.og.templateback.configuration.core.matview;
+
+/**
+ * When {@link MaterializedViewManager} refreshes a {@link MaterializedView}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+public enum RefreshPolicy {
+    /**
+     * Every {@link MaterializedView#interval()}.
+     */
+    INTERVAL,
+    /**
+     * After a write of one of {@link MaterializedView#sources()} commits, at most once per {@link MaterializedView#interval()}.
+     */
+    ON_WRITE,
+    /**
+     * Only when asked to, e.g. by the {@code /refresh} endpoint of the view controller.
+     */
+    ON_DEMAND
+}
@@ -0,0 +1,81 @@
+package com.og.templateback.configuration.core.metamodel;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.Getter;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * A dotted key of an entity resolved against the JPA metamodel, e.g. "customer.address.city".
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Getter
+public final class AttributePath {
+
+    private final String key;
+
+    /**
+     * Nodes of the key, one per attribute.
+     */
+    private final String[] path;
+
+    /**
+     * Attribute of every node, the last one is the attribute the key points to.
+     */
+    private final List<Attribute<?, ?>> attributes;
+
+    /**
+     * Java type of the last attribute, element type for a collection.
+     */
+    private final Class<?> javaType;
+
+    /**
+     * {@link Types} code of the column of the last attribute, {@link Types#OTHER} if it is not a basic attribute.
+     */
+    private final int sqlType;
+
+    /**
+     * Table and column of the last attribute, null if it is not mapped to a single column.
+     */
+    private final String table;
+
+    private final String column;
+
+    AttributePath(String key, String[] path, List<Attribute<?, ?>> attributes, Class<?> javaType, int sqlType,
+                  String table, String column) {
+        this.key = key;
+        this.path = path;
+        this.attributes = attributes;
+        this.javaType = javaType;
+        this.sqlType = sqlType;
+        this.table = table;
+        this.column = column;
+    }
+
+    public Attribute<?, ?> getAttribute() {
+        return attributes.get(attributes.size() - 1);
+    }
+
+    /**
+     * @return true if the key points to a column, not to an association or embeddable
+     */
+    public boolean isBasic() {
+        return getAttribute().getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC;
+    }
+
+    /**
+     * @return true if the column of the key may hold null
+     */
+    public boolean isOptional() {
+        return !(getAttribute() instanceof SingularAttribute<?, ?> singular) || singular.isOptional();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
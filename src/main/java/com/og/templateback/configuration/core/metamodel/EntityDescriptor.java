@@ -0,0 +1,212 @@
+package com.og.templateback.configuration.core.metamodel;
+
+import com.og.templateback.configuration.core.specification.plan.SearchPlan;
+import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.MappingException;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Filters;
+import org.hibernate.annotations.Where;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.metamodel.mapping.BasicValuedMapping;
+import org.hibernate.metamodel.mapping.ModelPart;
+import org.hibernate.metamodel.mapping.ModelPartContainer;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.util.ClassUtils;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metadata of one entity: its name and every attribute path resolved so far.
+ * Attributes of the entity and of its embeddables are resolved at startup,
+ * paths through associations on first use, so a request only ever does a map lookup for a known key.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Getter
+public final class EntityDescriptor {
+
+    /**
+     * Paths through associations may cycle (a.b.a.b...), deeper keys are rejected.
+     */
+    public static final int MAX_DEPTH = 8;
+
+    private final Class<?> entityClass;
+
+    /**
+     * Entity name for JPQL.
+     */
+    private final String entityName;
+
+    private final EntityType<?> entityType;
+
+    /**
+     * True if the table of the entity holds its rows only: no inheritance hierarchy and no {@link Where} or {@link Filter},
+     * so native SQL on the table sees the same rows as JPQL on the entity.
+     */
+    private final boolean standalone;
+
+    private final Map<String, AttributePath> paths = new ConcurrentHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    private final MappingMetamodel mappingMetamodel;
+
+    EntityDescriptor(EntityType<?> entityType, MappingMetamodel mappingMetamodel) {
+        this.entityClass = entityType.getJavaType();
+        this.entityName = entityType.getName();
+        this.entityType = entityType;
+        this.mappingMetamodel = mappingMetamodel;
+        EntityPersister persister = mappingMetamodel.getEntityDescriptor(entityClass);
+        this.standalone = persister instanceof AbstractEntityPersister entityPersister
+                && !entityPersister.isPolymorphic() && !entityPersister.isInherited() && !isRestricted(entityClass);
+        register(entityType, "", Collections.emptyList());
+    }
+
+    /**
+     * Resolves a dotted key of the entity.
+     *
+     * @param key dotted key, e.g. "customer.address.city"
+     * @return resolved path
+     * @throws FilterException if the entity has no such attribute
+     */
+    public AttributePath resolve(String key) {
+        if (key == null) {
+            throw new FilterException("Field name is required for " + entityName);
+        }
+        AttributePath resolved = paths.get(key);
+        if (resolved != null) {
+            return resolved;
+        }
+        resolved = walk(key);
+        AttributePath previous = paths.putIfAbsent(key, resolved);
+        return previous == null ? resolved : previous;
+    }
+
+    private static boolean isRestricted(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            if (current.isAnnotationPresent(Where.class) || current.isAnnotationPresent(Filter.class) || current.isAnnotationPresent(Filters.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void register(ManagedType<?> type, String prefix, List<Attribute<?, ?>> parents) {
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            String key = prefix + attribute.getName();
+            List<Attribute<?, ?>> attributes = new ArrayList<>(parents);
+            attributes.add(attribute);
+            paths.put(key, describe(key, SearchPlan.splitPath(key), attributes));
+            if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED
+                    && targetType(attribute) instanceof ManagedType<?> embeddable) {
+                register(embeddable, key + '.', attributes);
+            }
+        }
+    }
+
+    private AttributePath walk(String key) {
+        String[] path = SearchPlan.splitPath(key);
+        if (path.length > MAX_DEPTH) {
+            throw new FilterException("Field " + key + " of " + entityName + " is deeper than " + MAX_DEPTH);
+        }
+        List<Attribute<?, ?>> attributes = new ArrayList<>(path.length);
+        ManagedType<?> type = entityType;
+        for (String node : path) {
+            if (type == null) {
+                throw new FilterException("Unknown field " + key + " of " + entityName);
+            }
+            Attribute<?, ?> attribute;
+            try {
+                attribute = type.getAttribute(node);
+            } catch (IllegalArgumentException e) {
+                throw new FilterException("Unknown field " + key + " of " + entityName);
+            }
+            attributes.add(attribute);
+            type = targetType(attribute) instanceof ManagedType<?> managed ? managed : null;
+        }
+        return describe(key, path, attributes);
+    }
+
+    private AttributePath describe(String key, String[] path, List<Attribute<?, ?>> attributes) {
+        Type<?> target = targetType(attributes.get(attributes.size() - 1));
+        boolean basic = target.getPersistenceType() == Type.PersistenceType.BASIC;
+
+        //the column belongs to the entity of the last association on the path, under the embeddables after it
+        Class<?> owner = entityClass;
+        StringBuilder property = new StringBuilder();
+        for (int i = 0; i < attributes.size() - 1; i++) {
+            Attribute<?, ?> attribute = attributes.get(i);
+            if (attribute.isAssociation()) {
+                owner = targetType(attribute).getJavaType();
+                property.setLength(0);
+            } else {
+                property.append(attribute.getName()).append('.');
+            }
+        }
+        property.append(path[path.length - 1]);
+
+        String table = null;
+        String column = null;
+        int sqlType = Types.OTHER;
+        if (basic && mappingMetamodel.findEntityDescriptor(owner) instanceof AbstractEntityPersister persister) {
+            try {
+                String[] columns = persister.getPropertyColumnNames(property.toString());
+                if (columns != null && columns.length == 1) {
+                    //hibernate knows tables of top level properties only, an embeddable is on the table of its top level property
+                    String name = property.toString();
+                    int dot = name.indexOf('.');
+                    table = name.equals(persister.getIdentifierPropertyName())
+                            ? persister.getRootTableName()
+                            : persister.getPropertyTableName(dot < 0 ? name : name.substring(0, dot));
+                    column = columns[0];
+                }
+                sqlType = sqlTypeOf(persister, property.toString());
+            } catch (MappingException e) {
+                //e.g. an element of a collection of embeddables, it has no column on the entity table
+                log.debug("No column of {} on {}: {}", key, owner.getSimpleName(), e.getMessage());
+            }
+        }
+        return new AttributePath(
+                key,
+                path,
+                List.copyOf(attributes),
+                ClassUtils.resolvePrimitiveIfNecessary(target.getJavaType()),
+                sqlType,
+                table,
+                column
+        );
+    }
+
+    /**
+     * @return The jdbc type of the property by the mapping model, walking embeddables, {@link Types#OTHER} if it is not basic
+     */
+    private static int sqlTypeOf(EntityPersister persister, String property) {
+        ModelPart part = persister;
+        for (String node : SearchPlan.splitPath(property)) {
+            part = part instanceof ModelPartContainer container ? container.findSubPart(node, null) : null;
+        }
+        return part instanceof BasicValuedMapping basic ? basic.getJdbcMapping().getJdbcType().getDefaultSqlTypeCode() : Types.OTHER;
+    }
+
+    private static Type<?> targetType(Attribute<?, ?> attribute) {
+        return attribute instanceof PluralAttribute<?, ?, ?> plural
+                ? plural.getElementType()
+                : ((SingularAttribute<?, ?>) attribute).getType();
+    }
+}
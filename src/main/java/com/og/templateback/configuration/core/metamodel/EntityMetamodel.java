@@ -0,0 +1,135 @@
+package com.og.templateback.configuration.core.metamodel;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.entity.AbstractEntityStr;
+import com.og.templateback.configuration.core.entity.AbstractViewEntity;
+import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of every {@link AbstractEntity}, {@link AbstractEntityStr} and {@link AbstractViewEntity},
+ * built once at startup from the JPA metamodel. Services and search resolve entity names
+ * and attribute paths here instead of reflecting on every request.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class EntityMetamodel {
+
+    private final Map<Class<?>, EntityDescriptor> descriptors;
+
+    /**
+     * Entity types reachable from every registered entity through its associations, including itself.
+     */
+    private final Map<Class<?>, Set<Class<?>>> reachable;
+
+    private final Map<Class<?>, Set<Class<?>>> dependents = new ConcurrentHashMap<>();
+
+    public EntityMetamodel(EntityManagerFactory entityManagerFactory) {
+        MappingMetamodel mappingMetamodel = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel();
+        Map<Class<?>, EntityDescriptor> registered = new HashMap<>();
+        for (EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> javaType = entityType.getJavaType();
+            if (AbstractEntity.class.isAssignableFrom(javaType)
+                    || AbstractEntityStr.class.isAssignableFrom(javaType)
+                    || AbstractViewEntity.class.isAssignableFrom(javaType)) {
+                registered.put(javaType, new EntityDescriptor(entityType, mappingMetamodel));
+            }
+        }
+        this.descriptors = Collections.unmodifiableMap(registered);
+        Map<Class<?>, Set<Class<?>>> graph = new HashMap<>();
+        for (EntityDescriptor descriptor : descriptors.values()) {
+            Set<Class<?>> entities = new HashSet<>();
+            collectReachable(descriptor.getEntityType(), entities, new HashSet<>());
+            graph.put(descriptor.getEntityClass(), Collections.unmodifiableSet(entities));
+        }
+        this.reachable = Collections.unmodifiableMap(graph);
+        log.info("Entity metamodel registered {} entities", descriptors.size());
+    }
+
+    /**
+     * @param entityClass entity type
+     * @return metadata of the entity
+     * @throws FilterException if the type is not a registered entity
+     */
+    public EntityDescriptor describe(Class<?> entityClass) {
+        EntityDescriptor descriptor = descriptors.get(entityClass);
+        if (descriptor == null) {
+            throw new FilterException("Not a registered entity: " + entityClass.getName());
+        }
+        return descriptor;
+    }
+
+    /**
+     * @param entityClass entity type
+     * @param key         dotted key of an attribute
+     * @return resolved path
+     * @throws FilterException if the entity has no such attribute
+     */
+    public AttributePath resolve(Class<?> entityClass, String key) {
+        return describe(entityClass).resolve(key);
+    }
+
+    public Collection<EntityDescriptor> getDescriptors() {
+        return descriptors.values();
+    }
+
+    /**
+     * Registered entities whose rows, filters or serialized associations may change when rows of the given type change:
+     * the type itself and every entity reaching it through associations.
+     *
+     * @param writtenClass type of the inserted, updated or deleted entity
+     * @return registered entity types, empty if none depends on the given type
+     */
+    public Set<Class<?>> dependentsOf(Class<?> writtenClass) {
+        return dependents.computeIfAbsent(writtenClass, written -> {
+            Set<Class<?>> result = new HashSet<>();
+            reachable.forEach((entity, entities) -> {
+                if (entities.stream().anyMatch(type -> type.isAssignableFrom(written))) {
+                    result.add(entity);
+                }
+            });
+            return Collections.unmodifiableSet(result);
+        });
+    }
+
+    private static void collectReachable(ManagedType<?> type, Set<Class<?>> entities, Set<ManagedType<?>> visited) {
+        if (!visited.add(type)) {
+            return;
+        }
+        if (type instanceof EntityType<?>) {
+            entities.add(type.getJavaType());
+        }
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            Type<?> target = null;
+            if (attribute instanceof SingularAttribute<?, ?> singular) {
+                target = singular.getType();
+            } else if (attribute instanceof PluralAttribute<?, ?, ?> plural) {
+                target = plural.getElementType();
+            }
+            if (target instanceof ManagedType<?> managed) {
+                collectReachable(managed, entities, visited);
+            }
+        }
+    }
+}
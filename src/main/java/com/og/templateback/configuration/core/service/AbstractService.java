@@ -1,14 +1,23 @@
 package com.og.templateback.configuration.core.service;
 
 
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.ExportFormat;
+import com.og.templateback.configuration.core.specification.request.AggregateRequest;
+import com.og.templateback.configuration.core.specification.request.DistinctRequest;
+import com.og.templateback.configuration.core.specification.request.FacetRequest;
 import com.og.templateback.configuration.core.specification.request.SearchRequest;
 import com.og.templateback.configuration.core.web.controller.advice.exception.DeleteException;
 import com.og.templateback.configuration.core.web.controller.advice.exception.FindException;
 import com.og.templateback.configuration.core.web.controller.advice.exception.SaveException;
 import com.og.templateback.configuration.core.web.controller.advice.exception.UpdateException;
+import com.og.templateback.configuration.core.web.dto.AggregateResponse;
 import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.BulkWriteResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse;
 import com.og.templateback.configuration.core.entity.AbstractEntity;
 
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -22,8 +31,12 @@ import java.util.List;
 public interface AbstractService<E extends AbstractEntity> {
     E save(E entity) throws SaveException;
 
+    BulkWriteResponse saveAll(List<E> entities) throws SaveException;
+
     E update(E entity) throws UpdateException, FindException;
 
+    BulkWriteResponse updateAll(List<E> entities) throws UpdateException;
+
     void delete(Long id) throws DeleteException;
 
     E findById(Long id) throws FindException;
@@ -32,8 +45,24 @@ public interface AbstractService<E extends AbstractEntity> {
 
     ApiPaginationResponse findAll(Integer page, Integer size) throws FindException;
 
+    ApiPaginationResponse findAll(Integer page, Integer size, CountStrategy count) throws FindException;
+
+    ApiPaginationResponse findAll(Integer page, Integer size, CountStrategy count, List<String> fields) throws FindException;
+
+    ApiPaginationResponse findAllAfter(String cursor, Integer size) throws FindException;
+
+    ApiPaginationResponse findAllAfter(String cursor, Integer size, List<String> fields) throws FindException;
+
     ApiPaginationResponse searchFilter(SearchRequest request) throws FindException;
 
+    List<FacetResponse> facets(FacetRequest request) throws FindException;
+
+    AggregateResponse aggregate(AggregateRequest request) throws FindException;
+
+    void export(SearchRequest request, ExportFormat format, OutputStream out) throws FindException;
+
     List<?> getAllUniqueValuesFromField(String fieldName) throws FindException;
 
+    ApiPaginationResponse distinct(DistinctRequest request) throws FindException;
+
 }
\ No newline at end of file
@@ -1,11 +1,20 @@
 package com.og.templateback.configuration.core.service;
 
 
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.ExportFormat;
+import com.og.templateback.configuration.core.specification.request.AggregateRequest;
+import com.og.templateback.configuration.core.specification.request.DistinctRequest;
+import com.og.templateback.configuration.core.specification.request.FacetRequest;
 import com.og.templateback.configuration.core.specification.request.SearchRequest;
 import com.og.templateback.configuration.core.web.controller.advice.exception.*;
+import com.og.templateback.configuration.core.web.dto.AggregateResponse;
 import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.BulkWriteResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse;
 import com.og.templateback.configuration.core.entity.AbstractEntityStr;
 
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -19,8 +28,12 @@ import java.util.List;
 public interface AbstractServiceStr<T extends AbstractEntityStr> {
     T save(T entity) throws SaveException;
 
+    BulkWriteResponse saveAll(List<T> entities) throws SaveException;
+
     T update(T entity) throws UpdateException;
 
+    BulkWriteResponse updateAll(List<T> entities) throws UpdateException;
+
 
     void delete(String id) throws DeleteException;
 
@@ -30,7 +43,23 @@ public interface AbstractServiceStr<T extends AbstractEntityStr> {
 
     ApiPaginationResponse findAll(Integer page, Integer size);
 
+    ApiPaginationResponse findAll(Integer page, Integer size, CountStrategy count);
+
+    ApiPaginationResponse findAll(Integer page, Integer size, CountStrategy count, List<String> fields);
+
+    ApiPaginationResponse findAllAfter(String cursor, Integer size) throws FilterException;
+
+    ApiPaginationResponse findAllAfter(String cursor, Integer size, List<String> fields) throws FilterException;
+
     ApiPaginationResponse searchFilter(SearchRequest request) throws FilterException;
 
+    List<FacetResponse> facets(FacetRequest request) throws FilterException;
+
+    AggregateResponse aggregate(AggregateRequest request) throws FilterException;
+
+    void export(SearchRequest request, ExportFormat format, OutputStream out) throws FilterException;
+
     List<?> getAllUniqueValuesFromField(String fieldName) throws FindException;
+
+    ApiPaginationResponse distinct(DistinctRequest request) throws FindException;
 }
@@ -1,25 +1,43 @@
 package com.og.templateback.configuration.core.service;
 
+import com.og.templateback.configuration.core.cache.SearchResultCache;
 import com.og.templateback.configuration.core.entity.AbstractEntityStr;
+import com.og.templateback.configuration.core.metamodel.EntityMetamodel;
 import com.og.templateback.configuration.core.repository.AbstractRepositoryStr;
+import com.og.templateback.configuration.core.specification.SearchQueryExecutor;
 import com.og.templateback.configuration.core.specification.SearchSpecification;
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.ExportFormat;
+import com.og.templateback.configuration.core.specification.enums.PaginationMode;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.AggregateRequest;
+import com.og.templateback.configuration.core.specification.request.DistinctRequest;
+import com.og.templateback.configuration.core.specification.request.FacetRequest;
 import com.og.templateback.configuration.core.specification.request.SearchRequest;
 import com.og.templateback.configuration.core.utils.Reflection;
 import com.og.templateback.configuration.core.web.controller.advice.exception.*;
+import com.og.templateback.configuration.core.web.dto.AggregateResponse;
 import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.BulkWriteResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse;
+import com.og.templateback.configuration.core.web.export.SearchExporter;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.QueryTimeoutException;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -39,6 +57,27 @@ public class AbstractServiceStrImpl<E extends AbstractEntityStr, R extends Abstr
     @Autowired
     protected ModelMapper defaultMapper;
 
+    @Autowired
+    protected SearchPlanCache searchPlanCache;
+
+    @Autowired
+    protected SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    protected SearchResultCache searchResultCache;
+
+    @Autowired
+    protected SearchExporter searchExporter;
+
+    @Autowired
+    protected EntityMetamodel entityMetamodel;
+
+    @Autowired
+    protected BulkWriter bulkWriter;
+
+    @Setter(AccessLevel.NONE)
+    private Class<E> entityClass;
+
     protected final R repository;
     @PersistenceContext
     protected EntityManager entityManager;
@@ -54,12 +93,31 @@ public class AbstractServiceStrImpl<E extends AbstractEntityStr, R extends Abstr
         }
     }
 
+    /**
+     * Inserts the given entities in chunks, every chunk in its own transaction, see {@link BulkWriter}.
+     *
+     * @param entities The entities to insert.
+     * @return The ids of the inserted entities and the errors of the others.
+     * @throws SaveException if an error occurs during the save operation.
+     */
+    @Override
+    public BulkWriteResponse saveAll(List<E> entities) throws SaveException {
+        try {
+            return bulkWriter.create(getEntityClass(), entities);
+        } catch (QueryRejectedException e) {
+            throw e;
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new SaveException(e.getClass().getSimpleName() + " Can't save entities: " + e.getMessage());
+        }
+    }
+
     @Override
     @Transactional
     public E update(E entity) throws UpdateException {
 
         E entityFromBd = repository.findById(entity.getId()).orElseThrow(() -> new FindException("Entity not found " + entity));
-        defaultMapper.map(entity, entityFromBd);
+        defaultMapper.map(entity, searchQueryExecutor.writable(entityFromBd));
         try {
             return repository.saveAndFlush(entityFromBd);
         } catch (Exception e) {
@@ -68,6 +126,25 @@ public class AbstractServiceStrImpl<E extends AbstractEntityStr, R extends Abstr
         }
     }
 
+    /**
+     * Patches the given entities in chunks, loading every chunk with one query, see {@link BulkWriter}.
+     *
+     * @param entities The patches, every one with the id of the entity to patch.
+     * @return The ids of the patched entities and the errors of the others.
+     * @throws UpdateException if an error occurs during the update operation.
+     */
+    @Override
+    public BulkWriteResponse updateAll(List<E> entities) throws UpdateException {
+        try {
+            return bulkWriter.update(getEntityClass(), entities, E::getId, repository::findAllById, defaultMapper::map);
+        } catch (QueryRejectedException e) {
+            throw e;
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new UpdateException(e.getClass().getSimpleName() + " Can't update entities: " + e.getMessage());
+        }
+    }
+
     @Override
     @Transactional
     public void delete(String id) throws DeleteException {
@@ -83,12 +160,42 @@ public class AbstractServiceStrImpl<E extends AbstractEntityStr, R extends Abstr
     @Override
     @Transactional(readOnly = true)
     public E findById(String id) {
-        return repository.findById(id).orElseThrow(() -> new FindException(" Entity not found with id " + id));
+        E entity = searchQueryExecutor.findById(getEntityClass(), id);
+        if (entity == null) {
+            throw new FindException(" Entity not found with id " + id);
+        }
+        return entity;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ApiPaginationResponse findAll(Integer reqPage, Integer reqSize) {
+        return findAll(reqPage, reqSize, null);
+    }
+
+    /**
+     * Retrieves all entities from the database with pagination support and the given way to calculate the total.
+     *
+     * @param reqPage The reqPage number (0-based index).
+     * @param reqSize The number of items per reqPage.
+     * @param count   How to calculate the total, exact count if null.
+     * @return An ApiPaginationResponse object containing the list of entities and pagination information.
+     */
+    @Override
+    public ApiPaginationResponse findAll(Integer reqPage, Integer reqSize, CountStrategy count) {
+        return findAll(reqPage, reqSize, count, null);
+    }
+
+    /**
+     * Retrieves all entities from the database with pagination support and the given way to calculate the total.
+     *
+     * @param reqPage The reqPage number (0-based index).
+     * @param reqSize The number of items per reqPage.
+     * @param count   How to calculate the total, exact count if null.
+     * @param fields  Keys to select instead of whole entities, null or empty for entities.
+     * @return An ApiPaginationResponse object containing the list of entities and pagination information.
+     */
+    @Override
+    public ApiPaginationResponse findAll(Integer reqPage, Integer reqSize, CountStrategy count, List<String> fields) {
         try {
             int page;
             int size;
@@ -96,9 +203,19 @@ public class AbstractServiceStrImpl<E extends AbstractEntityStr, R extends Abstr
             size = reqSize == null ? 10 : Math.abs(reqSize);
             page = reqPage == null ? 1 : Math.abs(reqPage);
 
-            PageRequest request = PageRequest.of(page, size);
-            Page<E> pageResponse = repository.findAll(request);
-            return new ApiPaginationResponse(pageResponse.getContent(), pageResponse.getTotalElements(), pageResponse.getTotalPages());
+            CountStrategy strategy = count == null ? CountStrategy.EXACT : count;
+
+            return searchQueryExecutor.inPageTransaction(strategy, () -> searchResultCache.get(getEntityClass(), "page", Arrays.asList(page, size, count, fields), () -> {
+                PageRequest request = PageRequest.of(page, size);
+                SearchSpecification<E> specification = null;
+                if (fields != null && !fields.isEmpty()) {
+                    SearchRequest search = SearchRequest.builder().fields(fields).build();
+                    specification = new SearchSpecification<>(search, searchPlanCache.resolve(getEntityClass(), search));
+                }
+                return searchQueryExecutor.page(getEntityClass(), specification, request, strategy, false);
+            }));
+        } catch (QueryRejectedException | QueryTimeoutException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             throw new FindException(e.getClass().getSimpleName() + " Find Exception: " + e.getMessage());
@@ -106,24 +223,126 @@ public class AbstractServiceStrImpl<E extends AbstractEntityStr, R extends Abstr
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ApiPaginationResponse searchFilter(SearchRequest request) throws FilterException {
         try {
-            SearchSpecification<E> specification = new SearchSpecification<>(request);
-            Pageable pageable = SearchSpecification.getPageable(request.getPage(), request.getSize());
-            Page<E> page = repository.findAll(specification, pageable);
-            return new ApiPaginationResponse(page.getContent(), page.getTotalElements(), page.getTotalPages());
+            CountStrategy count = request.isKeyset() ? CountStrategy.NONE
+                    : request.getCount() == null ? CountStrategy.EXACT : request.getCount();
+            return searchQueryExecutor.inPageTransaction(count, () -> searchResultCache.search(getEntityClass(), request, () -> {
+                SearchSpecification<E> specification = new SearchSpecification<>(request, searchPlanCache.resolve(getEntityClass(), request));
+                if (request.isKeyset()) {
+                    return searchQueryExecutor.seek(getEntityClass(), specification, SearchSpecification.getPageSize(request.getSize()));
+                }
+                Pageable pageable = SearchSpecification.getPageable(request.getPage(), request.getSize());
+                return searchQueryExecutor.page(getEntityClass(), specification, pageable, count, request.isFiltered());
+            }));
+        } catch (QueryRejectedException | QueryTimeoutException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             throw new FilterException(e.getClass().getSimpleName() + " Filter exception: " + e.getMessage());
         }
     }
 
+    /**
+     * Counts values of the requested fields among the entities matching the filters.
+     *
+     * @param request The filters and the fields to count values of.
+     * @return Counts of the most frequent values of every field, in the order of the request.
+     * @throws FilterException if a key is unknown or an error occurs during the queries.
+     */
+    @Override
+    public List<FacetResponse> facets(FacetRequest request) throws FilterException {
+        try {
+            return searchQueryExecutor.inFacetTransaction(request, () ->
+                    searchResultCache.get(getEntityClass(), "facets", request, () -> searchQueryExecutor.facets(getEntityClass(), request)));
+        } catch (QueryRejectedException | QueryTimeoutException e) {
+            throw e;
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new FilterException(e.getClass().getSimpleName() + " Facet exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Aggregates the entities matching the filters per group of the requested keys.
+     *
+     * @param request The filters, group-by keys, aggregate functions, sorts and limit.
+     * @return One compact row per group, group-by keys first.
+     * @throws FilterException if a key is unknown, a function doesn't apply to its key or an error occurs during the query.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public AggregateResponse aggregate(AggregateRequest request) throws FilterException {
+        try {
+            return searchResultCache.get(getEntityClass(), "aggregate", request, () -> searchQueryExecutor.aggregate(getEntityClass(), request));
+        } catch (QueryRejectedException | QueryTimeoutException e) {
+            throw e;
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new FilterException(e.getClass().getSimpleName() + " Aggregate exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes every entity matching the filters of the request to the stream, ignoring its page.
+     * Rows are streamed from a database cursor to the output, they are never collected in memory.
+     *
+     * @param request The SearchRequest containing the filters, sorts and optional fields.
+     * @param format  The format of the rows.
+     * @param out     The stream to write to, left open.
+     * @throws FilterException if an error occurs during the query execution or the stream can't be written.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void export(SearchRequest request, ExportFormat format, OutputStream out) throws FilterException {
+        try (SearchExporter.RowWriter writer = searchExporter.open(format, request.getFields(), out)) {
+            SearchSpecification<E> specification = new SearchSpecification<>(request, searchPlanCache.resolve(getEntityClass(), request));
+            searchQueryExecutor.stream(getEntityClass(), specification, writer);
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new FilterException(e.getClass().getSimpleName() + " Export exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves entities ordered by id with keyset pagination.
+     *
+     * @param cursor  The {@code nextCursor} of the previous page, blank for the first page.
+     * @param reqSize The number of items per page.
+     * @return An ApiPaginationResponse object containing the list of entities and the cursor of the next page.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ApiPaginationResponse findAllAfter(String cursor, Integer reqSize) throws FilterException {
+        return findAllAfter(cursor, reqSize, null);
+    }
+
+    /**
+     * Retrieves entities ordered by id with keyset pagination.
+     *
+     * @param cursor  The {@code nextCursor} of the previous page, blank for the first page.
+     * @param reqSize The number of items per page.
+     * @param fields  Keys to select instead of whole entities, null or empty for entities.
+     * @return An ApiPaginationResponse object containing the list of entities and the cursor of the next page.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ApiPaginationResponse findAllAfter(String cursor, Integer reqSize, List<String> fields) throws FilterException {
+        return searchFilter(SearchRequest.builder()
+                .pagination(PaginationMode.KEYSET)
+                .cursor(cursor)
+                .size(reqSize == null ? null : Math.abs(reqSize))
+                .fields(fields)
+                .build());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<E> findAll() throws FindException {
         try {
-            return repository.findAll();
+            return searchQueryExecutor.findAll(getEntityClass());
+        } catch (QueryRejectedException | QueryTimeoutException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             throw new FindException(e.getClass().getSimpleName() + " Find Exception: " + e.getMessage());
@@ -134,20 +353,40 @@ public class AbstractServiceStrImpl<E extends AbstractEntityStr, R extends Abstr
     @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public List<?> getAllUniqueValuesFromField(String fieldName) throws FindException {
         try {
-            Class<?> originalEntity = Class.forName(
-                    Reflection.getClassGeneric(this).getName()
-            );
-
-            try {
-                originalEntity.getDeclaredField(fieldName);
-            } catch (Exception e) {
-                throw new FindException("Invalid field name: " + fieldName);
-            }
-
-            return repository.getAllDistinctFields(fieldName, originalEntity.getSimpleName(), entityManager);
+            return searchResultCache.get(getEntityClass(), "values", fieldName, () -> searchQueryExecutor.distinctValues(getEntityClass(), fieldName));
+        } catch (QueryRejectedException | QueryTimeoutException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             throw new FindException(e);
         }
     }
+
+    /**
+     * Retrieves one page of distinct values of a field among the entities matching the filters.
+     *
+     * @param request The field, filters, prefix and page.
+     * @return An ApiPaginationResponse object containing the values in ascending order and the cursor of the next page.
+     * @throws FindException if the field is unknown or an error occurs during the query.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ApiPaginationResponse distinct(DistinctRequest request) throws FindException {
+        try {
+            return searchResultCache.get(getEntityClass(), "distinct", request, () -> searchQueryExecutor.distinct(getEntityClass(), request));
+        } catch (QueryRejectedException | QueryTimeoutException e) {
+            throw e;
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new FindException(e.getClass().getSimpleName() + " Distinct exception: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Class<E> getEntityClass() {
+        if (entityClass == null) {
+            entityClass = (Class<E>) Reflection.getClassGeneric(this);
+        }
+        return entityClass;
+    }
 }
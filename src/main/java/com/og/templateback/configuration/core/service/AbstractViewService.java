@@ -1,9 +1,18 @@
 package com.og.templateback.configuration.core.service;
 
 
+import com.og.templateback.configuration.core.specification.enums.ExportFormat;
+import com.og.templateback.configuration.core.specification.request.AggregateRequest;
+import com.og.templateback.configuration.core.specification.request.FacetRequest;
 import com.og.templateback.configuration.core.specification.request.SearchRequest;
 import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.UpdateException;
+import com.og.templateback.configuration.core.web.dto.AggregateResponse;
 import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse;
+
+import java.io.OutputStream;
+import java.util.List;
 
 /**
  * @author ogbozoyan
@@ -12,4 +21,12 @@ import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
 public interface AbstractViewService {
     ApiPaginationResponse searchFilter(SearchRequest request) throws FilterException;
 
+    List<FacetResponse> facets(FacetRequest request) throws FilterException;
+
+    AggregateResponse aggregate(AggregateRequest request) throws FilterException;
+
+    void export(SearchRequest request, ExportFormat format, OutputStream out) throws FilterException;
+
+    void refresh() throws UpdateException;
+
 }
@@ -1,15 +1,34 @@
 package com.og.templateback.configuration.core.service;
 
+import com.og.templateback.configuration.core.cache.SearchResultCache;
 import com.og.templateback.configuration.core.entity.AbstractViewEntity;
+import com.og.templateback.configuration.core.matview.MaterializedViewManager;
 import com.og.templateback.configuration.core.repository.AbstractReadOnlyRepository;
+import com.og.templateback.configuration.core.specification.SearchQueryExecutor;
 import com.og.templateback.configuration.core.specification.SearchSpecification;
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.ExportFormat;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.AggregateRequest;
+import com.og.templateback.configuration.core.specification.request.FacetRequest;
 import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.utils.Reflection;
 import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.UpdateException;
+import com.og.templateback.configuration.core.web.dto.AggregateResponse;
 import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse;
+import com.og.templateback.configuration.core.web.export.SearchExporter;
+import jakarta.persistence.QueryTimeoutException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
+import java.util.List;
+
 /**
  * @author ogbozoyan
  * @since 18.06.2023
@@ -19,6 +38,23 @@ public class AbstractViewServiceImpl<E extends AbstractViewEntity, R extends Abs
 
     protected final R repository;
 
+    @Autowired
+    protected SearchPlanCache searchPlanCache;
+
+    @Autowired
+    protected SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    protected SearchResultCache searchResultCache;
+
+    @Autowired
+    protected SearchExporter searchExporter;
+
+    @Autowired
+    protected MaterializedViewManager materializedViewManager;
+
+    private Class<E> entityClass;
+
 
     /**
      * Performs a search query with filters based on the given SearchRequest.
@@ -28,17 +64,108 @@ public class AbstractViewServiceImpl<E extends AbstractViewEntity, R extends Abs
      * @throws FilterException if an error occurs during the search query execution.
      */
     @Override
-    @Transactional(readOnly = true)
     public ApiPaginationResponse searchFilter(SearchRequest request) throws FilterException {
         try {
-            SearchSpecification<E> specification = new SearchSpecification<>(request);
-            Pageable pageable = SearchSpecification.getPageable(request.getPage(), request.getSize());
-            var page = repository.findAll(specification, pageable);
-            return new ApiPaginationResponse(page.getContent(), page.getTotalElements(), page.getTotalPages());
+            CountStrategy count = request.isKeyset() ? CountStrategy.NONE
+                    : request.getCount() == null ? CountStrategy.EXACT : request.getCount();
+            return searchQueryExecutor.inPageTransaction(count, () -> searchResultCache.search(getEntityClass(), request, () -> {
+                SearchSpecification<E> specification = new SearchSpecification<>(request, searchPlanCache.resolve(getEntityClass(), request));
+                if (request.isKeyset()) {
+                    return searchQueryExecutor.seek(getEntityClass(), specification, SearchSpecification.getPageSize(request.getSize()));
+                }
+                Pageable pageable = SearchSpecification.getPageable(request.getPage(), request.getSize());
+                return searchQueryExecutor.page(getEntityClass(), specification, pageable, count, request.isFiltered());
+            }));
+        } catch (QueryRejectedException | QueryTimeoutException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             throw new FilterException(e.getClass().getSimpleName() + " Filter exception: " + e.getMessage());
         }
     }
 
+    /**
+     * Counts values of the requested fields among the entities matching the filters.
+     *
+     * @param request The filters and the fields to count values of.
+     * @return Counts of the most frequent values of every field, in the order of the request.
+     * @throws FilterException if a key is unknown or an error occurs during the queries.
+     */
+    @Override
+    public List<FacetResponse> facets(FacetRequest request) throws FilterException {
+        try {
+            return searchQueryExecutor.inFacetTransaction(request, () ->
+                    searchResultCache.get(getEntityClass(), "facets", request, () -> searchQueryExecutor.facets(getEntityClass(), request)));
+        } catch (QueryRejectedException | QueryTimeoutException e) {
+            throw e;
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new FilterException(e.getClass().getSimpleName() + " Facet exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Aggregates the rows matching the filters per group of the requested keys.
+     *
+     * @param request The filters, group-by keys, aggregate functions, sorts and limit.
+     * @return One compact row per group, group-by keys first.
+     * @throws FilterException if a key is unknown, a function doesn't apply to its key or an error occurs during the query.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public AggregateResponse aggregate(AggregateRequest request) throws FilterException {
+        try {
+            return searchResultCache.get(getEntityClass(), "aggregate", request, () -> searchQueryExecutor.aggregate(getEntityClass(), request));
+        } catch (QueryRejectedException | QueryTimeoutException e) {
+            throw e;
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new FilterException(e.getClass().getSimpleName() + " Aggregate exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes every entity matching the filters of the request to the stream, ignoring its page.
+     * Rows are streamed from a database cursor to the output, they are never collected in memory.
+     *
+     * @param request The SearchRequest containing the filters, sorts and optional fields.
+     * @param format  The format of the rows.
+     * @param out     The stream to write to, left open.
+     * @throws FilterException if an error occurs during the query execution or the stream can't be written.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void export(SearchRequest request, ExportFormat format, OutputStream out) throws FilterException {
+        try (SearchExporter.RowWriter writer = searchExporter.open(format, request.getFields(), out)) {
+            SearchSpecification<E> specification = new SearchSpecification<>(request, searchPlanCache.resolve(getEntityClass(), request));
+            searchQueryExecutor.stream(getEntityClass(), specification, writer);
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new FilterException(e.getClass().getSimpleName() + " Export exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Refreshes the materialized view backing the entity, reads are not blocked while it runs.
+     *
+     * @throws UpdateException if the entity is not a {@link com.og.templateback.configuration.core.matview.MaterializedView}
+     *                         or the refresh fails.
+     */
+    @Override
+    public void refresh() throws UpdateException {
+        try {
+            materializedViewManager.refresh(getEntityClass());
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new UpdateException(e.getClass().getSimpleName() + " Refresh exception: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Class<E> getEntityClass() {
+        if (entityClass == null) {
+            entityClass = (Class<E>) Reflection.getClassGeneric(this);
+        }
+        return entityClass;
+    }
 }
@@ -0,0 +1,152 @@
+package com.og.templateback.configuration.core.service;
+
+import com.og.templateback.configuration.core.service.SearchServiceRegistry.EntitySearch;
+import com.og.templateback.configuration.core.specification.request.BatchSearchRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.web.controller.advice.exception.AbstractNotFoundException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.CustomErrorMessage;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException.Reason;
+import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.BatchSearchResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.QueryTimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many searches of any entities in one call, in parallel on a bounded pool.
+ * Every search runs through its service in its own read-only transaction on its own connection, as if sent to
+ * its {@code /filter} endpoint. Identical searches of one batch run once and share the result.
+ * A failed search is returned as the error of its item, the other items are not affected.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchSearchService {
+
+    private final SearchServiceRegistry searchServiceRegistry;
+
+    /**
+     * Runs searches of all batches, at most {@code threads} at a time, so batches take at most that many connections from the pool.
+     */
+    private ExecutorService batchExecutor;
+
+    @Value("${search.batch.threads:4}")
+    private int threads;
+
+    /**
+     * Maximum number of searches in one batch.
+     */
+    @Value("${search.batch.max-items:50}")
+    private int maxItems;
+
+    @PostConstruct
+    void startBatchExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("search-batch-");
+        threadFactory.setDaemon(true);
+        batchExecutor = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    @PreDestroy
+    void stopBatchExecutor() {
+        batchExecutor.shutdownNow();
+    }
+
+    /**
+     * Runs the searches and waits for all of them.
+     *
+     * @param requests The entities and their search requests.
+     * @return One result per request in the same order, a page or an error.
+     * @throws QueryRejectedException if there are more requests than {@code search.batch.max-items}
+     */
+    public List<BatchSearchResponse> search(List<BatchSearchRequest> requests) {
+        if (requests.size() > maxItems) {
+            throw new QueryRejectedException(Reason.BATCH_SIZE, (String) null, maxItems, requests.size());
+        }
+        Map<SearchKey, Future<ApiPaginationResponse>> running = new HashMap<>();
+        List<Future<ApiPaginationResponse>> results = new ArrayList<>(requests.size());
+        try {
+            for (BatchSearchRequest request : requests) {
+                EntitySearch search = searchServiceRegistry.find(request.getEntity());
+                results.add(search == null ? null : running.computeIfAbsent(new SearchKey(search.entityClass(), request.getRequest()),
+                        key -> batchExecutor.submit(() -> search.search().search(key.request()))));
+            }
+
+            List<BatchSearchResponse> responses = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                String entity = requests.get(i).getEntity();
+                BatchSearchResponse.BatchSearchResponseBuilder response = BatchSearchResponse.builder().entity(entity);
+                if (results.get(i) == null) {
+                    response.error(error(HttpStatus.NOT_FOUND, "No service searches entity " + entity, IllegalArgumentException.class.getName(), i, null));
+                } else {
+                    try {
+                        response.result(results.get(i).get());
+                    } catch (ExecutionException e) {
+                        response.error(error(e.getCause(), i));
+                    }
+                }
+                responses.add(response.build());
+            }
+            return responses;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for searches: " + e.getMessage(), e);
+        } finally {
+            //searches nobody waits for any more only hold connections
+            running.values().forEach(result -> result.cancel(true));
+        }
+    }
+
+    /**
+     * The error of one item, with the status {@link com.og.templateback.configuration.core.web.controller.advice.ControllerAdvice}
+     * would answer the same search with.
+     */
+    private static CustomErrorMessage error(Throwable ex, int item) {
+        log.info("Batch search {} failed: {}", item, ex.getMessage());
+        if (ex instanceof QueryRejectedException rejected) {
+            return error(rejected.getReason().getStatus(), ex.getMessage(), ex.getClass().getName(), item, rejected.getDetails());
+        }
+        if (ex instanceof QueryTimeoutException || ex instanceof org.springframework.dao.QueryTimeoutException) {
+            return error(Reason.TIMEOUT.getStatus(), Reason.TIMEOUT.getMessage() + ": " + ex.getMessage(), ex.getClass().getName(), item,
+                    Map.of("reason", Reason.TIMEOUT));
+        }
+        HttpStatus status = ex instanceof AbstractNotFoundException ? HttpStatus.NOT_FOUND : HttpStatus.INTERNAL_SERVER_ERROR;
+        return error(status, ex.getMessage(), ex.getClass().getName(), item, null);
+    }
+
+    private static CustomErrorMessage error(HttpStatus status, String message, String exceptionName, int item, Map<String, Object> details) {
+        return CustomErrorMessage.builder()
+                .statusCode(status.value())
+                .timestamp(new Date())
+                .message(message)
+                .description("item=" + item)
+                .exceptionName(exceptionName)
+                .details(details)
+                .build();
+    }
+
+    /**
+     * Searches of one batch with equal keys run once.
+     */
+    private record SearchKey(Class<?> entityClass, SearchRequest request) {
+    }
+}
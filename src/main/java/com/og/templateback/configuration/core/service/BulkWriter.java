@@ -0,0 +1,296 @@
+package com.og.templateback.configuration.core.service;
+
+import com.og.templateback.configuration.core.specification.SearchQueryExecutor;
+import com.og.templateback.configuration.core.web.controller.advice.exception.CustomErrorMessage;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException.Reason;
+import com.og.templateback.configuration.core.web.dto.BulkWriteResponse;
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnitUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.PersistentObjectException;
+import org.hibernate.PropertyValueException;
+import org.hibernate.TransientObjectException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+import org.hibernate.id.Assigned;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Writes many entities in chunks of {@code bulk.chunk-size}, every chunk in its own transaction,
+ * so a failed chunk doesn't roll back the committed ones and the persistence context never holds more than one chunk.
+ * <p>
+ * Inserts and updates of a chunk are sent as JDBC batches of {@code hibernate.jdbc.batch_size}, the postgres driver
+ * rewrites batched inserts to multi-row inserts with {@code reWriteBatchedInserts}. Hibernate batches inserts only if it knows ids
+ * before inserting, so entities with identity columns should opt into {@link com.og.templateback.configuration.core.entity.PooledSequence}.
+ * <p>
+ * If a chunk fails, its items are retried one by one to tell the failed items from the others: an item that violates
+ * a constraint or is not valid is reported as the error of its item. If the database fails, e.g. the connection is lost,
+ * the remaining items are reported failed with that error.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Service
+public class BulkWriter {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final SearchQueryExecutor searchQueryExecutor;
+
+    /**
+     * Commits every chunk on its own, even if the caller runs in a transaction.
+     */
+    private final TransactionTemplate chunkTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Maximum number of entities in one bulk write.
+     */
+    @Value("${bulk.max-items:100000}")
+    private int maxItems;
+
+    public BulkWriter(EntityManagerFactory entityManagerFactory, SearchQueryExecutor searchQueryExecutor, PlatformTransactionManager transactionManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.searchQueryExecutor = searchQueryExecutor;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Inserts new entities.
+     *
+     * @param entityClass The entity type.
+     * @param entities    The entities to insert, without ids unless the ids of the entity are assigned.
+     * @return The ids of the inserted entities and the errors of the others, in the order of the entities.
+     * @throws QueryRejectedException if there are more entities than {@code bulk.max-items}
+     */
+    public <E> BulkWriteResponse create(Class<E> entityClass, List<E> entities) {
+        checkSize(entityClass, entities);
+        EntityPersister persister = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(entityClass);
+        boolean generatedId = !(persister.getGenerator() instanceof Assigned);
+        PersistenceUnitUtil persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+
+        Object[] ids = new Object[entities.size()];
+        CustomErrorMessage[] errors = new CustomErrorMessage[entities.size()];
+        List<Integer> valid = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            E entity = entities.get(i);
+            if (entity == null) {
+                errors[i] = error(HttpStatus.BAD_REQUEST, "Item is null", IllegalArgumentException.class.getName(), i);
+            } else if (generatedId && persistenceUnitUtil.getIdentifier(entity) != null) {
+                errors[i] = error(HttpStatus.BAD_REQUEST, "Id of a new " + entityClass.getSimpleName() + " must not be set",
+                        IllegalArgumentException.class.getName(), i);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        BulkWriteResponse response = write(entityClass, valid, ids, errors, chunk -> {
+            for (int item : chunk) {
+                entityManager.persist(entities.get(item));
+            }
+            entityManager.flush();
+            for (int item : chunk) {
+                ids[item] = persistenceUnitUtil.getIdentifier(entities.get(item));
+            }
+        }, item -> {
+            //the rolled back insert took a generated id, without resetting it the entity would be persisted as a detached one
+            if (generatedId) {
+                PropertyAccessorFactory.forDirectFieldAccess(entities.get(item)).setPropertyValue(persister.getIdentifierPropertyName(), null);
+            }
+        });
+        log.info("Bulk created {} of {} {} entities", response.getSucceeded(), entities.size(), entityClass.getSimpleName());
+        return response;
+    }
+
+    /**
+     * Patches existing entities: the entities of a chunk are loaded with one query, patched in memory and flushed once,
+     * so their updates are sent as JDBC batches.
+     *
+     * @param entityClass The entity type.
+     * @param patches     The patches, every one with the id of the entity to patch.
+     * @param idOf        Returns the id of a patch or an entity.
+     * @param loader      Loads the entities with the given ids, e.g. {@code repository::findAllById}.
+     * @param patcher     Applies a patch to the loaded entity.
+     * @return The ids of the patched entities and the errors of the others, 404 if there is no entity with the id,
+     * in the order of the patches.
+     * @throws QueryRejectedException if there are more patches than {@code bulk.max-items}
+     */
+    public <E, ID> BulkWriteResponse update(Class<E> entityClass, List<E> patches, Function<E, ID> idOf,
+                                            Function<List<ID>, List<E>> loader, BiConsumer<E, E> patcher) {
+        checkSize(entityClass, patches);
+        Object[] ids = new Object[patches.size()];
+        CustomErrorMessage[] errors = new CustomErrorMessage[patches.size()];
+        List<Integer> valid = new ArrayList<>(patches.size());
+        for (int i = 0; i < patches.size(); i++) {
+            E patch = patches.get(i);
+            if (patch == null) {
+                errors[i] = error(HttpStatus.BAD_REQUEST, "Item is null", IllegalArgumentException.class.getName(), i);
+            } else if (idOf.apply(patch) == null) {
+                errors[i] = error(HttpStatus.BAD_REQUEST, "Id of the " + entityClass.getSimpleName() + " to update is not set",
+                        IllegalArgumentException.class.getName(), i);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        BulkWriteResponse response = write(entityClass, valid, ids, errors, chunk -> {
+            List<ID> chunkIds = chunk.stream().map(item -> idOf.apply(patches.get(item))).distinct().toList();
+            Map<ID, E> entities = new HashMap<>();
+            loader.apply(chunkIds).forEach(entity -> entities.put(idOf.apply(entity), searchQueryExecutor.writable(entity)));
+            for (int item : chunk) {
+                ID id = idOf.apply(patches.get(item));
+                E entity = entities.get(id);
+                if (entity == null) {
+                    errors[item] = error(HttpStatus.NOT_FOUND, entityClass.getSimpleName() + " not found with id: " + id,
+                            EntityNotFoundException.class.getName(), item);
+                } else {
+                    patcher.accept(patches.get(item), entity);
+                    ids[item] = id;
+                }
+            }
+            entityManager.flush();
+        }, item -> {});
+        log.info("Bulk updated {} of {} {} entities", response.getSucceeded(), patches.size(), entityClass.getSimpleName());
+        return response;
+    }
+
+    private void checkSize(Class<?> entityClass, List<?> items) {
+        if (items.size() > maxItems) {
+            throw new QueryRejectedException(Reason.BULK_SIZE, entityClass, maxItems, items.size());
+        }
+    }
+
+    /**
+     * Writes the valid items chunk by chunk, every chunk in its own transaction with the persistence context cleared after it.
+     * A failed chunk is reset and retried item by item.
+     *
+     * @param chunkWriter Writes the items of a chunk, sets their ids and the errors of items it skips.
+     * @param reset       Undoes the changes of a rolled back write on the item before it is retried.
+     */
+    private BulkWriteResponse write(Class<?> entityClass, List<Integer> valid, Object[] ids, CustomErrorMessage[] errors,
+                                    Consumer<List<Integer>> chunkWriter, IntConsumer reset) {
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(valid.size(), from + chunkSize));
+            try {
+                write(chunk, chunkWriter);
+            } catch (RuntimeException e) {
+                log.info("Chunk of {} {} entities failed, retrying them one by one: {}", chunk.size(), entityClass.getSimpleName(), e.getMessage());
+                chunk.forEach(item -> reset(item, ids, errors, reset));
+                for (int position = 0; position < chunk.size(); position++) {
+                    int item = chunk.get(position);
+                    try {
+                        write(List.of(item), chunkWriter);
+                    } catch (RuntimeException itemException) {
+                        reset(item, ids, errors, reset);
+                        errors[item] = error(itemException, item);
+                        if (!isItemError(itemException)) {
+                            //the database failed, not the item, the remaining items would fail the same way
+                            valid.subList(from + position + 1, valid.size()).forEach(i -> errors[i] = error(itemException, i));
+                            return response(ids, errors);
+                        }
+                    }
+                }
+            }
+        }
+        return response(ids, errors);
+    }
+
+    private void write(List<Integer> items, Consumer<List<Integer>> chunkWriter) {
+        chunkTransaction.executeWithoutResult(status -> {
+            chunkWriter.accept(items);
+            entityManager.clear();
+        });
+    }
+
+    private static void reset(int item, Object[] ids, CustomErrorMessage[] errors, IntConsumer reset) {
+        ids[item] = null;
+        errors[item] = null;
+        reset.accept(item);
+    }
+
+    /**
+     * @return true if the exception is caused by the item, not by the database
+     */
+    private static boolean isItemError(Throwable ex) {
+        return isCausedBy(ex, ConstraintViolationException.class, EntityExistsException.class, DataException.class, PropertyValueException.class,
+                PersistentObjectException.class, TransientObjectException.class, IllegalArgumentException.class);
+    }
+
+    @SafeVarargs
+    private static boolean isCausedBy(Throwable ex, Class<? extends Throwable>... types) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            for (Class<? extends Throwable> type : types) {
+                if (type.isInstance(cause)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static BulkWriteResponse response(Object[] ids, CustomErrorMessage[] errors) {
+        List<CustomErrorMessage> failed = Arrays.stream(errors).filter(Objects::nonNull).toList();
+        return BulkWriteResponse.builder()
+                .succeeded(ids.length - failed.size())
+                .failed(failed.size())
+                .ids(Arrays.asList(ids))
+                .errors(failed)
+                .build();
+    }
+
+    private static CustomErrorMessage error(RuntimeException ex, int item) {
+        HttpStatus status;
+        if (!isItemError(ex)) {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+        } else if (isCausedBy(ex, ConstraintViolationException.class, EntityExistsException.class)) {
+            status = HttpStatus.CONFLICT;
+        } else {
+            status = HttpStatus.BAD_REQUEST;
+        }
+        return error(status, NestedExceptionUtils.getMostSpecificCause(ex).getMessage(), ex.getClass().getName(), item);
+    }
+
+    private static CustomErrorMessage error(HttpStatus status, String message, String exceptionName, int item) {
+        return CustomErrorMessage.builder()
+                .statusCode(status.value())
+                .timestamp(new Date())
+                .message(message)
+                .description("item=" + item)
+                .exceptionName(exceptionName)
+                .build();
+    }
+}
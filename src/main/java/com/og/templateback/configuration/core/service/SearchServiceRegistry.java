@@ -0,0 +1,101 @@
+package com.og.templateback.configuration.core.service;
+
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the search of an entity by its simple class name, case-insensitive, among the service beans
+ * extending {@link AbstractServiceImpl}, {@link AbstractServiceStrImpl} and {@link AbstractViewServiceImpl}.
+ * Searches go through the service proxies, so each runs in the transaction and with the cache of its service.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class SearchServiceRegistry {
+
+    private final ObjectProvider<AbstractService<?>> services;
+
+    private final ObjectProvider<AbstractServiceStr<?>> strServices;
+
+    private final ObjectProvider<AbstractViewService> viewServices;
+
+    /**
+     * Filled on first use, when every service bean exists.
+     */
+    private volatile Map<String, EntitySearch> searches;
+
+    public SearchServiceRegistry(ObjectProvider<AbstractService<?>> services,
+                                 ObjectProvider<AbstractServiceStr<?>> strServices,
+                                 ObjectProvider<AbstractViewService> viewServices) {
+        this.services = services;
+        this.strServices = strServices;
+        this.viewServices = viewServices;
+    }
+
+    /**
+     * @param entity simple class name of the entity, case-insensitive
+     * @return the search of the entity, null if no service searches it
+     */
+    public EntitySearch find(String entity) {
+        return entity == null ? null : searches().get(entity.toLowerCase(Locale.ROOT));
+    }
+
+    private Map<String, EntitySearch> searches() {
+        Map<String, EntitySearch> found = searches;
+        if (found == null) {
+            found = new ConcurrentHashMap<>();
+            for (AbstractService<?> service : services) {
+                register(found, service, AbstractServiceImpl.class, service::searchFilter);
+            }
+            for (AbstractServiceStr<?> service : strServices) {
+                register(found, service, AbstractServiceStrImpl.class, service::searchFilter);
+            }
+            for (AbstractViewService service : viewServices) {
+                register(found, service, AbstractViewServiceImpl.class, service::searchFilter);
+            }
+            searches = found;
+        }
+        return found;
+    }
+
+    private static void register(Map<String, EntitySearch> found, Object service, Class<?> serviceType, Search search) {
+        //a transactional service is a subclass proxy, its generics are declared on the user class
+        Class<?> entityClass = ResolvableType.forClass(ClassUtils.getUserClass(service))
+                .as(serviceType)
+                .resolveGeneric(0);
+        if (entityClass == null) {
+            log.warn("Can't resolve entity of {}, it is not searchable in batches", ClassUtils.getUserClass(service).getName());
+            return;
+        }
+        EntitySearch previous = found.putIfAbsent(entityClass.getSimpleName().toLowerCase(Locale.ROOT), new EntitySearch(entityClass, search));
+        if (previous != null) {
+            log.warn("{} is searched by several services, batches use the first one", entityClass.getSimpleName());
+        }
+    }
+
+    /**
+     * Search of one service, the checked exceptions differ between the service interfaces.
+     */
+    @FunctionalInterface
+    public interface Search {
+        ApiPaginationResponse search(SearchRequest request) throws Exception;
+    }
+
+    /**
+     * @param entityClass entity the service searches
+     * @param search      search of the service
+     */
+    public record EntitySearch(Class<?> entityClass, Search search) {
+    }
+}
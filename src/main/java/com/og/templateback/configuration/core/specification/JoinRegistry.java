@@ -0,0 +1,266 @@
+package com.og.templateback.configuration.core.specification;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.og.templateback.configuration.core.metamodel.AttributePath;
+import com.og.templateback.configuration.core.specification.enums.LogicalOperator;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.FieldStep;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.FilterStep;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.SortStep;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Joins of one criteria query, shared by all filters and sorts of a {@link SearchSpecification}.
+ * <p>
+ * Every association path is joined once, with the join type precomputed by {@link SearchPlan}.
+ * To-one joins of a query selecting the entity itself are fetch joins, unless the association is not serialized,
+ * so the same join that filters the rows also loads the association without a second select.
+ * A collection path can't be joined without duplicating rows of the root, so all filters under one collection
+ * are grouped into a single correlated {@code EXISTS} subquery, one per filter group.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+final class JoinRegistry<T> {
+    private final Root<T> root;
+    private final CriteriaQuery<?> query;
+    private final CriteriaBuilder cb;
+    private final SearchPlan plan;
+
+    /**
+     * True if the query selects the root entity, only then to-one joins may be fetched.
+     */
+    private final boolean fetchable;
+
+    private final Map<String, From<?, ?>> joins = new HashMap<>();
+    private final Set<String> fetched = new HashSet<>();
+    private final Junction main = new Junction(LogicalOperator.AND);
+
+    JoinRegistry(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, SearchPlan plan) {
+        this.root = root;
+        this.query = query;
+        this.cb = cb;
+        this.plan = plan;
+        this.fetchable = root.getJavaType().equals(query.getResultType());
+    }
+
+    /**
+     * Applies the filter to the main predicate, or to the predicate of its collection scope.
+     *
+     * @return The main predicate.
+     */
+    Predicate filter(FilterStep step, FilterRequest request, Predicate predicate) {
+        return filter(step, request, predicate, main);
+    }
+
+    /**
+     * Combines the filter with the predicate of the junction, or with the predicate of its collection scope in the junction.
+     *
+     * @param predicate The predicate of the junction, null if it has no members yet.
+     * @return The predicate of the junction.
+     */
+    Predicate filter(FilterStep step, FilterRequest request, Predicate predicate, Junction junction) {
+        String[] path = step.getPath();
+        From<?, ?> from = root;
+        CollectionScope scope = null;
+        for (int i = 0; i < path.length - 1; i++) {
+            Attribute<?, ?> attribute = attributeOf(step.getAttribute(), i, from, path[i]);
+            if (scope == null && attribute != null && attribute.isCollection()) {
+                scope = junction.scopes.computeIfAbsent(step.getJoinKeys()[i], key -> new CollectionScope(path, key, junction));
+                from = scope.collection;
+            } else if (scope == null) {
+                from = join(from, path[i], step.getJoinKeys()[i], attribute);
+            } else {
+                from = scope.join(from, path[i], step.getJoinKeys()[i]);
+            }
+        }
+
+        Path<?> target = from.get(path[path.length - 1]);
+        if (scope == null) {
+            return junction.add(predicate, step, request, target);
+        }
+        scope.predicate = junction.add(scope.predicate, step, request, target);
+        return predicate;
+    }
+
+    /**
+     * @return A new junction of the filters of one group, with its own collection scopes.
+     */
+    Junction junction(LogicalOperator operator) {
+        return new Junction(operator);
+    }
+
+    /**
+     * @return The path of the sort key, sharing joins with the filters.
+     */
+    Path<?> sort(SortStep step) {
+        return toOnePath(step.getKey(), step.getPath(), step.getJoinKeys(), step.getAttribute(), "Can't sort by collection: ");
+    }
+
+    /**
+     * @return The path of the selected column, sharing joins with the filters and sorts.
+     */
+    Path<?> select(FieldStep step) {
+        return toOnePath(step.getKey(), step.getPath(), step.getJoinKeys(), step.getAttribute(), "Can't select collection: ");
+    }
+
+    private Path<?> toOnePath(String key, String[] path, String[] joinKeys, AttributePath resolved, String collectionError) {
+        From<?, ?> from = root;
+        for (int i = 0; i < path.length - 1; i++) {
+            Attribute<?, ?> attribute = attributeOf(resolved, i, from, path[i]);
+            if (attribute != null && attribute.isCollection()) {
+                throw new FilterException(collectionError + key);
+            }
+            from = join(from, path[i], joinKeys[i], attribute);
+        }
+        return from.get(path[path.length - 1]);
+    }
+
+    /**
+     * @return The main predicate AND-ed with the {@code EXISTS} of every collection scope.
+     */
+    Predicate close(Predicate predicate) {
+        return close(predicate, main);
+    }
+
+    /**
+     * @return The predicate of the junction combined with the {@code EXISTS} of every collection scope in it.
+     */
+    Predicate close(Predicate predicate, Junction junction) {
+        for (CollectionScope scope : junction.scopes.values()) {
+            scope.subquery.select(cb.literal(1)).where(scope.predicate);
+            predicate = junction.operator.combine(cb, predicate, cb.exists(scope.subquery));
+        }
+        return predicate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private From<?, ?> join(From<?, ?> parent, String node, String joinKey, Attribute<?, ?> attribute) {
+        From<?, ?> join = joins.get(joinKey);
+        if (join != null) {
+            return join;
+        }
+        JoinType type = plan.joinType(joinKey);
+        boolean fetch = fetchable && (parent == root || fetched.contains(parentKey(joinKey))) && isSerialized(attribute);
+        if (fetch) {
+            //a fetch of a to-one association is a join as well in hibernate, its path can be filtered and sorted on
+            join = (Join<Object, Object>) parent.fetch(node, type);
+            fetched.add(joinKey);
+        } else {
+            join = parent.join(node, type);
+        }
+        joins.put(joinKey, join);
+        return join;
+    }
+
+    /**
+     * @return The attribute resolved by the entity metamodel, or looked up on the type behind the given from
+     * if the plan was compiled without it. Null if that is not a managed type.
+     */
+    private static Attribute<?, ?> attributeOf(AttributePath resolved, int index, From<?, ?> from, String node) {
+        if (resolved != null) {
+            return resolved.getAttributes().get(index);
+        }
+        Type<?> type = null;
+        if (from instanceof Root<?> entity) {
+            type = entity.getModel();
+        } else if (from instanceof Join<?, ?> join) {
+            if (join.getAttribute() instanceof SingularAttribute<?, ?> singular) {
+                type = singular.getType();
+            } else if (join.getAttribute() instanceof PluralAttribute<?, ?, ?> plural) {
+                type = plural.getElementType();
+            }
+        }
+        return type instanceof ManagedType<?> managed ? managed.getAttribute(node) : null;
+    }
+
+    private static String parentKey(String joinKey) {
+        int dot = joinKey.lastIndexOf('.');
+        return dot < 0 ? "" : joinKey.substring(0, dot);
+    }
+
+    private static boolean isSerialized(Attribute<?, ?> attribute) {
+        if (attribute == null || !attribute.isAssociation() || !(attribute.getJavaMember() instanceof AnnotatedElement member)) {
+            return false;
+        }
+        return !member.isAnnotationPresent(JsonIgnore.class) && !member.isAnnotationPresent(JsonBackReference.class);
+    }
+
+    /**
+     * Filters combined by one logical operator: the top level filters, or the filters of one group.
+     * Filters under one collection path share one correlated {@code EXISTS} per junction, combined by the same operator.
+     * AND-combined filters on one collection match the same element: {@code orders.status = 'NEW' AND orders.total > 100}
+     * finds a row with one new order over 100, not with some new order and some other order over 100. That is what the single
+     * join per path of the former query matched as well. For OR both readings are equal, as some element matches
+     * {@code a OR b} exactly if some element matches {@code a} or some element matches {@code b}.
+     */
+    final class Junction {
+        private final LogicalOperator operator;
+        private final Map<String, CollectionScope> scopes = new LinkedHashMap<>();
+
+        private Junction(LogicalOperator operator) {
+            this.operator = operator;
+        }
+
+        private Predicate add(Predicate predicate, FilterStep step, FilterRequest request, Path<?> target) {
+            if (operator != LogicalOperator.OR) {
+                return step.getOperator().build(root, cb, request, predicate == null ? cb.conjunction() : predicate, target, step.getTextIndex());
+            }
+            Predicate filter = step.getOperator().build(root, cb, request, cb.conjunction(), target, step.getTextIndex());
+            return operator.combine(cb, predicate, filter);
+        }
+    }
+
+    /**
+     * Correlated subquery of one collection path, e.g. "orders" for filters "orders.status" and "orders.item.name".
+     */
+    private final class CollectionScope {
+        private final Subquery<Integer> subquery;
+        private final From<?, ?> collection;
+        private final Junction junction;
+        private final Map<String, From<?, ?>> scopeJoins = new HashMap<>();
+        private Predicate predicate;
+
+        private CollectionScope(String[] path, String collectionKey, Junction junction) {
+            this.subquery = query.subquery(Integer.class);
+            this.junction = junction;
+            From<?, ?> from = subquery.correlate(root);
+            int depth = SearchPlan.splitPath(collectionKey).length;
+            for (int i = 0; i < depth; i++) {
+                from = from.join(path[i]);
+            }
+            this.collection = from;
+            this.predicate = junction.operator == LogicalOperator.OR ? null : cb.conjunction();
+        }
+
+        /**
+         * Join types of the plan hold for the top level filters only, a group may match an element without the association.
+         */
+        private From<?, ?> join(From<?, ?> parent, String node, String joinKey) {
+            return scopeJoins.computeIfAbsent(joinKey, key -> parent.join(node, junction == main ? plan.joinType(key) : JoinType.LEFT));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.og.templateback.configuration.core.specification;
+
+import com.og.templateback.configuration.core.specification.enums.DateTruncation;
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the postgres operators search predicates need, but HQL has no syntax for, as HQL functions.
+ * Registered through {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    /**
+     * {@code trgm_similar(col, value)} > {@code col % value}, pg_trgm similarity a trigram index on the column can serve.
+     */
+    public static final String SIMILAR = "trgm_similar";
+
+    /**
+     * {@code array_any(col, array)} > {@code col = any(array)}, one bind parameter for the whole list.
+     */
+    public static final String ANY = "array_any";
+
+    /**
+     * {@code array_in(col, array)} > {@code col in (select unnest(array))}, a semi-join the planner can hash.
+     */
+    public static final String IN_UNNEST = "array_in";
+
+    /**
+     * {@code not_true(predicate)} > {@code (predicate) is not true}, also true where the predicate is null,
+     * e.g. compares a column of a left join without a row.
+     */
+    public static final String NOT_TRUE = "not_true";
+
+    /**
+     * {@code date_trunc_<unit>(col)} > {@code date_trunc('<unit>', col)}, one function per {@link DateTruncation}
+     * so the unit is inlined and the same expression can be selected and grouped by.
+     */
+    public static final String DATE_TRUNC = "date_trunc";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+        functionContributions.getFunctionRegistry().registerPattern(SIMILAR, "(?1 % ?2)", booleanType);
+        functionContributions.getFunctionRegistry().registerPattern(ANY, "(?1 = any(?2))", booleanType);
+        functionContributions.getFunctionRegistry().registerPattern(IN_UNNEST, "(?1 in (select unnest(?2)))", booleanType);
+        functionContributions.getFunctionRegistry().registerPattern(NOT_TRUE, "((?1) is not true)", booleanType);
+        for (DateTruncation truncation : DateTruncation.values()) {
+            functionContributions.getFunctionRegistry()
+                    .patternDescriptorBuilder(truncation.getFunction(), "date_trunc('" + truncation.getUnit() + "',?1)")
+                    .setExactArgumentCount(1)
+                    .setReturnTypeResolver(StandardFunctionReturnTypeResolvers.useArgType(1))
+                    .register();
+        }
+    }
+}
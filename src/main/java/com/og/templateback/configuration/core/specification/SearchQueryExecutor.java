@@ -0,0 +1,1190 @@
+package com.og.templateback.configuration.core.specification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.og.templateback.configuration.core.datasource.ReplicaRoutingDataSource;
+import com.og.templateback.configuration.core.metamodel.AttributePath;
+import com.og.templateback.configuration.core.metamodel.EntityDescriptor;
+import com.og.templateback.configuration.core.metamodel.EntityMetamodel;
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.FieldType;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.explain.QueryExplainer;
+import com.og.templateback.configuration.core.specification.guard.QueryGuard;
+import com.og.templateback.configuration.core.specification.index.SearchUsageRecorder;
+import com.og.templateback.configuration.core.specification.index.TextIndexCatalog;
+import com.og.templateback.configuration.core.specification.metrics.SearchMetrics;
+import com.og.templateback.configuration.core.specification.pagination.KeysetCursor;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.AggregateFieldRequest;
+import com.og.templateback.configuration.core.specification.request.AggregateRequest;
+import com.og.templateback.configuration.core.specification.request.FacetFieldRequest;
+import com.og.templateback.configuration.core.specification.request.DistinctRequest;
+import com.og.templateback.configuration.core.specification.request.FacetRequest;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.GroupByRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import com.og.templateback.configuration.core.web.dto.AggregateResponse;
+import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse.FacetValue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Executes specifications directly through the {@link EntityManager} for the cases
+ * {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor} can't express,
+ * e.g. fetching a page by limit only, without offset and count query, or with a cheaper total.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchQueryExecutor {
+
+    private final QueryExplainer queryExplainer;
+
+    private final QueryGuard queryGuard;
+
+    private final SearchPlanCache searchPlanCache;
+
+    private final EntityMetamodel entityMetamodel;
+
+    private final TextIndexCatalog textIndexCatalog;
+
+    private final SearchUsageRecorder searchUsageRecorder;
+
+    private final SearchMetrics searchMetrics;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Runs totals of pages in parallel with the pages and facets in parallel with each other, one connection each,
+     * null if parallel counting is disabled.
+     */
+    private ExecutorService countExecutor;
+
+    /**
+     * Read-only transactions of pages and facets, see {@link #inPageTransaction} and {@link #inFacetTransaction}.
+     */
+    private TransactionTemplate readTransaction;
+
+    private TransactionTemplate snapshotTransaction;
+
+    /**
+     * Number of rows after which {@link CountStrategy#CAPPED} stops counting.
+     */
+    @Value("${search.count.cap:10000}")
+    private long countCap;
+
+    /**
+     * Calculates exact and capped totals of pages on other connections at the same time as the pages,
+     * at most {@code max-connections} at a time across all requests, each request takes at most one.
+     */
+    @Value("${search.count.parallel.enabled:false}")
+    private boolean parallelCount;
+
+    @Value("${search.count.parallel.max-connections:4}")
+    private int parallelCountConnections;
+
+    /**
+     * Number of values of a facet without a limit, and the maximum limit of a facet.
+     */
+    @Value("${search.facet.default-limit:10}")
+    private int facetDefaultLimit;
+
+    @Value("${search.facet.max-limit:1000}")
+    private int facetMaxLimit;
+
+    /**
+     * Number of distinct values without a limit, and the maximum limit.
+     */
+    @Value("${search.distinct.default-limit:100}")
+    private int distinctDefaultLimit;
+
+    @Value("${search.distinct.max-limit:10000}")
+    private int distinctMaxLimit;
+
+    /**
+     * Number of groups of an aggregation without a limit, and the maximum limit.
+     */
+    @Value("${search.aggregate.default-limit:1000}")
+    private int aggregateDefaultLimit;
+
+    @Value("${search.aggregate.max-limit:10000}")
+    private int aggregateMaxLimit;
+
+    /**
+     * Maximum number of rows fetched from the database at a time by the read path.
+     */
+    @Value("${search.read.fetch-size:1000}")
+    private int readFetchSize;
+
+    /**
+     * Number of rows an export fetches from the database cursor at a time.
+     */
+    @Value("${search.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    /**
+     * Columns with at most this many distinct values by planner statistics are read by a loose index scan.
+     */
+    @Value("${search.distinct.loose-scan.max-values:10000}")
+    private long looseScanMaxValues;
+
+    /**
+     * How long the number of distinct values of a column read from the planner statistics is kept.
+     */
+    @Value("${search.distinct.loose-scan.statistics-ttl:10m}")
+    private Duration looseScanStatisticsTtl;
+
+    /**
+     * Distinct values of columns by planner statistics, by {@code table.column}, -1 if the column has no statistics.
+     */
+    private Cache<String, Long> distinctEstimates;
+
+    @PostConstruct
+    void createDistinctEstimates() {
+        distinctEstimates = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(looseScanStatisticsTtl)
+                .build();
+    }
+
+    @PostConstruct
+    void createPageTransactions() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setReadOnly(true);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @PostConstruct
+    void startCountExecutor() {
+        if (parallelCount) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("search-count-");
+            threadFactory.setDaemon(true);
+            countExecutor = Executors.newFixedThreadPool(parallelCountConnections, threadFactory);
+        }
+    }
+
+    @PreDestroy
+    void stopCountExecutor() {
+        if (countExecutor != null) {
+            countExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Selects rows matching the specification within the given window.
+     * A projecting {@link SearchSpecification} selects its fields only, as maps, other specifications select entities read-only.
+     *
+     * @param domainClass   The entity type.
+     * @param specification The specification to apply, it also defines the order. Null for all rows.
+     * @param offset        Number of rows to skip.
+     * @param limit         Maximum number of rows to return.
+     * @return The selected rows.
+     */
+    public <T> List<?> findAll(Class<T> domainClass, Specification<T> specification, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        if (specification instanceof SearchSpecification<T> search && search.isProjection()) {
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<T> root = query.from(domainClass);
+            applySpecification(search, root, query, cb);
+            return window(read(domainClass, entityManager.createQuery(query), limit), offset, limit)
+                    .getResultList()
+                    .stream()
+                    .map(search::toRow)
+                    .toList();
+        }
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        query.select(root);
+        applySpecification(specification, root, query, cb);
+        return window(read(domainClass, entityManager.createQuery(query), limit), offset, limit)
+                .getResultList();
+    }
+
+    /**
+     * Selects every row of the entity read-only, fetching them {@code search.read.fetch-size} rows at a time.
+     * At most {@code search.guard.max-unpaged-rows} rows are read, a larger table is rejected instead of loaded into memory.
+     *
+     * @param domainClass The entity type.
+     * @return All entities.
+     * @throws com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException if the table has more rows
+     */
+    public <T> List<T> findAll(Class<T> domainClass) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        query.select(query.from(domainClass));
+        int limit = queryGuard.maxUnpagedRows(domainClass) + 1;
+        List<T> rows = read(domainClass, entityManager.createQuery(query), limit)
+                .setMaxResults(limit)
+                .getResultList();
+        queryGuard.checkUnpagedRows(domainClass, rows.size());
+        return rows;
+    }
+
+    /**
+     * Loads the entity by id, read-only in a read-only transaction, see {@link #read(Class, TypedQuery, int)}.
+     *
+     * @param domainClass The entity type.
+     * @param id          The id of the entity.
+     * @return The entity, null if there is none with the id.
+     */
+    public <T> T findById(Class<T> domainClass, Object id) {
+        return entityManager.find(domainClass, id, isReadOnlyTransaction() ? Map.of(HibernateHints.HINT_READ_ONLY, true) : Map.of());
+    }
+
+    /**
+     * Makes an entity the read path loaded read-only modifiable again. With open-in-view the persistence context outlives
+     * the read-only transaction, so a later read-write transaction of the same request gets the read-only instance back
+     * from it, and hibernate would silently skip its changes.
+     *
+     * @param entity Managed entity about to be changed.
+     * @return The entity.
+     */
+    public <T> T writable(T entity) {
+        Session session = entityManager.unwrap(Session.class);
+        if (session.contains(entity) && session.isReadOnly(entity)) {
+            session.setReadOnly(entity, false);
+        }
+        return entity;
+    }
+
+    /**
+     * Reads every row matching the specification in its order, ignoring the page of the request, and passes them one by one to the consumer.
+     * Rows are fetched by a server-side cursor {@code search.export.fetch-size} rows at a time as read-only, and the persistence context
+     * is cleared after every batch, so memory doesn't grow with the number of rows. Must be called in a read-only transaction:
+     * postgres fetches the whole result at once in autocommit mode, and clearing would discard pending changes.
+     *
+     * @param domainClass   The entity type.
+     * @param specification The specification to apply, a projecting one streams its fields as maps.
+     * @param consumer      Receives the entities or rows, it may block to slow the reading down.
+     * @return Number of rows read.
+     */
+    public <T> long stream(Class<T> domainClass, SearchSpecification<T> specification, Consumer<Object> consumer) {
+        return timed(domainClass, "stream", specification, null, () -> readStream(domainClass, specification, consumer));
+    }
+
+    private <T> long readStream(Class<T> domainClass, SearchSpecification<T> specification, Consumer<Object> consumer) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        if (specification.isProjection()) {
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<T> root = query.from(domainClass);
+            applySpecification(specification, root, query, cb);
+            return stream(entityManager.createQuery(query), specification::toRow, consumer);
+        }
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        query.select(root);
+        applySpecification(specification, root, query, cb);
+        return stream(entityManager.createQuery(query), Function.identity(), consumer);
+    }
+
+    private <R> long stream(TypedQuery<R> query, Function<R, ?> mapping, Consumer<Object> consumer) {
+        long count = 0;
+        try (Stream<R> rows = query.setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, isReadOnlyTransaction())
+                .getResultStream()) {
+            for (Iterator<R> iterator = rows.iterator(); iterator.hasNext(); ) {
+                consumer.accept(mapping.apply(iterator.next()));
+                if (++count % exportFetchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts rows matching the specification.
+     *
+     * @param domainClass   The entity type.
+     * @param specification The specification to apply. Null for all rows.
+     * @return Exact number of matching rows.
+     */
+    public <T> long count(Class<T> domainClass, Specification<T> specification) {
+        return count(entityManager, domainClass, specification);
+    }
+
+    private <T> long count(EntityManager entityManager, Class<T> domainClass, Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, cb);
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        query.orderBy(Collections.emptyList());
+        return queryGuard.timeout(domainClass, entityManager.createQuery(query)).getSingleResult();
+    }
+
+    /**
+     * Checks if there is a row at the given position of the result, scanning no more than {@code offset + 1} rows.
+     *
+     * @param domainClass   The entity type.
+     * @param specification The specification to apply. Null for all rows.
+     * @param offset        0-based position of the row.
+     * @return True if the result has more than {@code offset} rows.
+     */
+    public <T> boolean existsAt(Class<T> domainClass, Specification<T> specification, long offset) {
+        return existsAt(entityManager, domainClass, specification, offset);
+    }
+
+    private <T> boolean existsAt(EntityManager entityManager, Class<T> domainClass, Specification<T> specification, long offset) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery(Object.class);
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, cb);
+        query.select(root.get(SearchPlan.ID));
+        query.orderBy(Collections.emptyList());
+        return !queryGuard.timeout(domainClass, entityManager.createQuery(query))
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Runs the work, fetching a page, in a read-only transaction. Only if the total of the page is going to be counted
+     * in parallel, the transaction is repeatable read, as {@link #totalInParallel} needs a snapshot the page query keeps;
+     * other pages run in the default isolation and don't pay for it. Joins the transaction of the caller if there is one,
+     * then its isolation decides whether the total is counted in parallel.
+     * The work may include the lookup of the result cache, which serves read-only transactions only.
+     *
+     * @param strategy How the total of the page is calculated, {@link CountStrategy#NONE} for keyset pages.
+     * @param work     The search of the page.
+     * @throws Exception thrown by the work
+     */
+    public <R> R inPageTransaction(CountStrategy strategy, Callable<R> work) throws Exception {
+        return inTransaction(strategy == CountStrategy.EXACT || strategy == CountStrategy.CAPPED, work);
+    }
+
+    /**
+     * Runs the work, counting facets, in a read-only transaction, repeatable read only if {@link #facets} is going to count
+     * some of them in parallel, that is with more than one facet. Joins the transaction of the caller if there is one.
+     *
+     * @param request The facets to count.
+     * @param work    The counting of the facets.
+     * @throws Exception thrown by the work
+     */
+    public <R> R inFacetTransaction(FacetRequest request, Callable<R> work) throws Exception {
+        return inTransaction(request.getFacets() != null && request.getFacets().size() > 1, work);
+    }
+
+    private <R> R inTransaction(boolean parallel, Callable<R> work) throws Exception {
+        TransactionTemplate transaction = countExecutor != null && parallel ? snapshotTransaction : readTransaction;
+        try {
+            return transaction.execute(status -> {
+                try {
+                    return work.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new UndeclaredThrowableException(e);
+                }
+            });
+        } catch (UndeclaredThrowableException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Fetches one page of offset pagination with the total calculated by the given strategy.
+     * One extra row is selected to know if there is a next page; on the last page the total is exact without counting.
+     * With {@code search.count.parallel.enabled} in a repeatable read transaction, exact and capped totals are calculated
+     * on another connection while the page is fetched, see {@link #totalInParallel} and {@link #inPageTransaction}.
+     *
+     * @param domainClass   The entity type.
+     * @param specification The specification to apply. Null for all rows.
+     * @param pageable      The page to fetch.
+     * @param strategy      How to calculate the total.
+     * @param filtered      False if the specification has no filters, then the table statistics is enough for an estimate.
+     * @return The page with the total and the kind of the total, which may be cheaper than requested, see {@link QueryGuard#admit}.
+     * @throws com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException if the page is too large or costly
+     */
+    public <T> ApiPaginationResponse page(Class<T> domainClass, Specification<T> specification, Pageable pageable,
+                                          CountStrategy strategy, boolean filtered) {
+        long start = System.nanoTime();
+        ApiPaginationResponse response;
+        try {
+            response = readPage(domainClass, specification, pageable, strategy, filtered);
+        } catch (RuntimeException e) {
+            searchMetrics.record(domainClass, "page", specification, pageable.getPageSize(), strategy, System.nanoTime() - start, e);
+            throw e;
+        }
+        long nanos = System.nanoTime() - start;
+        searchMetrics.record(domainClass, "page", specification, pageable.getPageSize(), strategy, nanos, null);
+        searchUsageRecorder.record(domainClass, specification, nanos,
+                response.getTotalKind() == CountStrategy.EXACT ? response.getTotalElements() : null);
+        return response;
+    }
+
+    private <T> ApiPaginationResponse readPage(Class<T> domainClass, Specification<T> specification, Pageable pageable,
+                                               CountStrategy strategy, boolean filtered) {
+        int size = pageable.getPageSize();
+        long offset = pageable.getOffset();
+        queryGuard.checkPageSize(domainClass, size);
+        strategy = queryGuard.admit(domainClass, specification, offset + size + 1, strategy);
+        ParallelWork<Total> parallelTotal = totalInParallel(domainClass, specification, strategy);
+        try {
+            List<?> rows = findAll(domainClass, specification, Math.toIntExact(offset), size + 1);
+            boolean hasNext = rows.size() > size;
+            List<?> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+
+            ApiPaginationResponse response = ApiPaginationResponse.builder()
+                    .content(content)
+                    .hasNext(hasNext)
+                    .totalKind(CountStrategy.NONE)
+                    .build();
+            if (strategy == CountStrategy.NONE) {
+                return response;
+            }
+            if (!hasNext && (!content.isEmpty() || offset == 0)) {
+                return withTotal(response, offset + content.size(), size, CountStrategy.EXACT);
+            }
+
+            return switch (strategy) {
+                case EXACT, CAPPED -> {
+                    CountStrategy count = strategy;
+                    Total total = parallelTotal == null
+                            ? total(entityManager, domainClass, specification, count)
+                            : await(parallelTotal, em -> total(em, domainClass, specification, count));
+                    yield withTotal(response, total.value(), size, total.kind());
+                }
+                case ESTIMATED -> {
+                    Long estimate = estimate(domainClass, specification, filtered);
+                    yield estimate == null
+                            ? withTotal(response, count(domainClass, specification), size, CountStrategy.EXACT)
+                            //rows up to this page and the extra one are known to exist
+                            : withTotal(response, Math.max(estimate, offset + size + 1), size, CountStrategy.ESTIMATED);
+                }
+                case NONE -> response;
+            };
+        } finally {
+            //the total of the last page is known from its rows, the count is not needed then
+            if (parallelTotal != null) {
+                cancel(parallelTotal);
+            }
+        }
+    }
+
+    /**
+     * Starts the exact or capped total of the page on another pooled connection, so it runs at the same time as the page query.
+     * The other transaction imports the snapshot of the current one, so both see the same rows. Only a repeatable read transaction
+     * keeps the snapshot for its own later queries, in other transactions and with parallel counting disabled the total is calculated
+     * after the page on the same connection.
+     *
+     * @return The running total, null to calculate it on the current connection.
+     */
+    private <T> ParallelWork<Total> totalInParallel(Class<T> domainClass, Specification<T> specification, CountStrategy strategy) {
+        if (strategy != CountStrategy.EXACT && strategy != CountStrategy.CAPPED) {
+            return null;
+        }
+        Snapshot snapshot = exportSnapshot();
+        return snapshot == null ? null : inParallel(snapshot, em -> total(em, domainClass, specification, strategy));
+    }
+
+    /**
+     * Exports the snapshot of the current transaction for queries on other connections, see {@link #inParallel}.
+     *
+     * @return The snapshot, null if parallel counting is disabled or the transaction is not repeatable read,
+     * as only then its own later queries keep seeing the snapshot.
+     */
+    private Snapshot exportSnapshot() {
+        if (countExecutor == null) {
+            return null;
+        }
+        Integer isolation = TransactionSynchronizationManager.getCurrentTransactionIsolationLevel();
+        if (isolation == null || isolation < Connection.TRANSACTION_REPEATABLE_READ) {
+            return null;
+        }
+        String id = (String) entityManager.createNativeQuery("SELECT pg_export_snapshot()").getSingleResult();
+        //a snapshot can only be imported on the server it was exported on
+        return new Snapshot(id, ReplicaRoutingDataSource.currentRoute());
+    }
+
+    /**
+     * Starts the work on another pooled connection, in a transaction importing the snapshot.
+     */
+    private <R> ParallelWork<R> inParallel(Snapshot snapshot, Function<EntityManager, R> work) {
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicReference<SharedSessionContractImplementor> session = new AtomicReference<>();
+        Future<R> result = countExecutor.submit(() -> started.compareAndSet(false, true)
+                ? ReplicaRoutingDataSource.onRoute(snapshot.route(), () -> inSnapshot(snapshot.id(), session, work))
+                : null);
+        return new ParallelWork<>(started, session, result);
+    }
+
+    /**
+     * Drops work started by {@link #inParallel} whose result is not needed. Interrupting the thread doesn't stop a running
+     * statement, so the statement is cancelled on the server too and frees its connection for the next request.
+     */
+    private void cancel(ParallelWork<?> parallel) {
+        parallel.result().cancel(true);
+        SharedSessionContractImplementor session = parallel.session().get();
+        if (session == null || parallel.result().isDone() && !parallel.result().isCancelled()) {
+            return;
+        }
+        try {
+            //Statement.cancel() of the running query, a no-op if it has already completed
+            session.getJdbcCoordinator().cancelLastQuery();
+        } catch (RuntimeException e) {
+            log.debug("Could not cancel a parallel query: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for the work started by {@link #inParallel}. If it hasn't started yet, since every count connection is busy,
+     * it runs on the current connection instead, so a request never waits for a connection while holding one.
+     */
+    private <R> R await(ParallelWork<R> parallel, Function<EntityManager, R> work) {
+        if (parallel.started().compareAndSet(false, true)) {
+            return work.apply(entityManager);
+        }
+        try {
+            return parallel.result().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FilterException("Interrupted while waiting for a parallel query: " + e.getMessage());
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new FilterException(e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Runs the work in a new read-only repeatable read transaction importing the snapshot exported by another transaction.
+     */
+    private <R> R inSnapshot(String snapshot, AtomicReference<SharedSessionContractImplementor> session, Function<EntityManager, R> work) {
+        EntityManager snapshotManager = entityManagerFactory.createEntityManager();
+        session.set(snapshotManager.unwrap(SharedSessionContractImplementor.class));
+        try {
+            snapshotManager.getTransaction().begin();
+            snapshotManager.unwrap(Session.class).doWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+                    //the id is returned by pg_export_snapshot(), it can't be a bind parameter
+                    statement.execute("SET TRANSACTION SNAPSHOT '" + snapshot + "'");
+                }
+            });
+            return work.apply(snapshotManager);
+        } finally {
+            session.set(null);
+            if (snapshotManager.getTransaction().isActive()) {
+                snapshotManager.getTransaction().rollback();
+            }
+            snapshotManager.close();
+        }
+    }
+
+    private <T> Total total(EntityManager entityManager, Class<T> domainClass, Specification<T> specification, CountStrategy strategy) {
+        if (strategy == CountStrategy.CAPPED && existsAt(entityManager, domainClass, specification, countCap)) {
+            return new Total(countCap, CountStrategy.CAPPED);
+        }
+        return new Total(count(entityManager, domainClass, specification), CountStrategy.EXACT);
+    }
+
+    /**
+     * Fetches one page of keyset pagination. One extra row is selected to know if there is a next page,
+     * so neither OFFSET nor COUNT is executed and the cost doesn't depend on how deep the page is.
+     *
+     * @param domainClass   The entity type.
+     * @param specification The keyset specification.
+     * @param size          The page size.
+     * @return The page with {@code nextCursor}, or without it on the last page.
+     */
+    public <T> ApiPaginationResponse seek(Class<T> domainClass, SearchSpecification<T> specification, int size) {
+        if (size < 1) {
+            throw new FilterException("Page size must be positive: " + size);
+        }
+        long start = System.nanoTime();
+        List<?> rows;
+        try {
+            queryGuard.checkPageSize(domainClass, size);
+            queryGuard.admit(domainClass, specification, size + 1L, CountStrategy.NONE);
+            rows = findAll(domainClass, specification, 0, size + 1);
+        } catch (RuntimeException e) {
+            searchMetrics.record(domainClass, "seek", specification, size, CountStrategy.NONE, System.nanoTime() - start, e);
+            throw e;
+        }
+        boolean hasNext = rows.size() > size;
+        List<?> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        long nanos = System.nanoTime() - start;
+        searchMetrics.record(domainClass, "seek", specification, size, CountStrategy.NONE, nanos, null);
+        //the first page of a keyset search without a cursor matched all of its rows if there is no next one
+        searchUsageRecorder.record(domainClass, specification, nanos, hasNext || specification.hasCursor() ? null : (long) content.size());
+        return ApiPaginationResponse.builder()
+                .content(content)
+                .nextCursor(hasNext ? specification.nextCursor(content.get(content.size() - 1)) : null)
+                .hasNext(hasNext)
+                .totalKind(CountStrategy.NONE)
+                .build();
+    }
+
+    /**
+     * Counts values of every facet among the rows matching the filters and filter groups of the request, one grouped query per facet.
+     * With {@code search.count.parallel.enabled} in a repeatable read transaction, every facet but the first is counted
+     * on another connection in the snapshot of the transaction, at the same time as the others, see {@link #inFacetTransaction}.
+     * A single grouping sets query can't serve them, as a facet excluding its own filters has other filters than the rest.
+     *
+     * @param domainClass The entity type.
+     * @param request     The filters, filter groups and the facets.
+     * @return Counts of the most frequent values of every facet, in the order of the request.
+     */
+    public <T> List<FacetResponse> facets(Class<T> domainClass, FacetRequest request) {
+        List<Function<EntityManager, FacetResponse>> facets = new ArrayList<>(request.getFacets().size());
+        for (FacetFieldRequest facet : request.getFacets()) {
+            if (facet.getKey() == null) {
+                throw new FilterException("Facet key is required: " + facet);
+            }
+            List<FilterRequest> filters = facet.isExcludeOwnFilters()
+                    ? request.getFilters().stream().filter(filter -> !facet.getKey().equals(filter.getKey())).toList()
+                    : request.getFilters();
+            SearchRequest search = SearchRequest.builder().filters(filters).groups(request.getGroups()).fields(List.of(facet.getKey())).build();
+            SearchSpecification<T> specification = new SearchSpecification<>(search, searchPlanCache.resolve(domainClass, search));
+            AttributePath attribute = entityMetamodel.resolve(domainClass, facet.getKey());
+            requireColumn(attribute);
+            int limit = facet.getLimit() == null ? facetDefaultLimit : Math.min(Math.abs(facet.getLimit()), facetMaxLimit);
+            facets.add(em -> timed(domainClass, "facet", specification, limit, () -> readFacet(em, domainClass, specification, attribute, limit)));
+        }
+
+        Snapshot snapshot = facets.size() > 1 ? exportSnapshot() : null;
+        List<ParallelWork<FacetResponse>> parallel = new ArrayList<>();
+        try {
+            if (snapshot != null) {
+                facets.stream().skip(1).forEach(facet -> parallel.add(inParallel(snapshot, facet)));
+            }
+            List<FacetResponse> responses = new ArrayList<>(facets.size());
+            for (int i = 0; i < facets.size(); i++) {
+                responses.add(i == 0 || snapshot == null ? facets.get(i).apply(entityManager) : await(parallel.get(i - 1), facets.get(i)));
+            }
+            return responses;
+        } finally {
+            parallel.forEach(this::cancel);
+        }
+    }
+
+    /**
+     * Counts rows matching the specification per value of the attribute, the most frequent values first.
+     *
+     * @param domainClass   The entity type.
+     * @param specification The filters, selecting the attribute as their only field, so its path shares the joins of the filters.
+     * @param attribute     The column to group by.
+     * @param limit         Maximum number of values to return.
+     * @return The counts, {@code hasMore} if the attribute has more values.
+     */
+    public <T> FacetResponse facet(Class<T> domainClass, SearchSpecification<T> specification, AttributePath attribute, int limit) {
+        requireColumn(attribute);
+        return timed(domainClass, "facet", specification, limit, () -> readFacet(entityManager, domainClass, specification, attribute, limit));
+    }
+
+    private <T> FacetResponse readFacet(EntityManager entityManager, Class<T> domainClass, SearchSpecification<T> specification,
+                                        AttributePath attribute, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, cb);
+        //the specification selected the attribute, its path is grouped and counted instead
+        Path<?> value = (Path<?>) query.getSelection().getCompoundSelectionItems().get(0);
+        Expression<Long> count = cb.count(root);
+        query.multiselect(value, count)
+                .groupBy(value)
+                .orderBy(cb.desc(count), cb.asc(value));
+
+        List<Tuple> rows = queryGuard.timeout(domainClass, entityManager.createQuery(query))
+                .setMaxResults(limit + 1)
+                .getResultList();
+        boolean hasMore = rows.size() > limit;
+        List<FacetValue> values = rows.stream()
+                .limit(limit)
+                .map(row -> new FacetValue(row.get(0), (Long) row.get(1)))
+                .toList();
+        return FacetResponse.builder()
+                .key(attribute.getKey())
+                .values(values)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Aggregates the rows matching the filters and filter groups of the request per group of its group-by keys, in one grouped query.
+     * The keys are compiled as selected fields of the search, so to-one associations on their paths
+     * are joined once and shared with the filters.
+     *
+     * @param domainClass The entity type.
+     * @param request     The filters, filter groups, group-by keys, aggregates, sorts and limit.
+     * @return One row per group, {@code hasMore} if there are more groups.
+     */
+    public <T> AggregateResponse aggregate(Class<T> domainClass, AggregateRequest request) {
+        if (request.getAggregates().isEmpty()) {
+            throw new FilterException("At least one aggregate is required: " + request);
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        for (GroupByRequest group : request.getGroupBy()) {
+            if (group.getKey() == null) {
+                throw new FilterException("Group by key is required: " + group);
+            }
+            keys.add(group.getKey());
+        }
+        for (AggregateFieldRequest aggregate : request.getAggregates()) {
+            if (aggregate.getFunction() == null || (aggregate.getKey() == null && aggregate.getFunction().requiresKey())) {
+                throw new FilterException("Aggregate function and key are required: " + aggregate);
+            }
+            if (aggregate.getKey() != null) {
+                keys.add(aggregate.getKey());
+            }
+        }
+
+        SearchRequest search = SearchRequest.builder()
+                .filters(request.getFilters())
+                .groups(request.getGroups())
+                .fields(new ArrayList<>(keys))
+                .build();
+        SearchSpecification<T> specification = new SearchSpecification<>(search, searchPlanCache.resolve(domainClass, search));
+        int limit = request.getLimit() == null ? aggregateDefaultLimit : Math.min(Math.abs(request.getLimit()), aggregateMaxLimit);
+        return timed(domainClass, "aggregate", specification, limit, () -> readAggregate(domainClass, request, keys, specification, limit));
+    }
+
+    private <T> AggregateResponse readAggregate(Class<T> domainClass, AggregateRequest request, Set<String> keys,
+                                                SearchSpecification<T> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, cb);
+
+        //the specification selected the keys in order, their paths are grouped and aggregated instead
+        Map<String, Path<?>> paths = new HashMap<>();
+        if (!keys.isEmpty()) {
+            List<Selection<?>> selected = query.getSelection().getCompoundSelectionItems();
+            Iterator<String> key = keys.iterator();
+            for (int i = 0; key.hasNext(); i++) {
+                paths.put(key.next(), (Path<?>) selected.get(i));
+            }
+        }
+
+        Map<String, Expression<?>> columns = new LinkedHashMap<>();
+        List<Expression<?>> groups = new ArrayList<>();
+        for (GroupByRequest group : request.getGroupBy()) {
+            Expression<?> value = truncate(cb, paths.get(group.getKey()), group);
+            groups.add(value);
+            putColumn(columns, Objects.requireNonNullElse(group.getAlias(), group.getKey()), value);
+        }
+        for (AggregateFieldRequest aggregate : request.getAggregates()) {
+            Path<?> path = aggregate.getKey() == null ? null : paths.get(aggregate.getKey());
+            if (path != null && !aggregate.getFunction().accepts(path.getJavaType())) {
+                throw new FilterException("Can't " + aggregate.getFunction() + " field " + aggregate.getKey() + " of type " + path.getJavaType().getSimpleName());
+            }
+            putColumn(columns, aliasOf(aggregate), aggregate.getFunction().build(cb, root, path));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        Set<Expression<?>> ordered = new HashSet<>();
+        for (SortRequest sort : request.getSorts()) {
+            Expression<?> column = columns.get(sort.getKey());
+            if (column == null || sort.getDirection() == null) {
+                throw new FilterException("Sort key must be a column of the result, direction is required: " + sort);
+            }
+            orders.add(sort.getDirection() == SortDirection.DESC ? cb.desc(column) : cb.asc(column));
+            ordered.add(column);
+        }
+        //group keys as tiebreakers make the order total, so the same request returns the same groups within the limit
+        groups.stream().filter(group -> !ordered.contains(group)).forEach(group -> orders.add(cb.asc(group)));
+        query.multiselect(new ArrayList<>(columns.values()))
+                .groupBy(groups)
+                .orderBy(orders);
+
+        List<Tuple> tuples = queryGuard.timeout(domainClass, entityManager.createQuery(query))
+                .setMaxResults(limit + 1)
+                .getResultList();
+        return AggregateResponse.builder()
+                .columns(new ArrayList<>(columns.keySet()))
+                .rows(tuples.stream().limit(limit).map(tuple -> Arrays.asList(tuple.toArray())).toList())
+                .hasMore(tuples.size() > limit)
+                .build();
+    }
+
+    private static Expression<?> truncate(CriteriaBuilder cb, Path<?> path, GroupByRequest group) {
+        if (group.getTruncate() == null) {
+            return path;
+        }
+        Class<?> type = path.getJavaType();
+        if (!Date.class.isAssignableFrom(type) && !Temporal.class.isAssignableFrom(type)) {
+            throw new FilterException("Can't truncate field " + group.getKey() + " of type " + type.getSimpleName());
+        }
+        return cb.function(group.getTruncate().getFunction(), type, path);
+    }
+
+    private static String aliasOf(AggregateFieldRequest aggregate) {
+        if (aggregate.getAlias() != null) {
+            return aggregate.getAlias();
+        }
+        String function = aggregate.getFunction().name().toLowerCase(Locale.ROOT);
+        return aggregate.getKey() == null ? function : function + "_" + aggregate.getKey().replace('.', '_');
+    }
+
+    private static void putColumn(Map<String, Expression<?>> columns, String name, Expression<?> value) {
+        if (columns.putIfAbsent(name, value) != null) {
+            throw new FilterException("Duplicate column " + name + ", set an alias");
+        }
+    }
+
+    /**
+     * Selects one page of distinct non-null values of a key among the rows matching the filters of the request, in ascending order.
+     * Without filters and filter groups, a column with a b-tree index and few distinct values by planner statistics is read
+     * by a loose index scan: a recursive query seeking the next greater value in the index, so the cost depends on the number
+     * of values, not rows.
+     *
+     * @param domainClass The entity type.
+     * @param request     The key, filters, filter groups, prefix and page.
+     * @return The values as content, {@code nextCursor} and {@code hasNext} if there are more.
+     */
+    public <T> ApiPaginationResponse distinct(Class<T> domainClass, DistinctRequest request) {
+        EntityDescriptor entity = entityMetamodel.describe(domainClass);
+        AttributePath attribute = entity.resolve(request.getKey());
+        requireColumn(attribute);
+        boolean hasPrefix = request.getPrefix() != null && !request.getPrefix().isEmpty();
+        if (hasPrefix && !String.class.equals(attribute.getJavaType())) {
+            throw new FilterException("Prefix is supported for text fields only: " + attribute.getKey());
+        }
+        int limit = request.getLimit() == null ? distinctDefaultLimit : Math.min(Math.abs(request.getLimit()), distinctMaxLimit);
+        int offset = request.getOffset() == null ? 0 : Math.abs(request.getOffset());
+        int fingerprint = attribute.getKey().hashCode();
+        Object after = null;
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            KeysetCursor cursor = KeysetCursor.decode(request.getCursor());
+            if (cursor.getSortFingerprint() != fingerprint || cursor.size() != 1) {
+                throw new FilterException("Cursor was issued for another field");
+            }
+            after = cursor.valueAt(0, attribute.getJavaType());
+        }
+
+        List<?> rows;
+        if (request.getFilters().isEmpty() && request.getGroups().isEmpty() && isLooseScannable(entity, attribute)) {
+            String prefix = hasPrefix ? request.getPrefix() : null;
+            Object from = after;
+            rows = timed(domainClass, "distinct", null, limit, () -> looseScan(domainClass, attribute, prefix, from, offset, limit + 1));
+        } else {
+            List<FilterRequest> filters = new ArrayList<>(request.getFilters());
+            if (hasPrefix) {
+                filters.add(FilterRequest.builder()
+                        .key(attribute.getKey())
+                        .operator(Operator.STARTS_WITH)
+                        .fieldType(FieldType.STRING)
+                        .value(request.getPrefix())
+                        .build());
+            }
+            SearchRequest search = SearchRequest.builder().filters(filters).groups(request.getGroups()).fields(List.of(attribute.getKey())).build();
+            SearchSpecification<T> specification = new SearchSpecification<>(search, searchPlanCache.resolve(domainClass, search));
+            Object from = after;
+            rows = timed(domainClass, "distinct", specification, limit, () -> distinct(domainClass, specification, from, offset, limit + 1));
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<?> content = hasNext ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        return ApiPaginationResponse.builder()
+                .content(content)
+                .nextCursor(hasNext ? KeysetCursor.encode(fingerprint, Collections.singletonList(content.get(content.size() - 1))) : null)
+                .hasNext(hasNext)
+                .totalKind(CountStrategy.NONE)
+                .build();
+    }
+
+    /**
+     * Selects every distinct value of a key, null included, in ascending order. Unlike {@link #distinct(Class, DistinctRequest)}
+     * neither paged nor limited by {@code search.distinct.max-limit}, as the values of a field always were.
+     * A column read by a loose index scan is checked for nulls by one more index seek.
+     *
+     * @param domainClass The entity type.
+     * @param key         The key of the field.
+     * @return All values of the field, null last if some row has none.
+     */
+    public <T> List<?> distinctValues(Class<T> domainClass, String key) {
+        EntityDescriptor entity = entityMetamodel.describe(domainClass);
+        AttributePath attribute = entity.resolve(key);
+        requireColumn(attribute);
+        if (isLooseScannable(entity, attribute)) {
+            return timed(domainClass, "distinct", null, null, () -> {
+                List<Object> values = new ArrayList<>(looseScan(domainClass, attribute, null, null, 0, Integer.MAX_VALUE));
+                if (hasNulls(domainClass, attribute)) {
+                    values.add(null);
+                }
+                return values;
+            });
+        }
+        SearchRequest search = SearchRequest.builder().fields(List.of(attribute.getKey())).build();
+        SearchSpecification<T> specification = new SearchSpecification<>(search, searchPlanCache.resolve(domainClass, search));
+        return timed(domainClass, "distinct", specification, null, () -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<T> root = query.from(domainClass);
+            applySpecification(specification, root, query, cb);
+            Expression<?> value = (Expression<?>) query.getSelection().getCompoundSelectionItems().get(0);
+            query.multiselect(value)
+                    .distinct(true)
+                    .orderBy(cb.asc(value));
+            return read(domainClass, entityManager.createQuery(query), Integer.MAX_VALUE)
+                    .getResultList()
+                    .stream()
+                    .map(tuple -> tuple.get(0))
+                    .toList();
+        });
+    }
+
+    private boolean hasNulls(Class<?> domainClass, AttributePath attribute) {
+        String sql = "SELECT EXISTS (SELECT 1 FROM " + attribute.getTable() + " WHERE " + attribute.getColumn() + " IS NULL)";
+        return (Boolean) queryGuard.timeout(domainClass, entityManager.createNativeQuery(sql, Boolean.class))
+                .setFlushMode(FlushModeType.COMMIT)
+                .getSingleResult();
+    }
+
+    /**
+     * @param specification The filters, selecting the attribute as their only field, so its path shares the joins of the filters.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> List<?> distinct(Class<T> domainClass, SearchSpecification<T> specification, Object after, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, cb);
+        Path value = (Path) query.getSelection().getCompoundSelectionItems().get(0);
+        Predicate predicate = cb.isNotNull(value);
+        if (after != null) {
+            predicate = cb.and(predicate, cb.greaterThan(value, (Comparable) after));
+        }
+        if (query.getRestriction() != null) {
+            predicate = cb.and(query.getRestriction(), predicate);
+        }
+        query.multiselect(value)
+                .distinct(true)
+                .where(predicate)
+                .orderBy(cb.asc(value));
+        return window(read(domainClass, entityManager.createQuery(query), limit), offset, limit)
+                .getResultList()
+                .stream()
+                .map(tuple -> tuple.get(0))
+                .toList();
+    }
+
+    /**
+     * Loose index scan: every step of the recursion seeks the next value greater than the previous one.
+     * The prefix is matched on the found values, so the scan may walk all values of the column, which are few.
+     */
+    private List<?> looseScan(Class<?> domainClass, AttributePath attribute, String prefix, Object after, int offset, int limit) {
+        String column = attribute.getColumn();
+        String table = attribute.getTable();
+        String matches = prefix == null ? "" : " AND starts_with(lower(CAST(v AS text)), :prefix)";
+        String sql = "WITH RECURSIVE t(v) AS (" +
+                "(SELECT " + column + " FROM " + table + " WHERE " + column + " IS NOT NULL" +
+                (after == null ? "" : " AND " + column + " > :after") +
+                " ORDER BY " + column + " LIMIT 1)" +
+                " UNION ALL SELECT (SELECT " + column + " FROM " + table + " WHERE " + column + " > t.v ORDER BY " + column + " LIMIT 1)" +
+                " FROM t WHERE t.v IS NOT NULL)" +
+                " SELECT v FROM t WHERE v IS NOT NULL" + matches + " OFFSET :offset LIMIT :limit";
+        Query query = queryGuard.timeout(domainClass, entityManager.createNativeQuery(sql, attribute.getJavaType()))
+                .setParameter("offset", offset)
+                .setParameter("limit", limit)
+                .setFlushMode(FlushModeType.COMMIT);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        if (prefix != null) {
+            query.setParameter("prefix", prefix.toLowerCase(Locale.ROOT));
+        }
+        return query.getResultList();
+    }
+
+    private boolean isLooseScannable(EntityDescriptor entity, AttributePath attribute) {
+        //the column must be on the table of the entity itself, which must hold no rows of other entities
+        boolean ownColumn = attribute.getAttributes().stream()
+                .limit(attribute.getAttributes().size() - 1L)
+                .allMatch(node -> node.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED);
+        if (!entity.isStandalone() || !ownColumn || attribute.getTable() == null || attribute.getColumn() == null
+                || !textIndexCatalog.hasBtree(attribute)) {
+            return false;
+        }
+        //statistics change with ANALYZE only, reading them from pg_stats on every page would cost more than the page
+        String column = attribute.getTable() + "." + attribute.getColumn();
+        Long values = distinctEstimates.getIfPresent(column);
+        if (values == null) {
+            try {
+                values = queryExplainer.estimateDistinctValues(attribute.getTable(), attribute.getColumn());
+            } catch (Exception e) {
+                log.warn("Can't read statistics of {}, reading distinct values without loose index scan: {}", attribute.getKey(), e.getMessage());
+                return false;
+            }
+            distinctEstimates.put(column, values);
+        }
+        return values >= 0 && values <= looseScanMaxValues;
+    }
+
+    /**
+     * Runs a search other than a page and records it in {@link SearchMetrics}.
+     */
+    private <T, R> R timed(Class<T> domainClass, String operation, Specification<T> specification, Integer limit, Supplier<R> search) {
+        long start = System.nanoTime();
+        R result;
+        try {
+            result = search.get();
+        } catch (RuntimeException e) {
+            searchMetrics.record(domainClass, operation, specification, limit, CountStrategy.NONE, System.nanoTime() - start, e);
+            throw e;
+        }
+        searchMetrics.record(domainClass, operation, specification, limit, CountStrategy.NONE, System.nanoTime() - start, null);
+        return result;
+    }
+
+    /**
+     * @throws FilterException if the attribute is not a column of the entity or of its to-one associations
+     */
+    private static void requireColumn(AttributePath attribute) {
+        if (!attribute.isBasic() || attribute.getAttributes().stream().anyMatch(Attribute::isCollection)) {
+            throw new FilterException("Field " + attribute.getKey() + " is not a column of the entity or its to-one associations");
+        }
+    }
+
+    private <T> Long estimate(Class<T> domainClass, Specification<T> specification, boolean filtered) {
+        try {
+            if (!filtered) {
+                long rows = queryExplainer.estimateTableRows(domainClass);
+                if (rows >= 0) {
+                    return rows;
+                }
+            }
+            return queryExplainer.explain(domainClass, specification, null).getRows();
+        } catch (Exception e) {
+            log.warn("Can't estimate count of {}, falling back to exact count: {}", domainClass.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Applies the hints of the read path. In a read-only transaction entities are loaded read-only, so hibernate keeps no snapshot
+     * of their state for dirty checking and a page doesn't take twice its memory. If the query joins a read-write transaction
+     * the caller may change the entities, so they are loaded as usual; entities the caller changes in a later transaction
+     * of the same persistence context must go through {@link #writable}.
+     * Rows are fetched at most {@code search.read.fetch-size} at a time, so the driver buffers no more than that of a large result.
+     * Read-only transactions also set {@link org.hibernate.FlushMode#MANUAL}, so the session is not flushed before the query.
+     * The statement gets the timeout of the entity, see {@link QueryGuard#timeout}.
+     */
+    private <R> TypedQuery<R> read(Class<?> domainClass, TypedQuery<R> query, int limit) {
+        return queryGuard.timeout(domainClass, query)
+                .setHint(HibernateHints.HINT_READ_ONLY, isReadOnlyTransaction())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Math.min(limit, readFetchSize));
+    }
+
+    private static boolean isReadOnlyTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive() && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static <R> TypedQuery<R> window(TypedQuery<R> query, int offset, int limit) {
+        return query.setFirstResult(offset).setMaxResults(limit);
+    }
+
+    private static ApiPaginationResponse withTotal(ApiPaginationResponse response, long total, int size, CountStrategy kind) {
+        response.setTotalElements(total);
+        response.setTotalPages((int) ((total + size - 1) / size));
+        response.setTotalKind(kind);
+        return response;
+    }
+
+    private static <T> void applySpecification(Specification<T> specification, Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (specification == null) {
+            return;
+        }
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private record Total(long value, CountStrategy kind) {
+    }
+
+    /**
+     * Total calculated on another connection, {@code started} is set by whichever thread calculates it first.
+     */
+    /**
+     * Snapshot exported by a transaction, and the route of the server it was exported on.
+     */
+    private record Snapshot(String id, String route) {
+    }
+
+    /**
+     * Work running on another connection. Whoever sets {@code started} first runs it, the pool or the waiting request.
+     * The session is set while the pool runs it, to cancel its statement.
+     */
+    private record ParallelWork<R>(AtomicBoolean started, AtomicReference<SharedSessionContractImplementor> session, Future<R> result) {
+    }
+}
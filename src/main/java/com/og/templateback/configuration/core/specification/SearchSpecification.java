@@ -1,25 +1,35 @@
 package com.og.templateback.configuration.core.specification;
 
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.pagination.KeysetCursor;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.FieldStep;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.FilterGroupStep;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.FilterStep;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.SortStep;
+import com.og.templateback.configuration.core.specification.plan.SearchShape;
+import com.og.templateback.configuration.core.specification.request.FilterGroupRequest;
 import com.og.templateback.configuration.core.specification.request.FilterRequest;
 import com.og.templateback.configuration.core.specification.request.SearchRequest;
 import com.og.templateback.configuration.core.specification.request.SortRequest;
 import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.*;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.metamodel.SingularAttribute;
 import lombok.NonNull;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.io.Serial;
 import java.util.ArrayList;
-import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.Function;
 
 /**
  * A generic class that implements the Specification interface and constructs the actual query based on the provided constraints.
@@ -29,7 +39,6 @@ import java.util.stream.Stream;
  * @since 01.03.2023
  */
 @Slf4j
-@AllArgsConstructor
 public class SearchSpecification<T> implements Specification<T> {
     public static final int DEFAULT_ITEMS_SIZE = 10;
     @Serial
@@ -40,6 +49,45 @@ public class SearchSpecification<T> implements Specification<T> {
      */
     private final transient SearchRequest request;
 
+    /**
+     * The compiled plan for the shape of the request.
+     */
+    private final transient SearchPlan plan;
+
+    /**
+     * Decoded continuation token, null unless the request continues a keyset pagination.
+     */
+    private final transient KeysetCursor cursor;
+
+    /**
+     * Filters of the request in the order of the plan, with values decoded into the types of their attributes.
+     */
+    private final transient List<FilterRequest> filters;
+
+    /**
+     * Groups of the request with decoded values of their filters.
+     */
+    private final transient List<FilterGroupRequest> groups;
+
+    public SearchSpecification(SearchRequest request, SearchPlan plan) {
+        this.request = request;
+        this.plan = plan;
+        //values are decoded once here, not on every query of the specification: page, count, explain
+        this.filters = decode(plan.getFilters(), request.getFilters());
+        this.groups = new ArrayList<>(request.getGroups().size());
+        for (int i = 0; i < request.getGroups().size(); i++) {
+            this.groups.add(decode(plan.getGroups().get(i), request.getGroups().get(i)));
+        }
+        this.cursor = request.hasCursor() ? KeysetCursor.decode(request.getCursor()) : null;
+        if (this.cursor != null && this.cursor.getSortFingerprint() != plan.getSortFingerprint()) {
+            throw new FilterException("Cursor was issued for other sorts: " + request.getSorts());
+        }
+    }
+
+    public SearchSpecification(SearchRequest request) {
+        this(request, SearchPlan.compile(request));
+    }
+
     /**
      * Constructs the predicate (criteria) for the query based on the provided filters and sorts.
      *
@@ -50,31 +98,60 @@ public class SearchSpecification<T> implements Specification<T> {
      */
     @SneakyThrows
     @Override
+    @SuppressWarnings("unchecked")
     public Predicate toPredicate(@NonNull Root<T> root, @NonNull CriteriaQuery<?> query, @NonNull CriteriaBuilder cb) {
         try {
             Predicate predicate = cb.equal(cb.literal(Boolean.TRUE), Boolean.TRUE);
             List<Order> orders = new ArrayList<>();
-            for (FilterRequest filter : this.request.getFilters()) {
-                predicate = filter.getOperator().build(
-                        root,
-                        cb,
-                        filter,
-                        predicate,
-                        buildAbsolutePath(root, filter.getKey())
-                );
+            JoinRegistry<T> joins = new JoinRegistry<>(root, query, cb, plan);
+            for (int i = 0; i < filters.size(); i++) {
+                predicate = joins.filter(plan.getFilters().get(i), filters.get(i), predicate);
+            }
+            predicate = joins.close(predicate);
+            for (int i = 0; i < groups.size(); i++) {
+                predicate = cb.and(predicate, group(joins, cb, plan.getGroups().get(i), groups.get(i)));
+            }
+
+            //a count query ignores the order, so its sort joins would only cost
+            if (Long.class.equals(query.getResultType()) && this.cursor == null) {
+                log.debug("Applied filter: {} and groups: {}", this.request.getFilters(), this.request.getGroups());
+                return predicate;
+            }
+
+            List<SortRequest> sorts = this.request.getSorts();
+            List<Path<?>> sortPaths = new ArrayList<>(sorts.size() + 1);
+            List<SortDirection> directions = new ArrayList<>(sorts.size() + 1);
+            for (int i = 0; i < sorts.size(); i++) {
+                SortStep step = plan.getSorts().get(i);
+                Path<?> path = joins.sort(step);
+                orders.add(step.getDirection().build(root, cb, sorts.get(i), path));
+                sortPaths.add(path);
+                directions.add(step.getDirection());
+            }
+
+            if (this.request.isKeyset()) {
+                //id as a tiebreaker makes the order total, so (sortKey, id) identifies a position in the result
+                if (!plan.isSortedById()) {
+                    Path<?> id = root.get(SearchPlan.ID);
+                    orders.add(cb.asc(id));
+                    sortPaths.add(id);
+                    directions.add(SortDirection.ASC);
+                }
+                if (this.cursor != null) {
+                    predicate = cb.and(predicate, seek(cb, sortPaths, directions));
+                }
             }
 
-            for (SortRequest sort : this.request.getSorts()) {
-                String[] nestedFields = sort.getKey().split("\\.");
-                Path<?> path = root.get(nestedFields[0]);
-                for (int i = 1; i < nestedFields.length; i++) {
-                    path = path.get(nestedFields[i]);
+            if (isProjection() && Tuple.class.equals(query.getResultType())) {
+                List<Selection<?>> selections = new ArrayList<>(plan.getSelection().size());
+                for (FieldStep field : plan.getSelection()) {
+                    selections.add(joins.select(field));
                 }
-                orders.add(sort.getDirection().build(root, cb, sort, path));
+                ((CriteriaQuery<Tuple>) query).multiselect(selections);
             }
 
             query.orderBy(orders);
-            log.debug("Applied filter: {} and sort: {}", this.request.getFilters(), this.request.getSorts());
+            log.debug("Applied filter: {}, groups: {} and sort: {}", this.request.getFilters(), this.request.getGroups(), this.request.getSorts());
             return predicate;
         } catch (Exception e) {
             e.printStackTrace();
@@ -83,68 +160,212 @@ public class SearchSpecification<T> implements Specification<T> {
     }
 
     /**
-     * Creates and append dynamically joins based on every node of provided @param key and concatenate all joins together
+     * @return the filters in the order of the plan with values decoded by the codecs of their steps
+     */
+    private static List<FilterRequest> decode(List<FilterStep> steps, List<FilterRequest> requests) {
+        List<FilterRequest> filters = SearchShape.normalize(requests);
+        List<FilterRequest> decoded = new ArrayList<>(filters.size());
+        for (int i = 0; i < filters.size(); i++) {
+            decoded.add(steps.get(i).decode(filters.get(i)));
+        }
+        return decoded;
+    }
+
+    /**
+     * @return a copy of the group, its filters in the order of the plan with decoded values, and of its nested groups
+     */
+    private static FilterGroupRequest decode(FilterGroupStep step, FilterGroupRequest request) {
+        List<FilterGroupRequest> groups = new ArrayList<>(request.getGroups().size());
+        for (int i = 0; i < request.getGroups().size(); i++) {
+            groups.add(decode(step.getGroups().get(i), request.getGroups().get(i)));
+        }
+        return new FilterGroupRequest(request.getOperator(), decode(step.getFilters(), request.getFilters()), groups);
+    }
+
+    /**
+     * Builds the predicate of a filter group: its filters and nested groups combined by its operator.
      *
-     * @param root Root entity
-     * @param key  path to attribute
-     * @return Absolute Path to nested path from @param key
+     * @param joins   The joins of the query, shared with the top level filters.
+     * @param cb      The criteria builder.
+     * @param step    The compiled group.
+     * @param request The group with the values of its filters.
+     * @return The predicate of the group.
      */
-    private Path<?> buildAbsolutePath(Root<T> root, String key) {
-        //Container which is contains <ALL SUB_NODES OF ABSOLUTE PATH, SUB_NODE JOINS OF CURRENT SUB_NODE>
-        Map<String, Join<Object, Object>> mapOfJoins = new Hashtable<>();
+    private Predicate group(JoinRegistry<T> joins, CriteriaBuilder cb, FilterGroupStep step, FilterGroupRequest request) {
+        JoinRegistry<T>.Junction junction = joins.junction(step.getOperator());
+        Predicate predicate = null;
+        List<FilterRequest> filters = request.getFilters();
+        for (int i = 0; i < filters.size(); i++) {
+            predicate = joins.filter(step.getFilters().get(i), filters.get(i), predicate, junction);
+        }
+        predicate = joins.close(predicate, junction);
+        List<FilterGroupRequest> groups = request.getGroups();
+        for (int i = 0; i < groups.size(); i++) {
+            predicate = step.getOperator().combine(cb, predicate, group(joins, cb, step.getGroups().get(i), groups.get(i)));
+        }
+        return step.getOperator().close(cb, predicate);
+    }
 
-        //if we don't go to nested path
-        if (!key.contains(".")) {
-            return root.get(key);
-        } else {
+    /**
+     * Builds the keyset predicate {@code (k1, ..., id) > (v1, ..., vid)} expanded for criteria API as
+     * {@code k1 > v1 OR (k1 = v1 AND (... OR (kn = vn AND id > vid)))} with respect to sort directions
+     * and postgres null ordering (NULLS LAST for ASC, NULLS FIRST for DESC).
+     * The leading key additionally gets a plain range bound so the index on it can start from the cursor.
+     *
+     * @param cb         The criteria builder.
+     * @param paths      Paths of the sort keys, id last.
+     * @param directions Directions of the sort keys.
+     * @return The predicate selecting rows after the cursor.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seek(CriteriaBuilder cb, List<Path<?>> paths, List<SortDirection> directions) {
+        if (this.cursor.size() != paths.size()) {
+            throw new FilterException("Cursor does not match sorts: " + this.request.getSorts());
+        }
 
-            //array of all nodes
-            String[] path = key.split("\\.");
-            int pathSize = path.length;
+        Predicate after = null;
+        for (int i = paths.size() - 1; i >= 0; i--) {
+            Path<Comparable> path = (Path<Comparable>) paths.get(i);
+            Comparable value = (Comparable) this.cursor.valueAt(i, path.getJavaType());
+            boolean asc = directions.get(i) == SortDirection.ASC;
 
-            //first node
-            String subPathNode = path[0];
+            Predicate strictlyAfter;
+            if (value == null) {
+                strictlyAfter = asc ? cb.disjunction() : cb.isNotNull(path);
+            } else if (asc) {
+                strictlyAfter = isNullable(path) ? cb.or(cb.greaterThan(path, value), cb.isNull(path)) : cb.greaterThan(path, value);
+            } else {
+                strictlyAfter = cb.lessThan(path, value);
+            }
 
-            /*
-            if join don't exist in map -> add new join
-            if (mapOfJoins.get(subPathNode) == null) {
-                mapOfJoins.put(subPathNode, root.join(subPathNode));
+            if (after == null) {
+                after = strictlyAfter;
+            } else {
+                Predicate equal = value == null ? cb.isNull(path) : cb.equal(path, value);
+                after = cb.or(strictlyAfter, cb.and(equal, after));
             }
-            */
-
-            // initialize our  map of joins
-            mapOfJoins.put(subPathNode, root.join(subPathNode));
-
-            //iterating through nodes and creating one mega Join which contains all nodes
-            for (int i = 0; i < pathSize - 1; i++) {
-                subPathNode = Stream.of(path)
-                        .limit(i + 1)
-                        .collect(
-                                Collectors.joining(".")
-                        );
-
-                //if map don't contain new node Join -> concatenate previous Join with new node Join
-                if (mapOfJoins.get(subPathNode) == null) {
-                    String prevPath =
-                            Stream.of(path)
-                                    .limit(i)
-                                    .collect(
-                                            Collectors.joining(".")
-                                    );
-
-                    Join<Object, Object> prevJoin = mapOfJoins.get(prevPath);
-                    mapOfJoins.put(
-                            subPathNode,
-                            prevJoin.join(path[i])
-                    );
-                }
+        }
+
+        Path<Comparable> leading = (Path<Comparable>) paths.get(0);
+        Comparable leadingValue = (Comparable) this.cursor.valueAt(0, leading.getJavaType());
+        if (leadingValue != null) {
+            if (directions.get(0) == SortDirection.DESC) {
+                after = cb.and(cb.lessThanOrEqualTo(leading, leadingValue), after);
+            } else if (!isNullable(leading)) {
+                after = cb.and(cb.greaterThanOrEqualTo(leading, leadingValue), after);
             }
+        }
+        return after;
+    }
 
-            Join<Object, Object> finalJoin = mapOfJoins.get(subPathNode);
-            String lastAttribute = path[pathSize - 1];
+    /**
+     * A column is null for a row if it is optional, or if it is reached through a join: a left joined association
+     * may be missing, and an inner join may be reused by a left one of the same path.
+     */
+    private static boolean isNullable(Path<?> path) {
+        if (!(path.getModel() instanceof SingularAttribute<?, ?> attribute) || attribute.isOptional()) {
+            return true;
+        }
+        for (Path<?> parent = path.getParentPath(); parent != null; parent = parent.getParentPath()) {
+            if (parent instanceof Join<?, ?>) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-            return finalJoin.get(lastAttribute);
+    /**
+     * Builds the continuation token pointing right after the given row.
+     *
+     * @param last The last row of the current page.
+     * @return The token to pass as {@code cursor} to fetch the next page.
+     */
+    public String nextCursor(Object last) {
+        Function<String, Object> row;
+        if (last instanceof Map<?, ?> map) {
+            row = key -> valueOf(map, key);
+        } else {
+            row = key -> propertyOf(last, key);
+        }
+        List<Object> values = new ArrayList<>(plan.getSorts().size() + 1);
+        for (SortStep sort : plan.getSorts()) {
+            values.add(row.apply(sort.getKey()));
+        }
+        if (!plan.isSortedById()) {
+            values.add(row.apply(SearchPlan.ID));
         }
+        return KeysetCursor.encode(plan.getSortFingerprint(), values);
+    }
+
+    /**
+     * @return true if the request selects fields, then a tuple query gets the selection of the plan
+     */
+    public boolean isProjection() {
+        return !plan.getSelection().isEmpty();
+    }
+
+    /**
+     * @return the compiled plan, its shape identifies every request built the same way
+     */
+    public SearchPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * @return true if the request continues a keyset pagination
+     */
+    public boolean hasCursor() {
+        return cursor != null;
+    }
+
+    /**
+     * @return the top level filters in the order of the plan, with decoded values
+     */
+    public List<FilterRequest> getFilters() {
+        return filters;
+    }
+
+    /**
+     * Turns a selected tuple into a row shaped like the serialized entity: "region.title" becomes {"region": {"title": ...}}.
+     *
+     * @param tuple The tuple selected by a projection.
+     * @return The row with the keys of the selection.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> toRow(Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        List<FieldStep> selection = plan.getSelection();
+        for (int i = 0; i < selection.size(); i++) {
+            String[] path = selection.get(i).getPath();
+            Map<String, Object> node = row;
+            for (int j = 0; j < path.length - 1; j++) {
+                node = (Map<String, Object>) node.computeIfAbsent(path[j], key -> new LinkedHashMap<String, Object>());
+            }
+            node.put(path[path.length - 1], tuple.get(i));
+        }
+        return row;
+    }
+
+    private static Object valueOf(Map<?, ?> row, String key) {
+        Object value = row;
+        for (String node : SearchPlan.splitPath(key)) {
+            value = value instanceof Map<?, ?> map ? map.get(node) : null;
+        }
+        return value;
+    }
+
+    /**
+     * Reads a nested property node by node, null if an association on the way is null.
+     */
+    private static Object propertyOf(Object entity, String key) {
+        Object value = entity;
+        for (String node : SearchPlan.splitPath(key)) {
+            if (value == null) {
+                return null;
+            }
+            value = PropertyAccessorFactory.forBeanPropertyAccess(value).getPropertyValue(node);
+        }
+        return value;
     }
 
     /**
@@ -156,10 +377,18 @@ public class SearchSpecification<T> implements Specification<T> {
      * @return A Pageable object representing the pagination configuration.
      */
     public static Pageable getPageable(Integer page, Integer size) {
-        size = size == null ? DEFAULT_ITEMS_SIZE : size;
+        size = getPageSize(size);
         page = page == null ? 1 : page;
         page = page == 0 ? 1 : page;
         return PageRequest.of(page - 1, size);
     }
 
+    /**
+     * @param size The requested number of items per page.
+     * @return The requested size or the default one.
+     */
+    public static int getPageSize(Integer size) {
+        return size == null ? DEFAULT_ITEMS_SIZE : size;
+    }
+
 }
@@ -0,0 +1,52 @@
+package com.og.templateback.configuration.core.specification.codec;
+
+import lombok.Getter;
+
+import java.util.function.Function;
+
+/**
+ * Decodes filter values of a request into one java type. Resolved once per attribute type by {@link ValueCodecs}
+ * and kept by the compiled plan, so a request only runs the decoder.
+ * Decoding never throws: a value that is not valid for the type is decoded to null.
+ *
+ * @param <T> The java type values are decoded into.
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Getter
+public final class ValueCodec<T> {
+    private final Class<T> type;
+
+    /**
+     * Decodes a value which is not an instance of the type yet, null if it is not valid.
+     */
+    private final Function<Object, T> decoder;
+
+    ValueCodec(Class<T> type, Function<Object, T> decoder) {
+        this.type = type;
+        this.decoder = decoder;
+    }
+
+    /**
+     * @param raw value as deserialized from the request: a string, number, boolean, list or map
+     * @return the value as the type, null if the raw value is null or not a valid value of the type
+     */
+    public T decode(Object raw) {
+        if (raw == null) {
+            return null;
+        }
+        return type.isInstance(raw) ? type.cast(raw) : decoder.apply(raw);
+    }
+
+    /**
+     * @return true if values of the type can be compared by range, e.g. for BETWEEN
+     */
+    public boolean isComparable() {
+        return Comparable.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public String toString() {
+        return "ValueCodec(" + type.getSimpleName() + ")";
+    }
+}
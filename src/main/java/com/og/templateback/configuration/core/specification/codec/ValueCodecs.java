@@ -0,0 +1,438 @@
+package com.og.templateback.configuration.core.specification.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.ClassUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Registry of {@link ValueCodec}s by java type of the attribute: strings, booleans, integral and decimal numbers,
+ * {@code java.time} and {@code java.sql} dates and times, UUID, enums and JSON.
+ * Text is parsed by hand, without exceptions and without intermediate objects, an invalid value is decoded to null.
+ * <p>
+ * Dates and times are ISO: {@code 2024-01-31}, {@code 10:15[:30[.123456789]]} and both joined by {@code T} or a space,
+ * a date alone is the start of the day. Instants and offset date-times take an offset {@code Z}, {@code +03}, {@code +0300}
+ * or {@code +03:00}, UTC if none; timestamps without an offset are local, as {@link Timestamp#valueOf(String)}.
+ * Numbers are accepted for numbers if they fit the type exactly, and as epoch milliseconds for instants and timestamps.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+public final class ValueCodecs {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<Class<?>, ValueCodec<?>> CODECS = new ConcurrentHashMap<>();
+
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    static {
+        register(String.class, Object::toString);
+        register(Boolean.class, ValueCodecs::toBoolean);
+        register(Byte.class, raw -> {
+            Long value = toLong(raw, Byte.MIN_VALUE, Byte.MAX_VALUE);
+            return value == null ? null : value.byteValue();
+        });
+        register(Short.class, raw -> {
+            Long value = toLong(raw, Short.MIN_VALUE, Short.MAX_VALUE);
+            return value == null ? null : value.shortValue();
+        });
+        register(Integer.class, raw -> {
+            Long value = toLong(raw, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            return value == null ? null : value.intValue();
+        });
+        register(Long.class, raw -> toLong(raw, Long.MIN_VALUE, Long.MAX_VALUE));
+        register(Double.class, raw -> raw instanceof Number number ? (Double) number.doubleValue()
+                : raw instanceof String text && isDecimal(text) ? Double.valueOf(text)
+                : null);
+        register(Float.class, raw -> raw instanceof Number number ? (Float) number.floatValue()
+                : raw instanceof String text && isDecimal(text) ? Float.valueOf(text)
+                : null);
+        register(BigDecimal.class, ValueCodecs::toBigDecimal);
+        register(BigInteger.class, raw -> {
+            BigDecimal value = toBigDecimal(raw);
+            return value == null || !isIntegral(value) ? null : value.toBigIntegerExact();
+        });
+        register(UUID.class, raw -> raw instanceof String text ? parseUuid(text) : null);
+        register(LocalDate.class, raw -> raw instanceof String text && text.length() == 10 ? parseDate(text, 0) : null);
+        register(LocalTime.class, raw -> raw instanceof String text ? parseTime(text, 0, text.length()) : null);
+        register(LocalDateTime.class, raw -> raw instanceof String text ? parseDateTime(text, 0, text.length()) : null);
+        register(OffsetDateTime.class, raw -> raw instanceof String text ? parseOffsetDateTime(text) : null);
+        register(ZonedDateTime.class, raw -> {
+            OffsetDateTime value = raw instanceof String text ? parseOffsetDateTime(text) : null;
+            return value == null ? null : value.toZonedDateTime();
+        });
+        register(Instant.class, raw -> {
+            if (raw instanceof Number number) {
+                return Instant.ofEpochMilli(number.longValue());
+            }
+            OffsetDateTime value = raw instanceof String text ? parseOffsetDateTime(text) : null;
+            return value == null ? null : value.toInstant();
+        });
+        register(java.sql.Date.class, raw -> {
+            LocalDate value = raw instanceof String text && text.length() == 10 ? parseDate(text, 0) : null;
+            return value == null ? null : java.sql.Date.valueOf(value);
+        });
+        register(Time.class, raw -> {
+            LocalTime value = raw instanceof String text ? parseTime(text, 0, text.length()) : null;
+            return value == null ? null : Time.valueOf(value);
+        });
+        register(Timestamp.class, ValueCodecs::toTimestamp);
+        register(Date.class, ValueCodecs::toTimestamp);
+        register(JsonNode.class, MAPPER::valueToTree);
+    }
+
+    private ValueCodecs() {
+    }
+
+    /**
+     * @param type java type of the attribute, primitives are boxed
+     * @return codec of the type, null if values of the type can't be decoded
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static ValueCodec<?> of(Class<?> type) {
+        Class<?> boxed = ClassUtils.resolvePrimitiveIfNecessary(type);
+        ValueCodec<?> codec = CODECS.get(boxed);
+        if (codec != null) {
+            return codec;
+        }
+        if (boxed.isEnum()) {
+            return CODECS.computeIfAbsent(boxed, enumType -> enumCodec((Class) enumType));
+        }
+        if (Map.class.isAssignableFrom(boxed) || Collection.class.isAssignableFrom(boxed)) {
+            //a JSON object or array of the request is already a map or a list
+            return CODECS.computeIfAbsent(boxed, jsonType -> new ValueCodec<>(jsonType, raw -> null));
+        }
+        return null;
+    }
+
+    private static <T> void register(Class<T> type, Function<Object, T> decoder) {
+        CODECS.put(type, new ValueCodec<>(type, decoder));
+    }
+
+    private static <E extends Enum<E>> ValueCodec<E> enumCodec(Class<E> type) {
+        Map<String, E> constants = new HashMap<>();
+        for (E constant : type.getEnumConstants()) {
+            constants.put(constant.name(), constant);
+            constants.putIfAbsent(constant.name().toUpperCase(Locale.ROOT), constant);
+        }
+        return new ValueCodec<>(type, raw -> {
+            String name = raw.toString();
+            E constant = constants.get(name);
+            return constant != null ? constant : constants.get(name.toUpperCase(Locale.ROOT));
+        });
+    }
+
+    private static Boolean toBoolean(Object raw) {
+        if (raw instanceof String text) {
+            if ("true".equalsIgnoreCase(text)) {
+                return Boolean.TRUE;
+            }
+            if ("false".equalsIgnoreCase(text)) {
+                return Boolean.FALSE;
+            }
+        }
+        return null;
+    }
+
+    private static Long toLong(Object raw, long min, long max) {
+        long value;
+        if (raw instanceof String text) {
+            Long parsed = parseLong(text);
+            if (parsed == null) {
+                return null;
+            }
+            value = parsed;
+        } else if (raw instanceof Integer || raw instanceof Long || raw instanceof Short || raw instanceof Byte) {
+            value = ((Number) raw).longValue();
+        } else {
+            BigDecimal decimal = toBigDecimal(raw);
+            if (decimal == null || !isIntegral(decimal) || decimal.compareTo(LONG_MIN) < 0 || decimal.compareTo(LONG_MAX) > 0) {
+                return null;
+            }
+            value = decimal.longValue();
+        }
+        return value < min || value > max ? null : value;
+    }
+
+    private static BigDecimal toBigDecimal(Object raw) {
+        if (raw instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (raw instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        }
+        if (raw instanceof Integer || raw instanceof Long || raw instanceof Short || raw instanceof Byte) {
+            return BigDecimal.valueOf(((Number) raw).longValue());
+        }
+        if (raw instanceof Number number) {
+            double value = number.doubleValue();
+            return Double.isFinite(value) ? BigDecimal.valueOf(value) : null;
+        }
+        if (raw instanceof String text && isDecimal(text)) {
+            return new BigDecimal(text);
+        }
+        return null;
+    }
+
+    private static boolean isIntegral(BigDecimal value) {
+        return value.signum() == 0 || value.scale() <= 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    /**
+     * Parses an optionally signed decimal integer, null if it is not one or overflows a long.
+     * Accumulates negatively like {@link Long#parseLong(String)}, so {@link Long#MIN_VALUE} is parsed too.
+     */
+    private static Long parseLong(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i = 1;
+        }
+        if (i == length) {
+            return null;
+        }
+        long value = 0;
+        for (; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+                return null;
+            }
+            value = value * 10 - digit;
+        }
+        if (negative) {
+            return value;
+        }
+        return value == Long.MIN_VALUE ? null : -value;
+    }
+
+    /**
+     * @return true if the text is a decimal number {@code [+-]digits[.digits][e[+-]digits]}, which neither
+     * {@link Double#valueOf(String)} nor {@link BigDecimal#BigDecimal(String)} rejects
+     */
+    private static boolean isDecimal(String text) {
+        int length = text.length();
+        int i = 0;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            i++;
+        }
+        int mantissa = 0;
+        for (; i < length && isDigit(text.charAt(i)); i++) {
+            mantissa++;
+        }
+        if (i < length && text.charAt(i) == '.') {
+            for (i++; i < length && isDigit(text.charAt(i)); i++) {
+                mantissa++;
+            }
+        }
+        if (mantissa == 0) {
+            return false;
+        }
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                i++;
+            }
+            int exponent = 0;
+            for (; i < length && isDigit(text.charAt(i)); i++) {
+                exponent++;
+            }
+            //more digits could overflow the int scale of BigDecimal
+            if (exponent == 0 || exponent > 9) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * @return value of {@code count} decimal digits at {@code from}, -1 if one of them is not a digit
+     */
+    private static int digits(String text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static UUID parseUuid(String text) {
+        if (text.length() != 36 || text.charAt(8) != '-' || text.charAt(13) != '-' || text.charAt(18) != '-' || text.charAt(23) != '-') {
+            return null;
+        }
+        long mostSignificant = 0;
+        long leastSignificant = 0;
+        int nibbles = 0;
+        for (int i = 0; i < 36; i++) {
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                continue;
+            }
+            int nibble = Character.digit(text.charAt(i), 16);
+            if (nibble < 0) {
+                return null;
+            }
+            if (nibbles++ < 16) {
+                mostSignificant = mostSignificant << 4 | nibble;
+            } else {
+                leastSignificant = leastSignificant << 4 | nibble;
+            }
+        }
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd} at {@code from}, null if it is not a valid date.
+     */
+    private static LocalDate parseDate(String text, int from) {
+        if (text.length() < from + 10 || text.charAt(from + 4) != '-' || text.charAt(from + 7) != '-') {
+            return null;
+        }
+        int year = digits(text, from, 4);
+        int month = digits(text, from + 5, 2);
+        int day = digits(text, from + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Parses {@code HH:mm[:ss[.fffffffff]]} between {@code from} and {@code to}, null if it is not a valid time.
+     */
+    private static LocalTime parseTime(String text, int from, int to) {
+        int length = to - from;
+        if (length < 5 || text.charAt(from + 2) != ':') {
+            return null;
+        }
+        int hour = digits(text, from, 2);
+        int minute = digits(text, from + 3, 2);
+        int second = 0;
+        int nano = 0;
+        if (length > 5) {
+            if (length < 8 || text.charAt(from + 5) != ':') {
+                return null;
+            }
+            second = digits(text, from + 6, 2);
+            if (length > 8) {
+                int fraction = length - 9;
+                if (text.charAt(from + 8) != '.' || fraction < 1 || fraction > 9) {
+                    return null;
+                }
+                nano = digits(text, from + 9, fraction);
+                for (int i = fraction; i < 9 && nano > 0; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || nano < 0) {
+            return null;
+        }
+        return LocalTime.of(hour, minute, second, nano);
+    }
+
+    /**
+     * Parses a date, optionally followed by {@code T} or a space and a time, between {@code from} and {@code to}.
+     */
+    private static LocalDateTime parseDateTime(String text, int from, int to) {
+        LocalDate date = to - from < 10 ? null : parseDate(text, from);
+        if (date == null) {
+            return null;
+        }
+        if (to - from == 10) {
+            return date.atStartOfDay();
+        }
+        char separator = text.charAt(from + 10);
+        LocalTime time = separator == 'T' || separator == 't' || separator == ' ' ? parseTime(text, from + 11, to) : null;
+        return time == null ? null : LocalDateTime.of(date, time);
+    }
+
+    /**
+     * Parses a date-time with an optional offset, UTC if there is none.
+     */
+    private static OffsetDateTime parseOffsetDateTime(String text) {
+        int end = text.length();
+        ZoneOffset offset = ZoneOffset.UTC;
+        if (end > 0 && (text.charAt(end - 1) == 'Z' || text.charAt(end - 1) == 'z')) {
+            end--;
+        } else {
+            //the date itself has dashes up to index 7
+            int sign = Math.max(text.lastIndexOf('+'), text.lastIndexOf('-'));
+            if (sign > 10) {
+                offset = parseOffset(text, sign);
+                end = sign;
+            }
+        }
+        LocalDateTime dateTime = offset == null ? null : parseDateTime(text, 0, end);
+        return dateTime == null ? null : OffsetDateTime.of(dateTime, offset);
+    }
+
+    /**
+     * Parses {@code +HH}, {@code +HHmm} or {@code +HH:mm} at {@code from} up to the end of the text.
+     */
+    private static ZoneOffset parseOffset(String text, int from) {
+        int length = text.length() - from;
+        int hours = length >= 3 ? digits(text, from + 1, 2) : -1;
+        int minutes;
+        if (length == 3) {
+            minutes = 0;
+        } else if (length == 5) {
+            minutes = digits(text, from + 3, 2);
+        } else if (length == 6 && text.charAt(from + 3) == ':') {
+            minutes = digits(text, from + 4, 2);
+        } else {
+            return null;
+        }
+        if (hours < 0 || minutes < 0 || minutes > 59 || hours * 60 + minutes > 18 * 60) {
+            return null;
+        }
+        int seconds = (hours * 3600 + minutes * 60) * (text.charAt(from) == '-' ? -1 : 1);
+        return ZoneOffset.ofTotalSeconds(seconds);
+    }
+
+    private static Timestamp toTimestamp(Object raw) {
+        if (raw instanceof Number number) {
+            return new Timestamp(number.longValue());
+        }
+        if (!(raw instanceof String text)) {
+            return null;
+        }
+        LocalDateTime local = parseDateTime(text, 0, text.length());
+        if (local != null) {
+            return Timestamp.valueOf(local);
+        }
+        OffsetDateTime value = parseOffsetDateTime(text);
+        return value == null ? null : Timestamp.from(value.toInstant());
+    }
+}
@@ -0,0 +1,103 @@
+package com.og.templateback.configuration.core.specification.enums;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Aggregate function of an aggregation request, computed per group of rows.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+public enum AggregateFunction {
+    /**
+     * COUNT	> count(*) without a key, count(field) of non-null values with a key
+     */
+    COUNT {
+        public Expression<?> build(CriteriaBuilder cb, Root<?> root, Path<?> path) {
+            return path == null ? cb.count(root) : cb.count(path);
+        }
+
+        @Override
+        public boolean requiresKey() {
+            return false;
+        }
+    },
+    /**
+     * COUNT_DISTINCT	> count(distinct field)
+     */
+    COUNT_DISTINCT {
+        public Expression<?> build(CriteriaBuilder cb, Root<?> root, Path<?> path) {
+            return cb.countDistinct(path);
+        }
+    },
+    /**
+     * SUM	> sum(field), of numbers only
+     */
+    SUM {
+        @SuppressWarnings("unchecked")
+        public Expression<?> build(CriteriaBuilder cb, Root<?> root, Path<?> path) {
+            return cb.sum((Expression<Number>) path);
+        }
+
+        @Override
+        public boolean requiresNumber() {
+            return true;
+        }
+    },
+    /**
+     * AVG	> avg(field), of numbers only
+     */
+    AVG {
+        @SuppressWarnings("unchecked")
+        public Expression<?> build(CriteriaBuilder cb, Root<?> root, Path<?> path) {
+            return cb.avg((Expression<Number>) path);
+        }
+
+        @Override
+        public boolean requiresNumber() {
+            return true;
+        }
+    },
+    /**
+     * MIN	> min(field), of any comparable type
+     */
+    MIN {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Expression<?> build(CriteriaBuilder cb, Root<?> root, Path<?> path) {
+            return cb.least((Expression<Comparable>) path);
+        }
+    },
+    /**
+     * MAX	> max(field), of any comparable type
+     */
+    MAX {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Expression<?> build(CriteriaBuilder cb, Root<?> root, Path<?> path) {
+            return cb.greatest((Expression<Comparable>) path);
+        }
+    };
+
+    /**
+     * @param path column to aggregate, null if the request has no key
+     */
+    public abstract Expression<?> build(CriteriaBuilder cb, Root<?> root, Path<?> path);
+
+    public boolean requiresKey() {
+        return true;
+    }
+
+    public boolean requiresNumber() {
+        return false;
+    }
+
+    /**
+     * @return true if values of the type can be aggregated by the function
+     */
+    public boolean accepts(Class<?> type) {
+        return !requiresNumber() || Number.class.isAssignableFrom(ClassUtils.resolvePrimitiveIfNecessary(type));
+    }
+}
@@ -0,0 +1,28 @@
+package com.og.templateback.configuration.core.specification.enums;
+
+/**
+ * Defines how the total of a paginated search is calculated.
+ * The same values tell the client which kind of total was returned.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+public enum CountStrategy {
+    /**
+     * EXACT	> SELECT count(*) FROM table WHERE ...
+     */
+    EXACT,
+    /**
+     * CAPPED	> SELECT id FROM table WHERE ... OFFSET :cap LIMIT 1, then exact count only below the cap.
+     * Returned total is a lower bound ("10000+") when the cap is reached.
+     */
+    CAPPED,
+    /**
+     * ESTIMATED	> pg_class.reltuples without filters, EXPLAIN row estimate with filters.
+     */
+    ESTIMATED,
+    /**
+     * NONE	> no total at all, only hasNext from one extra fetched row (Slice).
+     */
+    NONE
+}
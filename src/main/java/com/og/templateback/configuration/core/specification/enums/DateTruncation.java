@@ -0,0 +1,57 @@
+package com.og.templateback.configuration.core.specification.enums;
+
+import com.og.templateback.configuration.core.specification.SearchFunctionContributor;
+
+import java.util.Locale;
+
+/**
+ * Unit a date or timestamp group key is truncated to, e.g. to group rows by month.
+ * Every unit is an HQL function registered by {@link SearchFunctionContributor}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+public enum DateTruncation {
+    /**
+     * MINUTE	> date_trunc('minute', field)
+     */
+    MINUTE,
+    /**
+     * HOUR	> date_trunc('hour', field)
+     */
+    HOUR,
+    /**
+     * DAY	> date_trunc('day', field)
+     */
+    DAY,
+    /**
+     * WEEK	> date_trunc('week', field), weeks start on monday
+     */
+    WEEK,
+    /**
+     * MONTH	> date_trunc('month', field)
+     */
+    MONTH,
+    /**
+     * QUARTER	> date_trunc('quarter', field)
+     */
+    QUARTER,
+    /**
+     * YEAR	> date_trunc('year', field)
+     */
+    YEAR;
+
+    /**
+     * @return name of the HQL function truncating its argument to the unit
+     */
+    public String getFunction() {
+        return SearchFunctionContributor.DATE_TRUNC + "_" + getUnit();
+    }
+
+    /**
+     * @return unit as postgres {@code date_trunc} names it
+     */
+    public String getUnit() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,27 @@
+package com.og.templateback.configuration.core.specification.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Defines how exported rows are written to the response.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    /**
+     * NDJSON	> one JSON object per line, serialized as by the search endpoint
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /**
+     * CSV	> header line of keys, then one line per row (RFC 4180), nested objects and collections are skipped
+     */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+
+    private final String extension;
+}
@@ -1,93 +1,37 @@
 package com.og.templateback.configuration.core.specification.enums;
 
-import lombok.extern.slf4j.Slf4j;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 
 import java.sql.Date;
 import java.sql.Timestamp;
 
 /**
  * Define enum of field type which is can be used to parse into data type.
+ * Values are decoded into the java type of the attribute, the field type is only used
+ * for an attribute whose java type has no {@link com.og.templateback.configuration.core.specification.codec.ValueCodec}.
  *
  * @author ogbozoyan
  * @since 01.03.2023
  */
-@Slf4j
+@Getter
+@RequiredArgsConstructor
 public enum FieldType {
 
-    BOOLEAN {
-        public Object parse(String value) {
-            return Boolean.valueOf(value);
-        }
-    },
+    BOOLEAN(Boolean.class),
 
-    TIMESTAMP {
-        public Object parse(String value) {
-            Object date = null;
-            try {
-                date = Timestamp.valueOf(value);
-            } catch (Exception e) {
-                log.info("Failed parse field type DATE {}", e.getMessage());
-            }
+    TIMESTAMP(Timestamp.class),
 
-            return date;
-        }
-    },
-    DATE {
-        public Object parse(String value) {
-            Object date = null;
-            try {
-                date = Date.valueOf(value);
-            } catch (Exception e) {
-                log.info("Failed parse field type DATE {}", e.getMessage());
-            }
+    DATE(Date.class),
 
-            return date;
-        }
-    },
-    DOUBLE {
-        public Object parse(String value) {
-            try {
-                return Double.valueOf(value);
-            } catch (Exception e) {
-                log.info("Failed parse field type DOUBLE {}", e.getMessage());
-            }
-            return value;
-        }
-    },
+    DOUBLE(Double.class),
 
-    INTEGER {
-        public Object parse(String value) {
-            try {
-                return Integer.valueOf(value);
-            } catch (Exception e) {
-                log.info("Failed parse field type INTEGER {}", e.getMessage());
-            }
-            return value;
-        }
-    },
+    INTEGER(Integer.class),
 
-    LONG {
-        public Object parse(String value) {
-            try {
-                return Long.valueOf(value);
-            } catch (Exception e) {
-                log.info("Failed parse field type LONG {}", e.getMessage());
-            }
-            return value;
-        }
-    },
+    LONG(Long.class),
 
-    STRING {
-        public Object parse(String value) {
-            try {
-                return value;
-            } catch (Exception e) {
-                log.info("Failed parse field type STRING {}", e.getMessage());
-            }
-            return value;
-        }
-    };
+    STRING(String.class);
 
-    public abstract Object parse(String value);
+    private final Class<?> javaType;
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.og.templateback.configuration.core.specification.enums;
+
+/**
+ * How {@link Operator#IN} binds its values, chosen by the number of values.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+public enum InListMode {
+    /**
+     * LIST	> SELECT * FROM table WHERE field IN (?, ?, ?, ?), values padded to the next power of two
+     */
+    LIST,
+    /**
+     * ARRAY	> SELECT * FROM table WHERE field = ANY(?), values bound as one array
+     */
+    ARRAY,
+    /**
+     * UNNEST	> SELECT * FROM table WHERE field IN (SELECT unnest(?)), values bound as one array and semi-joined
+     */
+    UNNEST;
+
+    /**
+     * Largest list bound as separate parameters, longer ones are bound as an array.
+     */
+    public static final int MAX_LIST_SIZE = 64;
+
+    /**
+     * Smallest list semi-joined through unnest, the planner estimates {@code = ANY} of such lists poorly.
+     */
+    public static final int MIN_UNNEST_SIZE = 5000;
+
+    public static InListMode of(int size) {
+        if (size <= MAX_LIST_SIZE) {
+            return LIST;
+        }
+        return size < MIN_UNNEST_SIZE ? ARRAY : UNNEST;
+    }
+
+    /**
+     * @return number of bind parameters of a LIST of the given size, so lists of similar size share one statement
+     */
+    public static int paddedSize(int size) {
+        return size <= 1 ? size : Integer.highestOneBit(size - 1) << 1;
+    }
+}
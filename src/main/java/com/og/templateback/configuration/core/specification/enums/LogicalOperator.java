@@ -0,0 +1,47 @@
+package com.og.templateback.configuration.core.specification.enums;
+
+import com.og.templateback.configuration.core.specification.SearchFunctionContributor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Connective of a filter group: how its filters and nested groups are combined into one predicate.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+public enum LogicalOperator {
+    /**
+     * AND	> SELECT * FROM table WHERE (filter1 AND filter2 AND (group1))
+     */
+    AND,
+    /**
+     * OR	> SELECT * FROM table WHERE (filter1 OR filter2 OR (group1))
+     */
+    OR,
+    /**
+     * NOT	> SELECT * FROM table WHERE (filter1 AND filter2 AND (group1)) IS NOT TRUE
+     * <p>
+     * Rows where the members are null, e.g. compare a column of a left join without a row, don't match them, so NOT keeps them.
+     */
+    NOT;
+
+    /**
+     * @param left  predicate of the members combined so far, null if none
+     * @param right predicate of the next member
+     * @return both predicates combined by the connective, members of NOT are AND-ed before negation
+     */
+    public Predicate combine(CriteriaBuilder cb, Predicate left, Predicate right) {
+        if (left == null) {
+            return right;
+        }
+        return this == OR ? cb.or(left, right) : cb.and(left, right);
+    }
+
+    /**
+     * @return predicate of the whole group
+     */
+    public Predicate close(CriteriaBuilder cb, Predicate predicate) {
+        return this == NOT ? cb.isTrue(cb.function(SearchFunctionContributor.NOT_TRUE, Boolean.class, predicate)) : predicate;
+    }
+}
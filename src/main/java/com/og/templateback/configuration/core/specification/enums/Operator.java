@@ -1,13 +1,15 @@
 package com.og.templateback.configuration.core.specification.enums;
 
 
+import com.og.templateback.configuration.core.specification.SearchFunctionContributor;
+import com.og.templateback.configuration.core.specification.index.TextIndex;
 import com.og.templateback.configuration.core.specification.request.FilterRequest;
 import jakarta.persistence.criteria.*;
-import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.util.ClassUtils;
 
-import java.sql.Timestamp;
+import java.lang.reflect.Array;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -16,7 +18,6 @@ import java.util.List;
  * @author ogbozoyan
  * @since 01.03.2023
  */
-@Slf4j
 public enum Operator {
     /**
      * EQUAL  >	SELECT * FROM table WHERE field = ?
@@ -24,8 +25,13 @@ public enum Operator {
     EQUAL { //String Long
 
         public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path) {
-            Object value = request.getFieldType().parse(request.getValue().toString());
-            return cb.and(cb.equal(path.as(value.getClass()), value), predicate);
+            Object value = request.getValue();
+            return cb.and(cb.equal(typed(path, value), value), predicate);
+        }
+
+        @Override
+        public boolean coerces() {
+            return true;
         }
     },
     /**
@@ -33,87 +39,171 @@ public enum Operator {
      */
     NOT_EQUAL {
         public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path) {
-            Object value = request.getFieldType().parse(request.getValue().toString());
-            return cb.and(cb.notEqual(path.as(value.getClass()), value), predicate);
+            Object value = request.getValue();
+            return cb.and(cb.notEqual(typed(path, value), value), predicate);
+        }
+
+        @Override
+        public boolean coerces() {
+            return true;
         }
     },
     /**
-     * LIKE  >	SELECT * FROM table WHERE field LIKE '%?%'
+     * LIKE  >	SELECT * FROM table WHERE lower(field) LIKE '%?%'
+     * <br>
+     * with trigram index on field > SELECT * FROM table WHERE field ILIKE '%?%'
      */
     LIKE { //String
 
         public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path) {
-            return cb.and(cb.like(cb.lower(path.as(String.class)), "%" + request.getValue().toString().toLowerCase() + "%"), predicate);
+            return build(root, cb, request, predicate, path, TextIndex.NONE);
+        }
+
+        @Override
+        public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path, TextIndex index) {
+            return cb.and(contains(cb, path.as(String.class), request.getValue().toString(), index), predicate);
+        }
+
+        @Override
+        public boolean isTextSearch() {
+            return true;
         }
     },
     /**
-     * LIKE_ANY >SELECT * FROM table WHERE field LIKE '%value1%' OR field LIKE '%value2%' OR field LIKE '%value3%' ...
+     * LIKE_ANY >SELECT * FROM table WHERE lower(field) LIKE '%value1%' OR lower(field) LIKE '%value2%' OR lower(field) LIKE '%value3%' ...
+     * <br>
+     * with trigram index on field > SELECT * FROM table WHERE field ILIKE '%value1%' OR field ILIKE '%value2%' ...
      */
     LIKE_ANY {
         public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path) {
-            Expression<String> key = root.get(request.getKey());
-            List<String> values = request.getValues().stream()
-                    .map(Object::toString)
-                    .toList();
+            return build(root, cb, request, predicate, path, TextIndex.NONE);
+        }
+
+        @Override
+        public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path, TextIndex index) {
+            Expression<String> key = path.as(String.class);
             List<Predicate> likePredicates = new ArrayList<>();
-            for (String value : values) {
-                likePredicates.add(cb.like(cb.lower(key), "%" + value.toLowerCase() + "%"));
+            for (Object value : request.getValues()) {
+                likePredicates.add(contains(cb, key, value.toString(), index));
             }
             return cb.and(cb.or(likePredicates.toArray(new Predicate[0])), predicate);
         }
+
+        @Override
+        public boolean isTextSearch() {
+            return true;
+        }
+    },
+    /**
+     * STARTS_WITH > SELECT * FROM table WHERE lower(field) LIKE '?%'
+     * <br>
+     * served by a b-tree index on lower(field) text_pattern_ops, a plain b-tree serves it only under the C collation
+     * <br>
+     * with trigram index on field and no such b-tree > SELECT * FROM table WHERE field ILIKE '?%'
+     */
+    STARTS_WITH {
+        public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path) {
+            return build(root, cb, request, predicate, path, TextIndex.NONE);
+        }
+
+        @Override
+        public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path, TextIndex index) {
+            String prefix = request.getValue().toString();
+            Expression<String> key = path.as(String.class);
+            if (index.isTrigram() && !index.isLowerPattern()) {
+                return cb.and(((HibernateCriteriaBuilder) cb).ilike(key, escape(prefix) + "%", ESCAPE), predicate);
+            }
+            return cb.and(cb.like(cb.lower(key), escape(prefix.toLowerCase()) + "%", ESCAPE), predicate);
+        }
+
+        @Override
+        public boolean isTextSearch() {
+            return true;
+        }
+    },
+    /**
+     * SIMILAR > SELECT * FROM table WHERE field % ? (pg_trgm similarity above pg_trgm.similarity_threshold)
+     * <br>
+     * with trigram index on lower(field) > SELECT * FROM table WHERE lower(field) % lower(?)
+     * <br>
+     * Requires the pg_trgm extension.
+     */
+    SIMILAR {
+        public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path) {
+            return build(root, cb, request, predicate, path, TextIndex.NONE);
+        }
+
+        @Override
+        public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path, TextIndex index) {
+            String value = request.getValue().toString();
+            Expression<String> key = path.as(String.class);
+            HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+            //value() is bound as a parameter, a literal would be inlined into the SQL
+            Expression<Boolean> similar = index.isTrigramLower() && !index.isTrigram()
+                    ? cb.function(SearchFunctionContributor.SIMILAR, Boolean.class, cb.lower(key), hcb.value(value.toLowerCase()))
+                    : cb.function(SearchFunctionContributor.SIMILAR, Boolean.class, key, hcb.value(value));
+            return cb.and(cb.isTrue(similar), predicate);
+        }
+
+        @Override
+        public boolean isTextSearch() {
+            return true;
+        }
     },
     /**
-     * IN	> SELECT * FROM table WHERE field IN (?)
+     * IN	> SELECT * FROM table WHERE field IN (?, ?, ?, ?)
+     * <br>
+     * more than {@link InListMode#MAX_LIST_SIZE} values > SELECT * FROM table WHERE field = ANY(?)
+     * <br>
+     * {@link InListMode#MIN_UNNEST_SIZE} values or more > SELECT * FROM table WHERE field IN (SELECT unnest(?))
      */
     IN { //String Long Data
 
         public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path) {
             List<Object> values = request.getValues();
-            CriteriaBuilder.In<Object> inClause = cb.in(path.as(values.get(0).getClass()));
+            Expression<Object> key = typed(path, values.get(0));
+
+            InListMode mode = InListMode.of(values.size());
+            if (mode != InListMode.LIST) {
+                //one array parameter whatever the number of values, a typed array of the column type
+                Object array = values.toArray((Object[]) Array.newInstance(ClassUtils.resolvePrimitiveIfNecessary(key.getJavaType()), 0));
+                String function = mode == InListMode.ARRAY ? SearchFunctionContributor.ANY : SearchFunctionContributor.IN_UNNEST;
+                Expression<Boolean> in = cb.function(function, Boolean.class, key, ((HibernateCriteriaBuilder) cb).value(array));
+                return cb.and(cb.isTrue(in), predicate);
+            }
+
+            CriteriaBuilder.In<Object> inClause = cb.in(key);
             for (Object value : values) {
-                if (request.getFieldType() != null) {
-                    inClause.value(request.getFieldType().parse(value.toString()));
-                } else inClause.value(value.toString());
+                inClause.value(value);
+            }
+            //repeating the last value doesn't change the result, but keeps the number of parameters in few buckets
+            for (int i = values.size(); i < InListMode.paddedSize(values.size()); i++) {
+                inClause.value(values.get(values.size() - 1));
             }
             return cb.and(inClause, predicate);
         }
+
+        @Override
+        public boolean coerces() {
+            return true;
+        }
     },
     /**
      * BETWEEN	> SELECT * FROM table WHERE field >= ? AND field <= ?
      */
     BETWEEN { //Data
 
+        @SuppressWarnings({"unchecked", "rawtypes"})
         public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path) {
-            Object value = request.getFieldType().parse(request.getValue().toString());
-            Object valueTo = request.getFieldType().parse(request.getValueTo().toString());
-            if (request.getFieldType() == FieldType.TIMESTAMP) {
-                Timestamp startDate = (Timestamp) value;
-                Timestamp endDate = (Timestamp) valueTo;
-                Expression<Timestamp> key = root.get(request.getKey());
-                return cb.and(cb.and(cb.greaterThanOrEqualTo(key, startDate), cb.lessThanOrEqualTo(key, endDate)), predicate);
-            }
-            if (request.getFieldType() == FieldType.DATE) {
-                Date startDate = (Date) value;
-                Date endDate = (Date) valueTo;
-                Expression<Date> key = root.get(request.getKey());
-                return cb.and(cb.and(cb.greaterThanOrEqualTo(key, startDate), cb.lessThanOrEqualTo(key, endDate)), predicate);
-            }
-            if (request.getFieldType() == FieldType.STRING) {
-                String startDate = (String) value;
-                String endDate = (String) valueTo;
-                Expression<String> key = root.get(request.getKey());
-                return cb.and(cb.and(cb.greaterThanOrEqualTo(key, startDate), cb.lessThanOrEqualTo(key, endDate)), predicate);
-            }
-
-            if (request.getFieldType() != FieldType.BOOLEAN) {
-                Number start = (Number) request.getValue();
-                Number end = (Number) request.getValueTo();
-                Expression<Number> key = root.get(request.getKey());
-                return cb.and(cb.and(cb.ge(key, start), cb.le(key, end)), predicate);
-            }
+            Comparable value = (Comparable) request.getValue();
+            Comparable valueTo = (Comparable) request.getValueTo();
+            Expression<Comparable> key = (Expression) typed(path, value);
+            return cb.and(cb.and(cb.greaterThanOrEqualTo(key, value), cb.lessThanOrEqualTo(key, valueTo)), predicate);
+        }
 
-            log.info("Can not use between for {} field type.", request.getFieldType());
-            return predicate;
+        @Override
+        public boolean coerces() {
+            return true;
         }
     },
 
@@ -122,6 +212,11 @@ public enum Operator {
         public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path) {
             return cb.and(cb.isNull(path), predicate);
         }
+
+        @Override
+        public boolean rejectsNull() {
+            return false;
+        }
     },
     IS_NOT_NULL {
         @Override
@@ -132,4 +227,64 @@ public enum Operator {
 
     public abstract Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path);
 
+    /**
+     * Builds the predicate for a column with the given indexes, text operators emit SQL the indexes can serve.
+     */
+    public Predicate build(Root<?> root, CriteriaBuilder cb, FilterRequest request, Predicate predicate, Path<?> path, TextIndex index) {
+        return build(root, cb, request, predicate, path);
+    }
+
+    /**
+     * @return true if the values of the operator are decoded into the java type of the attribute once per request,
+     * so {@link #build} gets them typed. Values of other operators are used as text.
+     */
+    public boolean coerces() {
+        return false;
+    }
+
+    /**
+     * @return true if the operator searches text, so the plan looks up the text indexes of its column
+     */
+    public boolean isTextSearch() {
+        return false;
+    }
+
+    private static final char ESCAPE = '\\';
+
+    /**
+     * The value is matched literally, as by {@link #STARTS_WITH}: {@code %}, {@code _} and the escape character are escaped.
+     */
+    private static Predicate contains(CriteriaBuilder cb, Expression<String> key, String value, TextIndex index) {
+        //a trigram index on the column itself serves ILIKE, but not LIKE on lower(column)
+        if (index.isTrigram() && !index.isTrigramLower()) {
+            return ((HibernateCriteriaBuilder) cb).ilike(key, "%" + escape(value) + "%", ESCAPE);
+        }
+        return cb.like(cb.lower(key), "%" + escape(value.toLowerCase()) + "%", ESCAPE);
+    }
+
+    /**
+     * Escapes the wildcards of LIKE patterns with {@link #ESCAPE}.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * The path is compared as is when the value already has the java type of the attribute,
+     * a cast would hide the column from its index. Otherwise it is cast to the type of the value.
+     */
+    @SuppressWarnings("unchecked")
+    private static Expression<Object> typed(Path<?> path, Object value) {
+        Class<?> javaType = ClassUtils.resolvePrimitiveIfNecessary(path.getJavaType());
+        return (Expression<Object>) (value == null || javaType.isInstance(value) ? path : path.as(value.getClass()));
+    }
+
+    /**
+     * @return true if the predicate is never satisfied when the path is null,
+     * so an association on the path can be joined INNER instead of LEFT.
+     */
+    public boolean rejectsNull() {
+        return true;
+    }
+
 }
\ No newline at end of file
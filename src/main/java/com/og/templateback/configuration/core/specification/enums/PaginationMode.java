@@ -0,0 +1,18 @@
+package com.og.templateback.configuration.core.specification.enums;
+
+/**
+ * Defines how a search request walks through the result set.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+public enum PaginationMode {
+    /**
+     * OFFSET	> SELECT * FROM table ORDER BY field LIMIT ? OFFSET ?
+     */
+    OFFSET,
+    /**
+     * KEYSET	> SELECT * FROM table WHERE (field, id) > (?, ?) ORDER BY field, id LIMIT ?
+     */
+    KEYSET
+}
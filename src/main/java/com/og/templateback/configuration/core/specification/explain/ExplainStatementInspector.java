@@ -0,0 +1,41 @@
+package com.og.templateback.configuration.core.specification.explain;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.io.Serial;
+
+/**
+ * Turns the next SQL statement of the current thread into {@code EXPLAIN (FORMAT JSON) <statement>}.
+ * It lets {@link QueryExplainer} explain the exact SQL Hibernate renders for a criteria query, with the same bind values.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+public class ExplainStatementInspector implements StatementInspector {
+    @Serial
+    private static final long serialVersionUID = 4721187318710298641L;
+
+    private static final String EXPLAIN = "EXPLAIN (FORMAT JSON) ";
+
+    private static final ThreadLocal<Boolean> ARMED = new ThreadLocal<>();
+
+    /**
+     * Arms the inspector for exactly one statement of the current thread.
+     */
+    static void arm() {
+        ARMED.set(Boolean.TRUE);
+    }
+
+    static void disarm() {
+        ARMED.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (Boolean.TRUE.equals(ARMED.get())) {
+            ARMED.remove();
+            return EXPLAIN + sql;
+        }
+        return sql;
+    }
+}
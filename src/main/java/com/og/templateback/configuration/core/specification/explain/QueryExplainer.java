@@ -0,0 +1,126 @@
+package com.og.templateback.configuration.core.specification.explain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Asks the postgres planner about a specification without executing it.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class QueryExplainer {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Set<String> SORTS = Set.of("Sort", "Incremental Sort");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Explains the query selecting rows of the specification.
+     *
+     * @param domainClass   The entity type.
+     * @param specification The specification to explain, null for the whole table.
+     * @param limit         LIMIT of the explained query, null for none.
+     * @return The planner estimate.
+     */
+    public <T> QueryPlanEstimate explain(Class<T> domainClass, Specification<T> specification, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<T> root = query.from(domainClass);
+        //the select list is a literal, so the single json column of EXPLAIN output can be read back as a string
+        query.select(cb.literal("plan"));
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        TypedQuery<String> typedQuery = entityManager.createQuery(query).setFlushMode(FlushModeType.COMMIT);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        ExplainStatementInspector.arm();
+        try {
+            String json = String.join("", typedQuery.getResultList());
+            JsonNode plan = MAPPER.readTree(json).get(0).get("Plan");
+            double totalCost = plan.get("Total Cost").asDouble();
+            //row estimate of a LIMIT node is the limit itself, the number of matching rows is on its input
+            JsonNode rowsNode = "Limit".equals(plan.get("Node Type").asText()) && plan.has("Plans")
+                    ? plan.get("Plans").get(0)
+                    : plan;
+            JsonNode inputNode = rowsNode;
+            while (SORTS.contains(inputNode.get("Node Type").asText()) && inputNode.has("Plans")) {
+                inputNode = inputNode.get("Plans").get(0);
+            }
+            return new QueryPlanEstimate(rowsNode.get("Plan Rows").asLong(), totalCost, inputNode.get("Total Cost").asDouble());
+        } catch (Exception e) {
+            throw new FilterException(e.getClass().getSimpleName() + " Can't explain query: " + e.getMessage(), e);
+        } finally {
+            ExplainStatementInspector.disarm();
+        }
+    }
+
+    /**
+     * Reads the row count postgres keeps in {@code pg_class.reltuples}, updated by VACUUM and ANALYZE.
+     *
+     * @param domainClass The entity type.
+     * @return The estimated number of rows of the entity table, -1 if the table was never analyzed or not found.
+     */
+    public long estimateTableRows(Class<?> domainClass) {
+        EntityPersister persister = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(domainClass);
+        String table = ((AbstractEntityPersister) persister).getRootTableName();
+        List<?> rows = entityManager
+                .createNativeQuery("SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = to_regclass(:table)")
+                .setParameter("table", table)
+                .setFlushMode(FlushModeType.COMMIT)
+                .getResultList();
+        return rows.isEmpty() ? -1 : ((Number) rows.get(0)).longValue();
+    }
+
+    /**
+     * Reads the number of distinct values of a column postgres keeps in {@code pg_stats}, updated by ANALYZE.
+     *
+     * @param table  The table, optionally schema qualified.
+     * @param column The column.
+     * @return The estimated number of distinct values, -1 if the column was never analyzed or not found.
+     */
+    public long estimateDistinctValues(String table, String column) {
+        //negative n_distinct is the ratio of distinct values to rows, it scales with the table
+        List<?> rows = entityManager
+                .createNativeQuery("SELECT CAST(CASE WHEN s.n_distinct >= 0 THEN s.n_distinct ELSE -s.n_distinct * c.reltuples END AS bigint) " +
+                        "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                        "JOIN pg_stats s ON s.schemaname = n.nspname AND s.tablename = c.relname " +
+                        "WHERE c.oid = to_regclass(:table) AND s.attname = :column")
+                .setParameter("table", table)
+                .setParameter("column", column.startsWith("\"") ? column.replace("\"", "") : column.toLowerCase(Locale.ROOT))
+                .setFlushMode(FlushModeType.COMMIT)
+                .getResultList();
+        return rows.isEmpty() || rows.get(0) == null ? -1 : ((Number) rows.get(0)).longValue();
+    }
+}
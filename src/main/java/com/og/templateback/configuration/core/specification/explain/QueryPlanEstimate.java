@@ -0,0 +1,29 @@
+package com.og.templateback.configuration.core.specification.explain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Planner estimate of a query taken from postgres EXPLAIN.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@AllArgsConstructor
+public class QueryPlanEstimate {
+    /**
+     * Estimated number of rows matching the filters, before LIMIT is applied.
+     */
+    private long rows;
+
+    /**
+     * Estimated total cost of the whole query in planner units.
+     */
+    private double totalCost;
+
+    /**
+     * Estimated cost of reading every matching row without LIMIT and sorting, about the cost of counting them.
+     */
+    private double inputCost;
+}
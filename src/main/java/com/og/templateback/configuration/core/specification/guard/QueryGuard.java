@@ -0,0 +1,154 @@
+package com.og.templateback.configuration.core.specification.guard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.og.templateback.configuration.core.specification.SearchSpecification;
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.explain.QueryExplainer;
+import com.og.templateback.configuration.core.specification.explain.QueryPlanEstimate;
+import com.og.templateback.configuration.core.specification.guard.QueryGuardProperties.EntitySettings;
+import com.og.templateback.configuration.core.specification.plan.SearchShape;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException.Reason;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admission control of searches, checked before their queries run: page sizes and unpaged reads are capped per entity,
+ * every statement gets the statement timeout of the entity, and with {@code search.guard.explain.enabled}
+ * the planner estimate of a search is compared with the cost budget of the entity.
+ * <p>
+ * Estimates are cached per shape of the search and page depth rounded up to a power of two, so a shape is explained
+ * once per {@code cache-ttl}, not per request. A page costing more than the budget is rejected with
+ * {@link QueryRejectedException}, an exact total costing more is downgraded to {@code count-fallback}.
+ * Hit, miss and eviction counts are exported as {@code cache.*} meters with tag {@code cache=search.cost}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class QueryGuard {
+    public static final String CACHE_NAME = "search.cost";
+
+    private final QueryGuardProperties properties;
+
+    private final QueryExplainer queryExplainer;
+
+    private final Cache<CostKey, QueryPlanEstimate> estimates;
+
+    private final Map<Class<?>, EntitySettings> settings = new ConcurrentHashMap<>();
+
+    public QueryGuard(QueryGuardProperties properties, QueryExplainer queryExplainer, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.queryExplainer = queryExplainer;
+        this.estimates = Caffeine.newBuilder()
+                .maximumSize(properties.getExplain().getCacheSize())
+                .expireAfterWrite(properties.getExplain().getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, estimates, CACHE_NAME);
+    }
+
+    /**
+     * @throws QueryRejectedException if the page is larger than the maximum page size of the entity
+     */
+    public void checkPageSize(Class<?> entityClass, int size) {
+        int maxPageSize = settingsOf(entityClass).getMaxPageSize();
+        if (size > maxPageSize) {
+            throw new QueryRejectedException(Reason.PAGE_SIZE, entityClass, maxPageSize, size);
+        }
+    }
+
+    /**
+     * @return maximum number of rows of the entity read without pagination
+     */
+    public int maxUnpagedRows(Class<?> entityClass) {
+        return settingsOf(entityClass).getMaxUnpagedRows();
+    }
+
+    /**
+     * @param rows number of rows read, at most one more than {@link #maxUnpagedRows}
+     * @throws QueryRejectedException if more rows were read than may be returned without pagination
+     */
+    public void checkUnpagedRows(Class<?> entityClass, int rows) {
+        int maxUnpagedRows = maxUnpagedRows(entityClass);
+        if (rows > maxUnpagedRows) {
+            throw new QueryRejectedException(Reason.UNPAGED_ROWS, entityClass, maxUnpagedRows, null);
+        }
+    }
+
+    /**
+     * Sets the statement timeout of the entity on the query. Postgres cancels the statement when it runs out,
+     * which is thrown as {@link jakarta.persistence.QueryTimeoutException}. The JDBC timeout is in whole seconds, so it is rounded up.
+     *
+     * @return the same query
+     */
+    public <Q extends Query> Q timeout(Class<?> entityClass, Q query) {
+        long millis = settingsOf(entityClass).getStatementTimeout().toMillis();
+        if (millis > 0) {
+            query.setHint(HibernateHints.HINT_TIMEOUT, (int) Math.max(1, (millis + 999) / 1000));
+        }
+        return query;
+    }
+
+    /**
+     * Admits a search by the planner estimate of its cost, if explaining is enabled.
+     * An estimate that can't be obtained admits the search, the statement timeout still bounds it.
+     *
+     * @param entityClass   The entity type.
+     * @param specification The specification of the search. Null for all rows.
+     * @param rows          Number of rows the page query reads, including skipped ones.
+     * @param count         How the total was requested to be calculated.
+     * @return How to calculate the total, {@code count-fallback} instead of an exact total over the budget.
+     * @throws QueryRejectedException if the page is estimated to cost more than the budget of the entity
+     */
+    public <T> CountStrategy admit(Class<T> entityClass, Specification<T> specification, long rows, CountStrategy count) {
+        if (!properties.getExplain().isEnabled()) {
+            return count;
+        }
+        SearchShape shape = specification instanceof SearchSpecification<T> search ? search.getPlan().getShape() : null;
+        if (specification != null && shape == null) {
+            //the shape of an arbitrary specification is unknown, explaining it on every request would cost more than it saves
+            return count;
+        }
+        int bucket = rows <= 1 ? 1 : (int) Math.min(1 << 30, Long.highestOneBit(rows - 1) << 1);
+        QueryPlanEstimate estimate;
+        try {
+            estimate = estimates.get(new CostKey(entityClass, shape, bucket),
+                    key -> queryExplainer.explain(entityClass, specification, bucket));
+        } catch (Exception e) {
+            log.warn("Can't estimate cost of {} search, admitting it: {}", entityClass.getSimpleName(), e.getMessage());
+            return count;
+        }
+
+        double maxCost = settingsOf(entityClass).getMaxCost();
+        if (estimate.getTotalCost() > maxCost) {
+            throw new QueryRejectedException(Reason.COST, entityClass, Math.round(maxCost), Math.round(estimate.getTotalCost()));
+        }
+        if (count == CountStrategy.EXACT && estimate.getInputCost() > maxCost) {
+            log.debug("Total of {} search estimated to cost {}, calculating it as {}",
+                    entityClass.getSimpleName(), estimate.getInputCost(), properties.getExplain().getCountFallback());
+            return properties.getExplain().getCountFallback();
+        }
+        return count;
+    }
+
+    private EntitySettings settingsOf(Class<?> entityClass) {
+        return settings.computeIfAbsent(entityClass, properties::settingsOf);
+    }
+
+    /**
+     * Estimates of one shape differ by the LIMIT only, which is rounded up to a power of two.
+     */
+    private record CostKey(Class<?> entityClass, SearchShape shape, int rows) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.og.templateback.configuration.core.specification.guard;
+
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Settings of {@link QueryGuard}, bound from {@code search.guard}.
+ * <pre>
+ * search:
+ *   guard:
+ *     max-page-size: 1000
+ *     max-unpaged-rows: 10000
+ *     statement-timeout: 30s
+ *     explain:
+ *       enabled: false
+ *       max-cost: 1000000
+ *       count-fallback: ESTIMATED
+ *       cache-size: 1000
+ *       cache-ttl: 10m
+ *     entities:
+ *       Customer:
+ *         max-page-size: 200
+ *         statement-timeout: 5s
+ *         max-cost: 50000
+ * </pre>
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.guard")
+public class QueryGuardProperties {
+
+    /**
+     * Maximum number of rows of one page, larger pages are rejected.
+     */
+    private int maxPageSize = 1000;
+
+    /**
+     * Maximum number of rows read without pagination, e.g. by {@code /all}, larger results are rejected.
+     */
+    private int maxUnpagedRows = 10_000;
+
+    /**
+     * Timeout of every statement of a search, zero for none. Exports are not limited, they run as long as the client reads.
+     */
+    private Duration statementTimeout = Duration.ofSeconds(30);
+
+    private Explain explain = new Explain();
+
+    /**
+     * Overrides keyed by simple class name of the entity, case-insensitive.
+     */
+    private Map<String, EntitySettings> entities = new HashMap<>();
+
+    /**
+     * @return overrides of the entity merged with the defaults
+     */
+    EntitySettings settingsOf(Class<?> entityClass) {
+        EntitySettings override = entities.entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(entityClass.getSimpleName()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseGet(EntitySettings::new);
+        EntitySettings settings = new EntitySettings();
+        settings.setMaxPageSize(Objects.requireNonNullElse(override.getMaxPageSize(), maxPageSize));
+        settings.setMaxUnpagedRows(Objects.requireNonNullElse(override.getMaxUnpagedRows(), maxUnpagedRows));
+        settings.setStatementTimeout(Objects.requireNonNullElse(override.getStatementTimeout(), statementTimeout));
+        settings.setMaxCost(Objects.requireNonNullElse(override.getMaxCost(), explain.getMaxCost()));
+        return settings;
+    }
+
+    /**
+     * Admission of searches by the planner estimate of their cost.
+     */
+    @Data
+    public static class Explain {
+
+        /**
+         * Explains every new shape of a search before running it.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Budget in planner cost units: a page costing more is rejected, a total costing more is calculated by {@link #countFallback}.
+         */
+        private double maxCost = 1_000_000;
+
+        private CountStrategy countFallback = CountStrategy.ESTIMATED;
+
+        /**
+         * Maximum number of cached estimates, one per shape and page depth.
+         */
+        private long cacheSize = 1000;
+
+        /**
+         * How long an estimate is trusted, so plans follow changes of the data.
+         */
+        private Duration cacheTtl = Duration.ofMinutes(10);
+    }
+
+    /**
+     * Settings of one entity, null values fall back to the defaults.
+     */
+    @Data
+    public static class EntitySettings {
+        private Integer maxPageSize;
+        private Integer maxUnpagedRows;
+        private Duration statementTimeout;
+        private Double maxCost;
+    }
+}
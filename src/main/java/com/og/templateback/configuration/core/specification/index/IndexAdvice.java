@@ -0,0 +1,110 @@
+package com.og.templateback.configuration.core.specification.index;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Report of {@link IndexAdvisor}: how searches use the entities, the indexes they miss and the indexes nobody uses.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Getter
+@Builder
+public class IndexAdvice {
+
+    /**
+     * Recorded searches by shape, the most expensive first.
+     */
+    private List<SearchCost> searches;
+
+    /**
+     * Suggested indexes, the one fixing the most observed time first.
+     */
+    private List<Suggestion> missing;
+
+    /**
+     * Indexes of entity tables never scanned since the statistics of postgres were reset, the largest first.
+     */
+    private List<Unused> unused;
+
+    public enum Kind {
+        /**
+         * B-tree on one column or expression.
+         */
+        BTREE,
+        /**
+         * B-tree on equality columns, then one range or the sort columns.
+         */
+        COMPOSITE,
+        /**
+         * GIN {@code gin_trgm_ops} index for substring and similarity search, needs the pg_trgm extension.
+         */
+        TRIGRAM,
+        /**
+         * B-tree over the rows matching the boolean and null checks every search of the shape makes.
+         */
+        PARTIAL
+    }
+
+    @Getter
+    @Builder
+    public static class SearchCost {
+        private String entity;
+        private String shape;
+        private long searches;
+        private double totalMillis;
+        private double meanMillis;
+        private double maxMillis;
+
+        /**
+         * Average share of the rows of the table matched, null if the searches didn't count them or the table is not analyzed.
+         */
+        private Double selectivity;
+    }
+
+    @Getter
+    @Builder
+    public static class Suggestion {
+        private Kind kind;
+        private String table;
+        private List<String> columns;
+
+        /**
+         * Predicate of a partial index, null for others.
+         */
+        private String where;
+        private String ddl;
+        private Set<String> entities;
+        private Set<String> keys;
+
+        /**
+         * Searches the index would serve and the time they took.
+         */
+        private long searches;
+        private double totalMillis;
+        private double meanMillis;
+        private double maxMillis;
+        private Double selectivity;
+
+        /**
+         * Statements on the table and columns recorded by pg_stat_statements, null if the extension is not installed.
+         */
+        private Long statementCalls;
+        private Double statementMeanMillis;
+        private Double statementTotalMillis;
+    }
+
+    @Getter
+    @Builder
+    public static class Unused {
+        private String table;
+        private String index;
+        private String definition;
+        private long sizeBytes;
+        private String ddl;
+    }
+}
@@ -0,0 +1,571 @@
+package com.og.templateback.configuration.core.specification.index;
+
+import com.og.templateback.configuration.core.datasource.ReplicaRoutingDataSource;
+import com.og.templateback.configuration.core.metamodel.AttributePath;
+import com.og.templateback.configuration.core.metamodel.EntityMetamodel;
+import com.og.templateback.configuration.core.specification.enums.LogicalOperator;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.index.IndexAdvice.Kind;
+import com.og.templateback.configuration.core.specification.index.SearchUsageRecorder.SearchUsage;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.FilterGroupStep;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.FilterStep;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.SortStep;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Suggests indexes from the usage recorded by {@link SearchUsageRecorder} and the statistics of postgres.
+ * <p>
+ * Filters combined by AND suggest one b-tree per table: equality columns first, then one range column,
+ * without a range the sort columns of the entity table, so the page is read in order. Boolean equality and null checks
+ * become the predicate of a partial index, substring and similarity search a trigram index, prefix search a b-tree on
+ * {@code lower(column) text_pattern_ops}, which serves {@code LIKE 'prefix%'} under any collation. Filters combined by OR
+ * suggest an index per column. Indexes already covered by an existing index, searches matching more than
+ * {@code max-selectivity} of the table without sorting and shapes searched less than {@code min-searches} times are left out.
+ * <p>
+ * Every suggestion carries the searches it would serve and their time, and if pg_stat_statements is installed the calls
+ * and time of the statements on its table and columns. Indexes of entity tables {@code pg_stat_user_indexes} has never
+ * seen scanned, on the primary nor on any replica, are listed as unused, unique indexes are not.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndexAdvisor {
+
+    private static final Pattern DEFINITION = Pattern.compile("using (\\w+) \\((.*?)\\)(?: where (.*))?$");
+
+    private final SearchUsageRecorder searchUsageRecorder;
+
+    private final EntityMetamodel entityMetamodel;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    /**
+     * Searches matching more than this share of the table read it faster without an index, unless they sort.
+     */
+    @Value("${search.index-advisor.max-selectivity:0.2}")
+    private double maxSelectivity;
+
+    @Value("${search.index-advisor.min-searches:10}")
+    private long minSearches;
+
+    /**
+     * Number of the most expensive statements of pg_stat_statements matched against suggestions.
+     */
+    @Value("${search.index-advisor.statements:500}")
+    private int statements;
+
+    /**
+     * @return the recorded searches, suggested indexes and unused indexes
+     */
+    public IndexAdvice advise() {
+        Map<String, TableStats> tables = new HashMap<>();
+        List<SearchUsage> usages = searchUsageRecorder.getUsages();
+        usages.sort(Comparator.comparingLong((SearchUsage usage) -> usage.getTotalNanos().sum()).reversed());
+
+        List<IndexAdvice.SearchCost> searches = new ArrayList<>(usages.size());
+        Map<String, Candidate> candidates = new LinkedHashMap<>();
+        for (SearchUsage usage : usages) {
+            String table = rootTable(usage.getEntityClass());
+            Double selectivity = selectivity(usage, table == null ? null : tables.computeIfAbsent(table, this::readStats));
+            long count = usage.getSearches().sum();
+            searches.add(IndexAdvice.SearchCost.builder()
+                    .entity(usage.getEntityClass().getSimpleName())
+                    .shape(usage.getPlan().getShape().toString())
+                    .searches(count)
+                    .totalMillis(millis(usage.getTotalNanos().sum()))
+                    .meanMillis(millis(usage.getTotalNanos().sum()) / count)
+                    .maxMillis(millis(usage.getMaxNanos().get()))
+                    .selectivity(selectivity)
+                    .build());
+
+            for (Candidate candidate : candidates(usage, table)) {
+                //an index doesn't make reading most of the table faster, unless it saves sorting it
+                if (selectivity != null && selectivity > maxSelectivity && !candidate.sorted) {
+                    continue;
+                }
+                candidates.computeIfAbsent(candidate.ddl(), key -> candidate).add(usage, selectivity);
+            }
+        }
+
+        List<Statement> statementStats = readStatements();
+        List<IndexAdvice.Suggestion> missing = new ArrayList<>();
+        for (Candidate candidate : candidates.values()) {
+            if (candidate.searches >= minSearches && !tables.computeIfAbsent(candidate.table, this::readStats).covers(candidate)) {
+                missing.add(candidate.toSuggestion(statementStats));
+            }
+        }
+        missing.sort(Comparator.comparingDouble(IndexAdvice.Suggestion::getTotalMillis).reversed());
+
+        List<IndexAdvice.Unused> unused = new ArrayList<>();
+        entityMetamodel.getDescriptors().stream()
+                .map(descriptor -> rootTable(descriptor.getEntityClass()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(table -> unused.addAll(tables.computeIfAbsent(table, this::readStats).unused()));
+        unused.sort(Comparator.comparingLong(IndexAdvice.Unused::getSizeBytes).reversed());
+
+        return IndexAdvice.builder()
+                .searches(searches)
+                .missing(missing)
+                .unused(unused)
+                .build();
+    }
+
+    /**
+     * @return the indexes one shape of searches would use
+     */
+    private List<Candidate> candidates(SearchUsage usage, String rootTable) {
+        SearchPlan plan = usage.getPlan();
+        List<Candidate> candidates = new ArrayList<>();
+        Map<String, Conjunction> conjunctions = new LinkedHashMap<>();
+        for (int i = 0; i < plan.getFilters().size(); i++) {
+            conjunctive(plan.getFilters().get(i), usage.getPartialValues().get(i), conjunctions, candidates);
+        }
+        for (FilterGroupStep group : plan.getGroups()) {
+            group(group, conjunctions, candidates);
+        }
+
+        List<String> sorts = new ArrayList<>();
+        Set<String> sortKeys = new LinkedHashSet<>();
+        for (SortStep sort : plan.getSorts()) {
+            AttributePath attribute = sort.getAttribute();
+            if (attribute == null || attribute.getColumn() == null || !Objects.equals(rootTable, attribute.getTable())) {
+                //the rows of the entity can't be read in the order of a joined column
+                break;
+            }
+            sorts.add(attribute.getColumn() + (sort.getDirection() == SortDirection.DESC ? " DESC" : ""));
+            sortKeys.add(sort.getKey());
+        }
+        if (!sorts.isEmpty()) {
+            conjunctions.computeIfAbsent(rootTable, Conjunction::new);
+        }
+
+        for (Conjunction conjunction : conjunctions.values()) {
+            List<String> columns = new ArrayList<>(conjunction.equality);
+            Set<String> keys = new LinkedHashSet<>(conjunction.keys);
+            boolean sorted = false;
+            if (!conjunction.range.isEmpty()) {
+                columns.add(conjunction.range.get(0));
+            } else if (conjunction.table.equals(rootTable) && !sorts.isEmpty()) {
+                sorts.stream().filter(sort -> !columns.contains(sort)).forEach(columns::add);
+                keys.addAll(sortKeys);
+                sorted = true;
+            }
+            if (columns.isEmpty()) {
+                continue;
+            }
+            Kind kind = !conjunction.where.isEmpty() ? Kind.PARTIAL : columns.size() > 1 ? Kind.COMPOSITE : Kind.BTREE;
+            candidates.add(new Candidate(kind, conjunction.table, columns,
+                    conjunction.where.isEmpty() ? null : String.join(" AND ", conjunction.where), keys, sorted));
+        }
+        return candidates;
+    }
+
+    /**
+     * Adds a filter combined with the others by AND.
+     *
+     * @param partialValue the value of a boolean equality filter, null for others
+     */
+    private static void conjunctive(FilterStep step, Object partialValue, Map<String, Conjunction> conjunctions, List<Candidate> candidates) {
+        AttributePath attribute = step.getAttribute();
+        if (attribute == null || attribute.getTable() == null || attribute.getColumn() == null) {
+            return;
+        }
+        if (text(step, candidates)) {
+            return;
+        }
+        String column = attribute.getColumn();
+        switch (step.getOperator()) {
+            case EQUAL, IN -> {
+                Conjunction conjunction = conjunctions.computeIfAbsent(attribute.getTable(), Conjunction::new);
+                if (partialValue instanceof Boolean value) {
+                    conjunction.where.add(column + " = " + value);
+                } else if (!conjunction.equality.contains(column)) {
+                    conjunction.equality.add(column);
+                }
+                conjunction.keys.add(step.getKey());
+            }
+            case BETWEEN -> {
+                Conjunction conjunction = conjunctions.computeIfAbsent(attribute.getTable(), Conjunction::new);
+                conjunction.range.add(column);
+                conjunction.keys.add(step.getKey());
+            }
+            case IS_NULL, IS_NOT_NULL -> {
+                Conjunction conjunction = conjunctions.computeIfAbsent(attribute.getTable(), Conjunction::new);
+                conjunction.where.add(column + (step.getOperator() == Operator.IS_NULL ? " IS NULL" : " IS NOT NULL"));
+                conjunction.keys.add(step.getKey());
+            }
+            default -> {
+                //NOT_EQUAL matches most rows, no index serves it
+            }
+        }
+    }
+
+    /**
+     * Filters of an AND group are combined with the top level filters, every filter of an OR group may use an index of its own
+     * combined by a bitmap OR, filters of a NOT group match the rows no index finds.
+     */
+    private static void group(FilterGroupStep group, Map<String, Conjunction> conjunctions, List<Candidate> candidates) {
+        switch (group.getOperator()) {
+            case AND -> {
+                group.getFilters().forEach(step -> conjunctive(step, null, conjunctions, candidates));
+                group.getGroups().forEach(nested -> group(nested, conjunctions, candidates));
+            }
+            case OR -> disjunctive(group, candidates);
+            case NOT -> {
+            }
+        }
+    }
+
+    private static void disjunctive(FilterGroupStep group, List<Candidate> candidates) {
+        for (FilterStep step : group.getFilters()) {
+            AttributePath attribute = step.getAttribute();
+            if (attribute == null || attribute.getTable() == null || attribute.getColumn() == null || text(step, candidates)) {
+                continue;
+            }
+            switch (step.getOperator()) {
+                case EQUAL, IN, BETWEEN -> candidates.add(new Candidate(Kind.BTREE, attribute.getTable(), List.of(attribute.getColumn()),
+                        null, Set.of(step.getKey()), false));
+                default -> {
+                }
+            }
+        }
+        for (FilterGroupStep nested : group.getGroups()) {
+            if (nested.getOperator() != LogicalOperator.NOT) {
+                disjunctive(nested, candidates);
+            }
+        }
+    }
+
+    /**
+     * Adds the index of a text operator unless the plan already found one for it.
+     *
+     * @return true if the operator searches text
+     */
+    private static boolean text(FilterStep step, List<Candidate> candidates) {
+        TextIndex index = step.getTextIndex() == null ? TextIndex.NONE : step.getTextIndex();
+        String column = step.getAttribute().getColumn();
+        String table = step.getAttribute().getTable();
+        switch (step.getOperator()) {
+            case LIKE, LIKE_ANY -> {
+                if (!index.isTrigram() && !index.isTrigramLower()) {
+                    candidates.add(new Candidate(Kind.TRIGRAM, table, List.of("lower(" + column + ")"), null, Set.of(step.getKey()), false));
+                }
+                return true;
+            }
+            case SIMILAR -> {
+                if (!index.isTrigram() && !index.isTrigramLower()) {
+                    candidates.add(new Candidate(Kind.TRIGRAM, table, List.of(column), null, Set.of(step.getKey()), false));
+                }
+                return true;
+            }
+            case STARTS_WITH -> {
+                if (!index.isLowerPattern()) {
+                    candidates.add(new Candidate(Kind.BTREE, table, List.of("lower(" + column + ") text_pattern_ops"), null, Set.of(step.getKey()), false));
+                }
+                return true;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    private String rootTable(Class<?> entityClass) {
+        try {
+            return entityMetamodel.describe(entityClass).resolve(SearchPlan.ID).getTable();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Double selectivity(SearchUsage usage, TableStats stats) {
+        Double matched = usage.averageMatchedRows();
+        if (matched == null || stats == null || stats.rows <= 0) {
+            return null;
+        }
+        return Math.min(1.0, matched / stats.rows);
+    }
+
+    /**
+     * Reads the row estimate and indexes of the table. Every server counts scans of its own queries,
+     * so with replicas the scans of an index are summed over the primary and all replicas.
+     */
+    private TableStats readStats(String table) {
+        TableStats stats = new TableStats(table);
+        try {
+            Long rows = jdbcTemplate.queryForObject("SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = to_regclass(?)", Long.class, table);
+            stats.rows = rows == null ? -1 : rows;
+            Map<String, ExistingIndex> indexes = new LinkedHashMap<>();
+            ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+            for (String route : routing == null ? Collections.singletonList((String) null) : routing.getRoutes()) {
+                ReplicaRoutingDataSource.onRoute(route, () -> jdbcTemplate.query(
+                        "SELECT quote_ident(s.schemaname) || '.' || quote_ident(s.indexrelname), pg_get_indexdef(s.indexrelid), s.idx_scan, " +
+                                "pg_relation_size(s.indexrelid), i.indisunique OR i.indisprimary " +
+                                "FROM pg_stat_user_indexes s JOIN pg_index i ON i.indexrelid = s.indexrelid WHERE s.relid = to_regclass(?)",
+                        (resultSet, row) -> new ExistingIndex(resultSet.getString(1), resultSet.getString(2), resultSet.getLong(3),
+                                resultSet.getLong(4), resultSet.getBoolean(5)), table))
+                        .forEach(index -> indexes.merge(index.name(), index, (a, b) ->
+                                new ExistingIndex(a.name(), a.definition(), a.scans() + b.scans(), a.sizeBytes(), a.unique())));
+            }
+            stats.indexes.addAll(indexes.values());
+        } catch (Exception e) {
+            //without the scans of every server an index can't be told unused
+            log.warn("Can't read statistics of {}: {}", table, e.getMessage());
+            stats.indexes.clear();
+        }
+        return stats;
+    }
+
+    /**
+     * @return the most expensive statements, empty if pg_stat_statements is not installed
+     */
+    private List<Statement> readStatements() {
+        try {
+            return jdbcTemplate.query("SELECT lower(query), calls, total_exec_time FROM pg_stat_statements " +
+                            "WHERE dbid = (SELECT oid FROM pg_database WHERE datname = current_database()) ORDER BY total_exec_time DESC LIMIT ?",
+                    (resultSet, row) -> new Statement(resultSet.getString(1), resultSet.getLong(2), resultSet.getDouble(3)), statements);
+        } catch (Exception e) {
+            log.debug("Can't read pg_stat_statements, suggestions are made without statement statistics: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Unquoted, without casts, parentheses and spaces, lower case: {@code lower((name)::text)} and {@code lower(name)} are equal.
+     */
+    private static String normalize(String expression) {
+        return expression.toLowerCase(Locale.ROOT)
+                .replace("::text", "")
+                .replaceAll("[\"()\\s]", "");
+    }
+
+    /**
+     * Splits the column list of an index definition at commas outside of parentheses.
+     */
+    private static List<String> splitColumns(String columns) {
+        List<String> result = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < columns.length(); i++) {
+            char c = columns.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                result.add(columns.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        result.add(columns.substring(start).trim());
+        return result;
+    }
+
+    /**
+     * Filters of one table combined by AND.
+     */
+    private static final class Conjunction {
+        private final String table;
+        private final List<String> equality = new ArrayList<>();
+        private final List<String> range = new ArrayList<>();
+        private final List<String> where = new ArrayList<>();
+        private final Set<String> keys = new LinkedHashSet<>();
+
+        private Conjunction(String table) {
+            this.table = table;
+        }
+    }
+
+    /**
+     * A suggested index and the searches it would serve.
+     */
+    private static final class Candidate {
+        private final Kind kind;
+        private final String table;
+        private final List<String> columns;
+        private final String where;
+        private final Set<String> keys = new LinkedHashSet<>();
+        private final Set<String> entities = new LinkedHashSet<>();
+
+        /**
+         * True if the index returns the rows in the order of the search.
+         */
+        private final boolean sorted;
+
+        private long searches;
+        private long totalNanos;
+        private long maxNanos;
+        private double selectivitySum;
+        private long selectivitySamples;
+
+        private Candidate(Kind kind, String table, List<String> columns, String where, Set<String> keys, boolean sorted) {
+            this.kind = kind;
+            this.table = table;
+            this.columns = columns;
+            this.where = where;
+            this.keys.addAll(keys);
+            this.sorted = sorted;
+        }
+
+        private void add(SearchUsage usage, Double selectivity) {
+            long count = usage.getSearches().sum();
+            searches += count;
+            totalNanos += usage.getTotalNanos().sum();
+            maxNanos = Math.max(maxNanos, usage.getMaxNanos().get());
+            entities.add(usage.getEntityClass().getSimpleName());
+            if (selectivity != null) {
+                selectivitySum += selectivity * count;
+                selectivitySamples += count;
+            }
+        }
+
+        private String ddl() {
+            String name = table.substring(table.lastIndexOf('.') + 1).replace("\"", "") + "_" + columns.stream()
+                    .map(column -> column.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]+", "_").replaceAll("^_|_$", ""))
+                    .collect(Collectors.joining("_"))
+                    + (kind == Kind.TRIGRAM ? "_trgm" : kind == Kind.PARTIAL ? "_partial" : "") + "_idx";
+            name = name.length() > 63 ? name.substring(0, 63) : name;
+            String columnList = kind == Kind.TRIGRAM
+                    ? columns.stream().map(column -> column + " gin_trgm_ops").collect(Collectors.joining(", "))
+                    : String.join(", ", columns);
+            return "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " ON " + table
+                    + " USING " + (kind == Kind.TRIGRAM ? "gin" : "btree") + " (" + columnList + ")"
+                    + (where == null ? "" : " WHERE " + where);
+        }
+
+        private IndexAdvice.Suggestion toSuggestion(List<Statement> statements) {
+            IndexAdvice.Suggestion.SuggestionBuilder suggestion = IndexAdvice.Suggestion.builder()
+                    .kind(kind)
+                    .table(table)
+                    .columns(columns)
+                    .where(where)
+                    .ddl(ddl())
+                    .entities(entities)
+                    .keys(keys)
+                    .searches(searches)
+                    .totalMillis(millis(totalNanos))
+                    .meanMillis(millis(totalNanos) / searches)
+                    .maxMillis(millis(maxNanos))
+                    .selectivity(selectivitySamples == 0 ? null : selectivitySum / selectivitySamples);
+            if (statements != null) {
+                String tableName = table.toLowerCase(Locale.ROOT).replace("\"", "");
+                Pattern tablePattern = Pattern.compile("\\b(from|join)\\s+\"?" + Pattern.quote(tableName) + "\"?\\b");
+                List<Pattern> columnPatterns = columns.stream()
+                        .map(column -> column.replaceAll("(?i)\\s+(desc|\\w+_pattern_ops)$", "").replaceAll("(?i)^lower\\(|\\)$", "")
+                                .replace("\"", "").toLowerCase(Locale.ROOT))
+                        .map(column -> Pattern.compile("\\b" + Pattern.quote(column) + "\\b"))
+                        .toList();
+                long calls = 0;
+                double total = 0;
+                for (Statement statement : statements) {
+                    if (tablePattern.matcher(statement.query).find()
+                            && columnPatterns.stream().allMatch(pattern -> pattern.matcher(statement.query).find())) {
+                        calls += statement.calls;
+                        total += statement.totalMillis;
+                    }
+                }
+                suggestion.statementCalls(calls)
+                        .statementTotalMillis(total)
+                        .statementMeanMillis(calls == 0 ? null : total / calls);
+            }
+            return suggestion.build();
+        }
+    }
+
+    private record Statement(String query, long calls, double totalMillis) {
+    }
+
+    private record ExistingIndex(String name, String definition, long scans, long sizeBytes, boolean unique) {
+    }
+
+    /**
+     * Row estimate and indexes of one table.
+     */
+    private static final class TableStats {
+        private final String table;
+        private final List<ExistingIndex> indexes = new ArrayList<>();
+        private long rows = -1;
+
+        private TableStats(String table) {
+            this.table = table;
+        }
+
+        /**
+         * A b-tree leading with the columns of the candidate covers it, if it is partial only with the same predicate.
+         * The operator class is part of the column: only a {@code text_pattern_ops} or {@code varchar_pattern_ops} column covers
+         * a prefix candidate. A trigram index covers a trigram candidate on the same expression.
+         */
+        private boolean covers(Candidate candidate) {
+            List<String> wanted = candidate.columns.stream()
+                    .map(column -> normalize(column.replaceAll("(?i)\\s+desc$", "").replaceAll("(?i)\\s+\\w+_pattern_ops$", " pattern_ops")))
+                    .toList();
+            for (ExistingIndex index : indexes) {
+                Matcher matcher = DEFINITION.matcher(index.definition.toLowerCase(Locale.ROOT));
+                if (!matcher.find()) {
+                    continue;
+                }
+                String method = matcher.group(1);
+                List<String> columns = splitColumns(matcher.group(2)).stream()
+                        .map(column -> normalize(column.replaceAll("\\s+(desc|asc|nulls first|nulls last|gi(n|st)_trgm_ops)", "")
+                                .replaceAll("\\s+(text|varchar)_pattern_ops", " pattern_ops")))
+                        .toList();
+                String where = matcher.group(3);
+                if (candidate.kind == Kind.TRIGRAM) {
+                    if ((method.equals("gin") || method.equals("gist")) && matcher.group(2).contains("_trgm_ops")
+                            && columns.containsAll(wanted)) {
+                        return true;
+                    }
+                } else if (method.equals("btree") && columns.size() >= wanted.size() && columns.subList(0, wanted.size()).equals(wanted)
+                        && (where == null || (candidate.where != null && normalize(where).equals(normalize(candidate.where))))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private List<IndexAdvice.Unused> unused() {
+            return indexes.stream()
+                    .filter(index -> index.scans == 0 && !index.unique)
+                    .map(index -> IndexAdvice.Unused.builder()
+                            .table(table)
+                            .index(index.name)
+                            .definition(index.definition)
+                            .sizeBytes(index.sizeBytes)
+                            .ddl("DROP INDEX CONCURRENTLY IF EXISTS " + index.name)
+                            .build())
+                    .toList();
+        }
+    }
+}
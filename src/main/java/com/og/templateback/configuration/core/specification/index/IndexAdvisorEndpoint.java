@@ -0,0 +1,34 @@
+package com.og.templateback.configuration.core.specification.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint {@code /actuator/searchindexes}: GET returns the report of {@link IndexAdvisor},
+ * DELETE resets the recorded search usage, e.g. after the suggested indexes were created.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Component
+@Endpoint(id = "searchindexes")
+@RequiredArgsConstructor
+public class IndexAdvisorEndpoint {
+
+    private final IndexAdvisor indexAdvisor;
+
+    private final SearchUsageRecorder searchUsageRecorder;
+
+    @ReadOperation
+    public IndexAdvice advise() {
+        return indexAdvisor.advise();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        searchUsageRecorder.reset();
+    }
+}
@@ -0,0 +1,148 @@
+package com.og.templateback.configuration.core.specification.index;
+
+import com.og.templateback.configuration.core.specification.SearchSpecification;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.FilterStep;
+import com.og.templateback.configuration.core.specification.plan.SearchShape;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how searches use every entity: which keys they filter with which operators, how they sort,
+ * how many rows they match and how long they take. {@link IndexAdvisor} turns the usage into index suggestions.
+ * <p>
+ * Usage is kept per {@link SearchShape} of the search, plus the values of boolean equality filters, which may become
+ * the predicate of a partial index. At most {@code search.index-advisor.max-shapes} usages are kept per entity,
+ * searches of other shapes are not recorded until the usage is reset.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Component
+public class SearchUsageRecorder {
+
+    private final Map<Class<?>, Map<UsageKey, SearchUsage>> usages = new ConcurrentHashMap<>();
+
+    @Value("${search.index-advisor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.index-advisor.max-shapes:500}")
+    private int maxShapes;
+
+    /**
+     * Records one executed search, arbitrary specifications are not recorded.
+     *
+     * @param entityClass   The entity type.
+     * @param specification The specification of the search.
+     * @param nanos         How long the queries of the search took.
+     * @param matchedRows   Number of rows matching the filters, null if the search didn't count them.
+     */
+    public void record(Class<?> entityClass, Specification<?> specification, long nanos, Long matchedRows) {
+        if (!enabled || !(specification instanceof SearchSpecification<?> search)) {
+            return;
+        }
+        SearchPlan plan = search.getPlan();
+        Map<UsageKey, SearchUsage> entityUsages = usages.computeIfAbsent(entityClass, key -> new ConcurrentHashMap<>());
+        UsageKey key = new UsageKey(plan.getShape(), partialValues(plan.getFilters(), search.getFilters()));
+        SearchUsage usage = entityUsages.get(key);
+        if (usage == null) {
+            if (entityUsages.size() >= maxShapes) {
+                return;
+            }
+            usage = entityUsages.computeIfAbsent(key, k -> new SearchUsage(entityClass, plan, k.partialValues()));
+        }
+        usage.record(nanos, matchedRows);
+    }
+
+    /**
+     * @return usages of all entities
+     */
+    public List<SearchUsage> getUsages() {
+        List<SearchUsage> all = new ArrayList<>();
+        usages.values().stream().map(Map::values).forEach(all::addAll);
+        return all;
+    }
+
+    public void reset() {
+        usages.clear();
+    }
+
+    /**
+     * @return per top level filter its boolean equality value, null for other filters
+     */
+    private static List<Object> partialValues(List<FilterStep> steps, List<FilterRequest> filters) {
+        List<Object> values = new ArrayList<>(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            FilterStep step = steps.get(i);
+            boolean booleanEqual = step.getOperator() == Operator.EQUAL && Boolean.class.equals(step.getCodec().getType());
+            values.add(booleanEqual ? filters.get(i).getValue() : null);
+        }
+        return values;
+    }
+
+    /**
+     * Keyed by the shape, not by the plan: a plan evicted from {@link com.og.templateback.configuration.core.specification.plan.SearchPlanCache}
+     * is compiled again as another instance of the same shape.
+     */
+    private record UsageKey(SearchShape shape, List<Object> partialValues) {
+    }
+
+    /**
+     * Usage of one shape of searches of an entity.
+     */
+    @Getter
+    public static final class SearchUsage {
+        private final Class<?> entityClass;
+        private final SearchPlan plan;
+
+        /**
+         * Per top level filter of the plan its boolean equality value, null for other filters.
+         */
+        private final List<Object> partialValues;
+
+        private final LongAdder searches = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        /**
+         * Sum of matched rows of the searches which counted them.
+         */
+        private final LongAdder matchedRows = new LongAdder();
+        private final LongAdder counted = new LongAdder();
+
+        private SearchUsage(Class<?> entityClass, SearchPlan plan, List<Object> partialValues) {
+            this.entityClass = entityClass;
+            this.plan = plan;
+            this.partialValues = partialValues;
+        }
+
+        private void record(long nanos, Long matched) {
+            searches.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (matched != null) {
+                matchedRows.add(matched);
+                counted.increment();
+            }
+        }
+
+        /**
+         * @return average number of rows the searches matched, null if none counted them
+         */
+        public Double averageMatchedRows() {
+            long samples = counted.sum();
+            return samples == 0 ? null : (double) matchedRows.sum() / samples;
+        }
+    }
+}
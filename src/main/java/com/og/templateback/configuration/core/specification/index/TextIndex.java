@@ -0,0 +1,37 @@
+package com.og.templateback.configuration.core.specification.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Indexes of a text column that text operators can be rewritten for.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class TextIndex {
+    public static final TextIndex NONE = new TextIndex(false, false, false);
+
+    /**
+     * GIN/GiST {@code gin_trgm_ops} index on the column: serves {@code col ILIKE '%v%'} and {@code col % 'v'}.
+     */
+    private final boolean trigram;
+
+    /**
+     * GIN/GiST {@code gin_trgm_ops} index on {@code lower(col)}: serves {@code lower(col) LIKE '%v%'}.
+     */
+    private final boolean trigramLower;
+
+    /**
+     * B-tree index on {@code lower(col) text_pattern_ops}: serves {@code lower(col) LIKE 'v%'} under any collation.
+     */
+    private final boolean lowerPattern;
+
+    public boolean isAny() {
+        return trigram || trigramLower || lowerPattern;
+    }
+}
@@ -0,0 +1,134 @@
+package com.og.templateback.configuration.core.specification.index;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.og.templateback.configuration.core.metamodel.AttributePath;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the definitions of indexes from {@code pg_indexes}: text indexes for text operators, b-trees for ordered reads.
+ * Definitions are read once per table on first use and kept for {@code search.text-index.ttl},
+ * so indexes created at runtime are picked up without a restart. Compiled search plans don't keep the indexes,
+ * every query looks them up here, the text indexes of a column are kept along with the definitions of its table.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class TextIndexCatalog {
+
+    private final Cache<String, TableIndexes> tables;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TextIndexCatalog(@Value("${search.text-index.ttl:10m}") Duration ttl) {
+        this.tables = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * @param attribute resolved attribute
+     * @return indexes of the column of the attribute, {@link TextIndex#NONE} if it has none or isn't a column
+     */
+    public TextIndex lookup(AttributePath attribute) {
+        if (attribute == null || attribute.getTable() == null || !String.class.equals(attribute.getJavaType())) {
+            return TextIndex.NONE;
+        }
+        TableIndexes indexes = indexes(attribute.getTable());
+        return indexes.textIndexes().computeIfAbsent(attribute.getColumn(), column -> textIndex(indexes.definitions(), attribute));
+    }
+
+    private static TextIndex textIndex(List<String> definitions, AttributePath attribute) {
+        String columnRef = columnRef(attribute);
+        String lower = "lower\\(\\(?" + columnRef + "\\)?(::text)?\\)";
+        Pattern trigram = Pattern.compile("[(,]\\s*" + columnRef + "\\s+gi(n|st)_trgm_ops");
+        Pattern trigramLower = Pattern.compile(lower + "\\s+gi(n|st)_trgm_ops");
+        Pattern lowerPattern = Pattern.compile("using btree \\(" + lower + "\\s+(text|varchar)_pattern_ops");
+
+        boolean hasTrigram = false;
+        boolean hasTrigramLower = false;
+        boolean hasLowerPattern = false;
+        for (String definition : definitions) {
+            hasTrigram |= trigram.matcher(definition).find();
+            hasTrigramLower |= trigramLower.matcher(definition).find();
+            hasLowerPattern |= lowerPattern.matcher(definition).find();
+        }
+        return new TextIndex(hasTrigram, hasTrigramLower, hasLowerPattern);
+    }
+
+    /**
+     * @param attribute resolved attribute
+     * @return true if a b-tree index leads with the column of the attribute, so the column can be read in order
+     */
+    public boolean hasBtree(AttributePath attribute) {
+        if (attribute == null || attribute.getTable() == null) {
+            return false;
+        }
+        Pattern btree = Pattern.compile("using btree \\(" + columnRef(attribute) + "[\\s,)]");
+        return indexes(attribute.getTable()).definitions().stream().anyMatch(definition -> btree.matcher(definition).find());
+    }
+
+    public void invalidateAll() {
+        tables.invalidateAll();
+    }
+
+    private TableIndexes indexes(String table) {
+        return tables.get(table, key -> new TableIndexes(definitions(key), new ConcurrentHashMap<>()));
+    }
+
+    private List<String> definitions(String key) {
+        try {
+            int dot = key.lastIndexOf('.');
+            String name = identifier(key.substring(dot + 1));
+            String schema = dot < 0 ? null : identifier(key.substring(0, dot));
+            List<?> rows = entityManager
+                    .createNativeQuery("SELECT lower(indexdef) FROM pg_indexes " +
+                            "WHERE tablename = :table AND schemaname = coalesce(CAST(:schema AS text), current_schema())")
+                    .setParameter("table", name)
+                    .setParameter("schema", schema)
+                    .setFlushMode(FlushModeType.COMMIT)
+                    .getResultList();
+            log.debug("Indexes of {}: {}", key, rows);
+            return rows.stream().map(String::valueOf).toList();
+        } catch (Exception e) {
+            log.warn("Can't read indexes of {}, text search falls back to plain LIKE: {}", key, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * pg_get_indexdef renders a column as col or "col", lower(col) of a varchar column as lower((col)::text).
+     */
+    private static String columnRef(AttributePath attribute) {
+        String column = Pattern.quote(attribute.getColumn().replace("\"", "").toLowerCase(Locale.ROOT));
+        return "\"?" + column + "\"?";
+    }
+
+    /**
+     * Index definitions of one table, and the text indexes of its columns found in them.
+     */
+    private record TableIndexes(List<String> definitions, Map<String, TextIndex> textIndexes) {
+    }
+
+    /**
+     * Unquoted identifiers are folded to lower case by postgres, quoted ones are kept as is.
+     */
+    private static String identifier(String name) {
+        return name.startsWith("\"") ? name.replace("\"", "") : name.toLowerCase(Locale.ROOT);
+    }
+}
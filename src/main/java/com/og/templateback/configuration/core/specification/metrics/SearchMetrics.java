@@ -0,0 +1,206 @@
+package com.og.templateback.configuration.core.specification.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.og.templateback.configuration.core.specification.SearchSpecification;
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.FilterGroupStep;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan.FilterStep;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.QueryTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times every search: pages, keyset pages, facets, aggregates, distinct values and exports. Every search is recorded twice:
+ * <ul>
+ *     <li>{@code search.latency} - tagged with {@code entity}, {@code operation} and {@code outcome} only,
+ *     a histogram for {@code histogram_quantile} if {@code search.metrics.histogram}</li>
+ *     <li>{@code search.execution} - a plain timer, count, sum and max, tagged with the shape of the search too</li>
+ * </ul>
+ * The tags are
+ * <ul>
+ *     <li>{@code entity} - simple class name of the entity</li>
+ *     <li>{@code operation} - {@code page}, {@code seek}, {@code facet}, {@code aggregate}, {@code distinct} or {@code stream}</li>
+ *     <li>{@code operators} - sorted set of the filter operators, {@code none} without filters, {@code custom} for other specifications</li>
+ *     <li>{@code joins} - number of joined associations, {@code 3+} from three on</li>
+ *     <li>{@code page_size} - page size or limit rounded up to a power of two, {@code 1024+} above, {@code none} for exports</li>
+ *     <li>{@code count} - how the total was requested, {@code NONE} if there is no total</li>
+ *     <li>{@code outcome} - {@code success}, {@code rejected}, {@code timeout} or {@code error}</li>
+ * </ul>
+ * Only {@code operators} may take many values, the first {@code search.metrics.max-operator-sets} of them are kept,
+ * later operator sets are tagged {@code other}. The histogram buckets multiply the series of their timer,
+ * which is why only the low cardinality timer has them. An export is timed until its last row is consumed.
+ * Searches slower than {@code slow-threshold} are counted as {@code search.slow} and their shape, which holds keys
+ * and operators but no values, is logged at most once per {@code slow-sample-interval} per shape.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class SearchMetrics {
+    public static final String EXECUTION = "search.execution";
+
+    public static final String LATENCY = "search.latency";
+
+    public static final String SLOW = "search.slow";
+
+    private static final int MAX_JOINS = 3;
+
+    private static final int MAX_PAGE_SIZE = 1024;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration slowThreshold;
+
+    private final boolean histogram;
+
+    private final int maxOperatorSets;
+
+    /**
+     * Operator sets {@code search.execution} is tagged with, at most {@link #maxOperatorSets}.
+     */
+    private final Set<String> operatorSets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Shapes logged as slow within the last {@code slow-sample-interval}.
+     */
+    private final Cache<String, Boolean> sampledShapes;
+
+    public SearchMetrics(MeterRegistry meterRegistry,
+                         @Value("${search.metrics.max-operator-sets:100}") int maxOperatorSets,
+                         @Value("${search.metrics.histogram:true}") boolean histogram,
+                         @Value("${search.metrics.slow-threshold:1s}") Duration slowThreshold,
+                         @Value("${search.metrics.slow-sample-interval:1m}") Duration slowSampleInterval) {
+        this.meterRegistry = meterRegistry;
+        this.histogram = histogram;
+        this.maxOperatorSets = maxOperatorSets;
+        this.slowThreshold = slowThreshold;
+        this.sampledShapes = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(slowSampleInterval)
+                .build();
+    }
+
+    /**
+     * Records one search.
+     *
+     * @param entityClass   The entity type.
+     * @param operation     The kind of the search, see the {@code operation} tag.
+     * @param specification The specification of the search, null for all rows.
+     * @param pageSize      The requested page size or limit, null if there is none.
+     * @param count         How the total was requested.
+     * @param nanos         How long the search took.
+     * @param failure       The exception the search failed with, null if it succeeded.
+     */
+    public void record(Class<?> entityClass, String operation, Specification<?> specification, Integer pageSize, CountStrategy count,
+                       long nanos, Throwable failure) {
+        SearchPlan plan = specification instanceof SearchSpecification<?> search ? search.getPlan() : null;
+        String outcome = outcome(failure);
+        Timer.Builder latency = Timer.builder(LATENCY)
+                .description("Duration of searches, including their totals")
+                .tags("entity", entityClass.getSimpleName(), "operation", operation, "outcome", outcome);
+        if (histogram) {
+            latency.publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30));
+        }
+        latency.register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+        Timer.builder(EXECUTION)
+                .description("Duration of searches by their shape, including their totals")
+                .tags(Tags.of(
+                        "entity", entityClass.getSimpleName(),
+                        "operation", operation,
+                        "operators", bounded(operators(specification, plan)),
+                        "joins", plan == null ? "0" : joins(plan.getJoinTypes().size()),
+                        "page_size", pageSize(pageSize),
+                        "count", count == null ? CountStrategy.NONE.name() : count.name(),
+                        "outcome", outcome))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        if (nanos > slowThreshold.toNanos()) {
+            Counter.builder(SLOW)
+                    .description("Searches slower than search.metrics.slow-threshold")
+                    .tag("entity", entityClass.getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            String shape = plan == null ? entityClass.getName() + ";" + operators(specification, null) : plan.getShape().toString();
+            if (sampledShapes.asMap().putIfAbsent(shape, Boolean.TRUE) == null) {
+                log.warn("Slow {} of {} took {} ms, page size {}, count {}, outcome {}, shape {}", operation, entityClass.getSimpleName(),
+                        TimeUnit.NANOSECONDS.toMillis(nanos), pageSize, count, outcome, shape);
+            }
+        }
+    }
+
+    private static String operators(Specification<?> specification, SearchPlan plan) {
+        if (plan == null) {
+            return specification == null ? "none" : "custom";
+        }
+        Set<Operator> operators = EnumSet.noneOf(Operator.class);
+        collect(plan.getFilters(), plan.getGroups(), operators);
+        return operators.isEmpty() ? "none" : operators.stream().map(Operator::name).collect(Collectors.joining(","));
+    }
+
+    /**
+     * @return the operator set if it is one of the first {@link #maxOperatorSets}, {@code other} if not
+     */
+    private String bounded(String operators) {
+        if (operatorSets.contains(operators)) {
+            return operators;
+        }
+        if (operatorSets.size() < maxOperatorSets && operatorSets.add(operators)) {
+            return operators;
+        }
+        return "other";
+    }
+
+    private static void collect(List<FilterStep> filters, List<FilterGroupStep> groups, Set<Operator> operators) {
+        filters.forEach(filter -> operators.add(filter.getOperator()));
+        groups.forEach(group -> collect(group.getFilters(), group.getGroups(), operators));
+    }
+
+    private static String joins(int joins) {
+        return joins >= MAX_JOINS ? MAX_JOINS + "+" : String.valueOf(joins);
+    }
+
+    private static String pageSize(Integer size) {
+        if (size == null) {
+            return "none";
+        }
+        if (size > MAX_PAGE_SIZE) {
+            return MAX_PAGE_SIZE + "+";
+        }
+        return String.valueOf(size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1);
+    }
+
+    private static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "success";
+        }
+        if (failure instanceof QueryRejectedException) {
+            return "rejected";
+        }
+        if (failure instanceof QueryTimeoutException || failure instanceof org.springframework.dao.QueryTimeoutException) {
+            return "timeout";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,87 @@
+package com.og.templateback.configuration.core.specification.pagination;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque continuation token of keyset pagination.
+ * It holds the values of the sort keys and the id of the last row of the previous page,
+ * plus a fingerprint of the sorts it was issued for.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Getter
+public final class KeysetCursor {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private final int sortFingerprint;
+
+    private final List<Object> values;
+
+    private KeysetCursor(int sortFingerprint, List<Object> values) {
+        this.sortFingerprint = sortFingerprint;
+        this.values = values;
+    }
+
+    /**
+     * @param sortFingerprint fingerprint of the sorts of the request
+     * @param values          sort key values of the last row, id last
+     * @return url-safe token
+     */
+    public static String encode(int sortFingerprint, List<Object> values) {
+        List<Object> payload = new ArrayList<>(values.size() + 1);
+        payload.add(sortFingerprint);
+        for (Object value : values) {
+            //Timestamp is written with millisecond precision only and would break the seek predicate on micros
+            payload.add(value instanceof Timestamp timestamp ? timestamp.toInstant() : value);
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(payload));
+        } catch (Exception e) {
+            throw new FilterException(e.getClass().getSimpleName() + " Can't encode cursor: " + e.getMessage());
+        }
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            List<?> payload = MAPPER.readValue(Base64.getUrlDecoder().decode(token.getBytes(StandardCharsets.US_ASCII)), List.class);
+            int sortFingerprint = ((Number) payload.get(0)).intValue();
+            return new KeysetCursor(sortFingerprint, new ArrayList<>(payload.subList(1, payload.size())));
+        } catch (Exception e) {
+            throw new FilterException(e.getClass().getSimpleName() + " Invalid cursor: " + token);
+        }
+    }
+
+    /**
+     * Converts the raw value at the given position into the java type of the sort key.
+     */
+    public Object valueAt(int index, Class<?> type) {
+        Object raw = values.get(index);
+        if (raw == null) {
+            return null;
+        }
+        if (Timestamp.class.equals(type)) {
+            return Timestamp.from(MAPPER.convertValue(raw, Instant.class));
+        }
+        return MAPPER.convertValue(raw, type);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
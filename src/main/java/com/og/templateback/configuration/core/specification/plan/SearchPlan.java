@@ -0,0 +1,394 @@
+package com.og.templateback.configuration.core.specification.plan;
+
+import com.og.templateback.configuration.core.metamodel.AttributePath;
+import com.og.templateback.configuration.core.metamodel.EntityDescriptor;
+import com.og.templateback.configuration.core.specification.codec.ValueCodec;
+import com.og.templateback.configuration.core.specification.codec.ValueCodecs;
+import com.og.templateback.configuration.core.specification.enums.FieldType;
+import com.og.templateback.configuration.core.specification.enums.LogicalOperator;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.index.TextIndex;
+import com.og.templateback.configuration.core.specification.index.TextIndexCatalog;
+import com.og.templateback.configuration.core.specification.request.FilterGroupRequest;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.metamodel.Attribute;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Precompiled form of a {@link SearchShape}: keys already split into path nodes, join types and operators already resolved.
+ * A plan holds no values, values are bound from the incoming {@link SearchRequest} on every execution.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Getter
+public final class SearchPlan {
+    public static final String ID = "id";
+
+    private final SearchShape shape;
+
+    /**
+     * Filter steps in {@link SearchShape#FILTER_ORDER}.
+     */
+    private final List<FilterStep> filters;
+
+    /**
+     * Filter groups in request order, AND-ed with the filters.
+     */
+    private final List<FilterGroupStep> groups;
+
+    private final List<SortStep> sorts;
+
+    /**
+     * Columns selected by a projection: the requested fields, then id and keyset sort keys unless requested.
+     * Empty if the request selects whole entities.
+     */
+    private final List<FieldStep> selection;
+
+    /**
+     * Fingerprint of the sorts, keyset cursors are only valid for the sorts they were issued for.
+     */
+    private final int sortFingerprint;
+
+    /**
+     * True if one of the sorts is by id, so no id tiebreaker is needed for keyset pagination.
+     */
+    private final boolean sortedById;
+
+    /**
+     * Join type of every association path used by filters and sorts, keyed by dotted path ("customer", "customer.address").
+     * A path is joined INNER if a top level filter rejects rows where it is absent, LEFT if only sorts, null checks
+     * or filter groups use it: a row may match an OR or NOT group without the association.
+     */
+    private final Map<String, JoinType> joinTypes;
+
+    private SearchPlan(SearchShape shape, List<FilterStep> filters, List<FilterGroupStep> groups, List<SortStep> sorts, List<FieldStep> selection) {
+        this.shape = shape;
+        this.filters = Collections.unmodifiableList(filters);
+        this.groups = Collections.unmodifiableList(groups);
+        this.sorts = Collections.unmodifiableList(sorts);
+        this.selection = Collections.unmodifiableList(selection);
+        Map<String, JoinType> types = new HashMap<>();
+        for (FilterStep filter : filters) {
+            for (String joinKey : filter.getJoinKeys()) {
+                if (filter.getOperator().rejectsNull()) {
+                    types.put(joinKey, JoinType.INNER);
+                } else {
+                    types.putIfAbsent(joinKey, JoinType.LEFT);
+                }
+            }
+        }
+        for (FilterGroupStep group : groups) {
+            group.joinKeys().forEach(joinKey -> types.putIfAbsent(joinKey, JoinType.LEFT));
+        }
+        for (SortStep sort : sorts) {
+            for (String joinKey : sort.getJoinKeys()) {
+                types.putIfAbsent(joinKey, JoinType.LEFT);
+            }
+        }
+        for (FieldStep field : selection) {
+            for (String joinKey : field.getJoinKeys()) {
+                types.putIfAbsent(joinKey, JoinType.LEFT);
+            }
+        }
+        this.joinTypes = Collections.unmodifiableMap(types);
+        StringBuilder signature = new StringBuilder();
+        boolean byId = false;
+        for (SortStep sort : sorts) {
+            signature.append(sort.getKey()).append(':').append(sort.getDirection()).append(';');
+            byId |= ID.equals(sort.getKey());
+        }
+        this.sortFingerprint = signature.toString().hashCode();
+        this.sortedById = byId;
+    }
+
+    /**
+     * Compiles the plan for the shape of the given request.
+     *
+     * @param shape   shape of the request
+     * @param request any request of that shape
+     * @param entity  metadata of the entity to resolve keys against, null to trust the keys as is
+     * @param indexes catalog of text indexes for text operators, null to use no index specific SQL
+     * @return compiled plan
+     * @throws FilterException if a key is missing or unknown to the entity
+     */
+    public static SearchPlan compile(SearchShape shape, SearchRequest request, EntityDescriptor entity, TextIndexCatalog indexes) {
+        List<FilterStep> filters = compileFilters(request.getFilters(), entity, indexes);
+        List<FilterGroupStep> groups = new ArrayList<>();
+        for (FilterGroupRequest group : request.getGroups()) {
+            groups.add(compileGroup(group, entity, indexes));
+        }
+
+        List<SortStep> sorts = new ArrayList<>();
+        for (SortRequest sort : request.getSorts()) {
+            if (Objects.isNull(sort.getKey()) || Objects.isNull(sort.getDirection())) {
+                throw new FilterException("Sort key and direction are required: " + sort);
+            }
+            AttributePath attribute = entity == null ? null : entity.resolve(sort.getKey());
+            sorts.add(new SortStep(sort.getKey(), attribute, sort.getDirection()));
+        }
+
+        List<FieldStep> selection = new ArrayList<>();
+        if (request.isProjection()) {
+            Set<String> keys = new LinkedHashSet<>(request.getFields());
+            keys.add(ID);
+            if (request.isKeyset()) {
+                request.getSorts().forEach(sort -> keys.add(sort.getKey()));
+            }
+            for (String key : keys) {
+                if (Objects.isNull(key)) {
+                    throw new FilterException("Field key is required: " + request.getFields());
+                }
+                AttributePath attribute = entity == null ? null : entity.resolve(key);
+                if (attribute != null && (!attribute.isBasic() || attribute.getAttributes().stream().anyMatch(Attribute::isCollection))) {
+                    throw new FilterException("Field " + key + " is not a column of the entity or its to-one associations");
+                }
+                selection.add(new FieldStep(key, attribute));
+            }
+        }
+        return new SearchPlan(shape, filters, groups, sorts, selection);
+    }
+
+    private static List<FilterStep> compileFilters(List<FilterRequest> requests, EntityDescriptor entity, TextIndexCatalog indexes) {
+        List<FilterStep> filters = new ArrayList<>();
+        for (FilterRequest filter : SearchShape.normalize(requests)) {
+            if (Objects.isNull(filter.getKey()) || Objects.isNull(filter.getOperator())) {
+                throw new FilterException("Filter key and operator are required: " + filter);
+            }
+            AttributePath attribute = entity == null ? null : entity.resolve(filter.getKey());
+            filters.add(new FilterStep(filter.getKey(), attribute, filter.getOperator(), filter.getFieldType(),
+                    filter.getOperator().isTextSearch() ? indexes : null));
+        }
+        return filters;
+    }
+
+    private static FilterGroupStep compileGroup(FilterGroupRequest request, EntityDescriptor entity, TextIndexCatalog indexes) {
+        if (request.getFilters().isEmpty() && request.getGroups().isEmpty()) {
+            throw new FilterException("Filter group has no filters: " + request);
+        }
+        List<FilterGroupStep> groups = new ArrayList<>();
+        for (FilterGroupRequest group : request.getGroups()) {
+            groups.add(compileGroup(group, entity, indexes));
+        }
+        return new FilterGroupStep(request.getOperator(), compileFilters(request.getFilters(), entity, indexes), groups);
+    }
+
+    public static SearchPlan compile(SearchRequest request) {
+        return compile(SearchShape.of(request), request, null, null);
+    }
+
+    public JoinType joinType(String joinKey) {
+        return joinTypes.getOrDefault(joinKey, JoinType.LEFT);
+    }
+
+    /**
+     * Splits a dotted key into path nodes without regex.
+     */
+    public static String[] splitPath(String key) {
+        List<String> nodes = new ArrayList<>(4);
+        int from = 0;
+        int dot;
+        while ((dot = key.indexOf('.', from)) >= 0) {
+            nodes.add(key.substring(from, dot));
+            from = dot + 1;
+        }
+        nodes.add(key.substring(from));
+        return nodes.toArray(new String[0]);
+    }
+
+    /**
+     * @return dotted keys of every association on the path: {"a", "a.b"} for path {"a", "b", "c"}
+     */
+    static String[] joinKeys(String[] path) {
+        String[] joinKeys = new String[path.length - 1];
+        for (int i = 0; i < joinKeys.length; i++) {
+            joinKeys[i] = i == 0 ? path[0] : joinKeys[i - 1] + '.' + path[i];
+        }
+        return joinKeys;
+    }
+
+    /**
+     * One compiled filter: path nodes of the key, their join keys, resolved attributes, operator, field type
+     * and the codec its values are decoded with.
+     */
+    @Getter
+    public static final class FilterStep {
+        private final String key;
+        private final String[] path;
+        private final String[] joinKeys;
+
+        /**
+         * Null if the plan was compiled without the entity metamodel.
+         */
+        private final AttributePath attribute;
+        private final Operator operator;
+        private final FieldType fieldType;
+
+        /**
+         * Catalog of the indexes the text operator may be rewritten for, null if the operator is not a text search.
+         * Indexes are looked up on every query, not compiled into the plan, so they follow the catalog as it refreshes.
+         */
+        @Getter(AccessLevel.NONE)
+        private final TextIndexCatalog indexes;
+
+        /**
+         * Codec of the java type of the attribute, of the field type if the attribute has none, else of strings.
+         */
+        private final ValueCodec<?> codec;
+
+        public FilterStep(String key, AttributePath attribute, Operator operator, FieldType fieldType, TextIndexCatalog indexes) {
+            this.key = key;
+            this.path = attribute == null ? splitPath(key) : attribute.getPath();
+            this.joinKeys = joinKeys(path);
+            this.attribute = attribute;
+            this.operator = operator;
+            this.fieldType = fieldType;
+            this.indexes = indexes;
+            ValueCodec<?> codec = attribute == null ? null : ValueCodecs.of(attribute.getJavaType());
+            if (codec == null && fieldType != null) {
+                codec = ValueCodecs.of(fieldType.getJavaType());
+            }
+            this.codec = codec == null ? ValueCodecs.of(String.class) : codec;
+            if (operator == Operator.BETWEEN && !this.codec.isComparable()) {
+                throw new FilterException("Can not use between for " + key + " of type " + this.codec.getType().getSimpleName());
+            }
+        }
+
+        /**
+         * @return Indexes of the column the text operator may be rewritten for, as the catalog knows them now
+         */
+        public TextIndex getTextIndex() {
+            return indexes == null ? TextIndex.NONE : indexes.lookup(attribute);
+        }
+
+        /**
+         * Decodes the values of the filter into the type of the codec, once per request.
+         *
+         * @param request The filter with the values as deserialized from the request.
+         * @return A copy of the filter with typed values, the filter itself if its operator uses values as text.
+         * @throws FilterException if a value is missing or is not a valid value of the type
+         */
+        public FilterRequest decode(FilterRequest request) {
+            if (!operator.coerces()) {
+                return request;
+            }
+            FilterRequest decoded = FilterRequest.builder()
+                    .key(request.getKey())
+                    .operator(request.getOperator())
+                    .fieldType(request.getFieldType())
+                    .build();
+            if (operator == Operator.IN) {
+                if (Objects.isNull(request.getValues()) || request.getValues().isEmpty()) {
+                    throw new FilterException("Values of filter " + key + " are required");
+                }
+                List<Object> values = new ArrayList<>(request.getValues().size());
+                for (Object value : request.getValues()) {
+                    values.add(decode(value));
+                }
+                decoded.setValues(values);
+            } else {
+                decoded.setValue(decode(request.getValue()));
+                if (operator == Operator.BETWEEN) {
+                    decoded.setValueTo(decode(request.getValueTo()));
+                }
+            }
+            return decoded;
+        }
+
+        private Object decode(Object raw) {
+            Object value = codec.decode(raw);
+            if (value == null) {
+                throw new FilterException("Value '" + raw + "' of filter " + key + " is not a valid " + codec.getType().getSimpleName());
+            }
+            return value;
+        }
+    }
+
+    /**
+     * One compiled filter group: its operator, filters in {@link SearchShape#FILTER_ORDER} and nested groups in request order.
+     */
+    @Getter
+    public static final class FilterGroupStep {
+        private final LogicalOperator operator;
+        private final List<FilterStep> filters;
+        private final List<FilterGroupStep> groups;
+
+        public FilterGroupStep(LogicalOperator operator, List<FilterStep> filters, List<FilterGroupStep> groups) {
+            this.operator = operator;
+            this.filters = Collections.unmodifiableList(filters);
+            this.groups = Collections.unmodifiableList(groups);
+        }
+
+        /**
+         * @return join keys of the filters of the group and of its nested groups
+         */
+        Set<String> joinKeys() {
+            Set<String> joinKeys = new LinkedHashSet<>();
+            filters.forEach(filter -> joinKeys.addAll(Arrays.asList(filter.getJoinKeys())));
+            groups.forEach(group -> joinKeys.addAll(group.joinKeys()));
+            return joinKeys;
+        }
+    }
+
+    /**
+     * One selected column of a projection: path nodes of the key, their join keys and resolved attributes.
+     */
+    @Getter
+    public static final class FieldStep {
+        private final String key;
+        private final String[] path;
+        private final String[] joinKeys;
+
+        /**
+         * Null if the plan was compiled without the entity metamodel.
+         */
+        private final AttributePath attribute;
+
+        public FieldStep(String key, AttributePath attribute) {
+            this.key = key;
+            this.path = attribute == null ? splitPath(key) : attribute.getPath();
+            this.joinKeys = joinKeys(path);
+            this.attribute = attribute;
+        }
+    }
+
+    /**
+     * One compiled sort: path nodes of the key, their join keys, resolved attributes and direction.
+     */
+    @Getter
+    public static final class SortStep {
+        private final String key;
+        private final String[] path;
+        private final String[] joinKeys;
+
+        /**
+         * Null if the plan was compiled without the entity metamodel.
+         */
+        private final AttributePath attribute;
+        private final SortDirection direction;
+
+        public SortStep(String key, AttributePath attribute, SortDirection direction) {
+            this.key = key;
+            this.path = attribute == null ? splitPath(key) : attribute.getPath();
+            this.joinKeys = joinKeys(path);
+            this.attribute = attribute;
+            this.direction = direction;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.og.templateback.configuration.core.specification.plan;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.og.templateback.configuration.core.metamodel.EntityMetamodel;
+import com.og.templateback.configuration.core.specification.index.TextIndexCatalog;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of compiled {@link SearchPlan}s keyed by {@link SearchShape}.
+ * Hit, miss and eviction counts are exported as {@code cache.*} meters with tag {@code cache=search.plan}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class SearchPlanCache {
+    public static final String CACHE_NAME = "search.plan";
+
+    private final Cache<SearchShape, SearchPlan> plans;
+
+    private final EntityMetamodel entityMetamodel;
+
+    private final TextIndexCatalog textIndexCatalog;
+
+    public SearchPlanCache(@Value("${search.plan-cache.max-size:1000}") long maxSize,
+                           MeterRegistry meterRegistry,
+                           EntityMetamodel entityMetamodel,
+                           TextIndexCatalog textIndexCatalog) {
+        this.entityMetamodel = entityMetamodel;
+        this.textIndexCatalog = textIndexCatalog;
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, CACHE_NAME);
+    }
+
+    /**
+     * Returns the compiled plan for the shape of the request, compiling it on first use.
+     * Keys of the request are resolved against the entity metamodel, so an unknown key fails before any SQL is built,
+     * text operators look up the indexes of their columns on every query, see {@link TextIndexCatalog}.
+     *
+     * @param domainClass entity the request is executed against
+     * @param request     search request
+     * @return compiled plan shared by every request of the same shape
+     */
+    public SearchPlan resolve(Class<?> domainClass, SearchRequest request) {
+        SearchShape shape = SearchShape.of(domainClass, request);
+        return plans.get(shape, key -> {
+            log.debug("Compiling search plan for shape {}", key);
+            return SearchPlan.compile(key, request, entityMetamodel.describe(domainClass), textIndexCatalog);
+        });
+    }
+
+    /**
+     * Drops compiled plans and known text indexes, e.g. after indexes were created or dropped.
+     */
+    public void invalidateAll() {
+        plans.invalidateAll();
+        textIndexCatalog.invalidateAll();
+    }
+}
@@ -0,0 +1,131 @@
+package com.og.templateback.configuration.core.specification.plan;
+
+import com.og.templateback.configuration.core.specification.enums.InListMode;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.request.FilterGroupRequest;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Normalized "shape" of a {@link SearchRequest}: filter keys, operators, field types, value arity, filter groups,
+ * sorts and pagination mode.
+ * Two requests with the same shape differ only in bound values, so they share one {@link SearchPlan}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Getter
+@EqualsAndHashCode
+public final class SearchShape {
+
+    /**
+     * Filters of one group are combined by one operator, so their order does not change the result - normalize it to make shapes comparable.
+     */
+    public static final Comparator<FilterRequest> FILTER_ORDER = Comparator
+            .comparing(FilterRequest::getKey, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(f -> f.getOperator() == null ? "" : f.getOperator().name());
+
+    private final String signature;
+
+    private SearchShape(String signature) {
+        this.signature = signature;
+    }
+
+    public static SearchShape of(SearchRequest request) {
+        return of(null, request);
+    }
+
+    /**
+     * @param domainClass entity the request is executed against, null if unknown
+     * @param request     search request
+     * @return shape of the request, plans of different entities never share a shape
+     */
+    public static SearchShape of(Class<?> domainClass, SearchRequest request) {
+        //enough for a few filters and sorts without growing
+        StringBuilder signature = new StringBuilder(256);
+        if (domainClass != null) {
+            signature.append("e:").append(domainClass.getName()).append(';');
+        }
+        appendFilters(signature, request.getFilters());
+        for (FilterGroupRequest group : request.getGroups()) {
+            appendGroup(signature, group);
+        }
+        for (SortRequest sort : request.getSorts()) {
+            signature.append("s:").append(sort.getKey())
+                    .append(':').append(sort.getDirection())
+                    .append(';');
+        }
+        for (String field : request.getFields()) {
+            signature.append("v:").append(field).append(';');
+        }
+        if (request.isKeyset()) {
+            signature.append("p:KEYSET:").append(request.hasCursor()).append(';');
+        }
+        return new SearchShape(signature.toString());
+    }
+
+    private static void appendFilters(StringBuilder signature, List<FilterRequest> filters) {
+        for (FilterRequest filter : normalize(filters)) {
+            signature.append("f:").append(filter.getKey())
+                    .append(':').append(filter.getOperator())
+                    .append(':').append(filter.getFieldType())
+                    .append(':').append(arity(filter))
+                    .append(';');
+        }
+    }
+
+    /**
+     * Groups keep their order, only filters within a group are normalized.
+     */
+    private static void appendGroup(StringBuilder signature, FilterGroupRequest group) {
+        signature.append("g:").append(group.getOperator()).append('(');
+        appendFilters(signature, group.getFilters());
+        for (FilterGroupRequest nested : group.getGroups()) {
+            appendGroup(signature, nested);
+        }
+        signature.append(");");
+    }
+
+    /**
+     * Clients usually send filters of one form in the same order, so the list is copied and sorted only if it is out of order.
+     *
+     * @param filters filters as they came in the request
+     * @return filters in the order used by the shape and by the compiled plan, the same list if it is in that order already
+     */
+    public static List<FilterRequest> normalize(List<FilterRequest> filters) {
+        for (int i = 1; i < filters.size(); i++) {
+            if (FILTER_ORDER.compare(filters.get(i - 1), filters.get(i)) > 0) {
+                List<FilterRequest> normalized = new ArrayList<>(filters);
+                normalized.sort(FILTER_ORDER);
+                return normalized;
+            }
+        }
+        return filters;
+    }
+
+    /**
+     * Multi-value operators render one bind parameter per value, so the number of values is part of the shape.
+     * IN pads its list or binds it as an array, so only the padded size or the binding mode is.
+     */
+    static Object arity(FilterRequest filter) {
+        int size = Objects.isNull(filter.getValues()) ? 0 : filter.getValues().size();
+        if (filter.getOperator() != Operator.IN) {
+            return size;
+        }
+        InListMode mode = InListMode.of(size);
+        return mode == InListMode.LIST ? InListMode.paddedSize(size) : mode;
+    }
+
+    @Override
+    public String toString() {
+        return signature;
+    }
+}
@@ -0,0 +1,43 @@
+package com.og.templateback.configuration.core.specification.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.og.templateback.configuration.core.specification.enums.AggregateFunction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * One aggregate of an {@link AggregateRequest}: the function and the key it is computed over.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class AggregateFieldRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2284619035387140266L;
+
+    private AggregateFunction function;
+
+    /**
+     * Column to aggregate, may be null for {@link AggregateFunction#COUNT} of rows.
+     */
+    private String key;
+
+    /**
+     * Name of the column in the result, e.g. {@code sum_total} for the sum of {@code total} if null.
+     */
+    private String alias;
+}
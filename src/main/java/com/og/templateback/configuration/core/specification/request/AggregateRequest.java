@@ -0,0 +1,77 @@
+package com.og.templateback.configuration.core.specification.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A data contract for aggregates of the rows matching the filters, per group of the group-by keys,
+ * or of all of them without keys. Sorts refer to the columns of the result, the group-by keys ascending if none.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class AggregateRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 6120339285410765815L;
+
+    private List<FilterRequest> filters;
+
+    /**
+     * Filter groups AND-ed with the filters, for OR and NOT logic.
+     */
+    private List<FilterGroupRequest> groups;
+
+    private List<GroupByRequest> groupBy;
+
+    private List<AggregateFieldRequest> aggregates;
+
+    private List<SortRequest> sorts;
+
+    /**
+     * Number of groups, {@code search.aggregate.default-limit} if null.
+     */
+    private Integer limit;
+
+    public List<FilterRequest> getFilters() {
+        if (Objects.isNull(this.filters)) this.filters = new ArrayList<>();
+        return this.filters;
+    }
+
+    public List<FilterGroupRequest> getGroups() {
+        if (Objects.isNull(this.groups)) this.groups = new ArrayList<>();
+        return this.groups;
+    }
+
+    public List<GroupByRequest> getGroupBy() {
+        if (Objects.isNull(this.groupBy)) this.groupBy = new ArrayList<>();
+        return this.groupBy;
+    }
+
+    public List<AggregateFieldRequest> getAggregates() {
+        if (Objects.isNull(this.aggregates)) this.aggregates = new ArrayList<>();
+        return this.aggregates;
+    }
+
+    public List<SortRequest> getSorts() {
+        if (Objects.isNull(this.sorts)) this.sorts = new ArrayList<>();
+        return this.sorts;
+    }
+}
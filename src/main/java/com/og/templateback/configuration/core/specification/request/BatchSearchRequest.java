@@ -0,0 +1,43 @@
+package com.og.templateback.configuration.core.specification.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One search of a batch: the entity to search and the request, as sent to its {@code /filter} endpoint.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class BatchSearchRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -3018597145820372245L;
+
+    /**
+     * Simple class name of the entity, case-insensitive, e.g. "Customer".
+     */
+    private String entity;
+
+    private SearchRequest request;
+
+    public SearchRequest getRequest() {
+        if (Objects.isNull(this.request)) this.request = new SearchRequest();
+        return this.request;
+    }
+}
@@ -0,0 +1,70 @@
+package com.og.templateback.configuration.core.specification.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A data contract for one page of distinct values of a key among the rows matching the filters, in ascending order.
+ * Pages by offset, or by the {@code nextCursor} of the previous page.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class DistinctRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -4113540938816470112L;
+
+    private String key;
+
+    private List<FilterRequest> filters;
+
+    /**
+     * Filter groups AND-ed with the filters, for OR and NOT logic.
+     */
+    private List<FilterGroupRequest> groups;
+
+    /**
+     * Case-insensitive prefix of the values, for text keys only.
+     */
+    private String prefix;
+
+    /**
+     * Number of values, {@code search.distinct.default-limit} if null.
+     */
+    private Integer limit;
+
+    private Integer offset;
+
+    /**
+     * Continuation token, taken from {@code nextCursor} of the previous page.
+     */
+    private String cursor;
+
+    public List<FilterRequest> getFilters() {
+        if (Objects.isNull(this.filters)) this.filters = new ArrayList<>();
+        return this.filters;
+    }
+
+    public List<FilterGroupRequest> getGroups() {
+        if (Objects.isNull(this.groups)) this.groups = new ArrayList<>();
+        return this.groups;
+    }
+}
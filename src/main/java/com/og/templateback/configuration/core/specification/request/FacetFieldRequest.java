@@ -0,0 +1,43 @@
+package com.og.templateback.configuration.core.specification.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * One facet of a {@link FacetRequest}: the key to count values of and how many of the most frequent values to return.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class FacetFieldRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 5038874102961437365L;
+
+    private String key;
+
+    /**
+     * Number of the most frequent values to return, {@code search.facet.default-limit} if null.
+     */
+    private Integer limit;
+
+    /**
+     * Ignore filters on the key of the facet itself, so the other values of a multi-select filter keep their counts.
+     * Only the top level filters are ignored, filter groups always apply.
+     */
+    private boolean excludeOwnFilters;
+}
@@ -0,0 +1,57 @@
+package com.og.templateback.configuration.core.specification.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A data contract for facet counts: the fields to count values of and the filters of the current search.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class FacetRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2747911340577196529L;
+
+    private List<FilterRequest> filters;
+
+    /**
+     * Filter groups AND-ed with the filters, for OR and NOT logic.
+     */
+    private List<FilterGroupRequest> groups;
+
+    private List<FacetFieldRequest> facets;
+
+    public List<FilterRequest> getFilters() {
+        if (Objects.isNull(this.filters)) this.filters = new ArrayList<>();
+        return this.filters;
+    }
+
+    public List<FilterGroupRequest> getGroups() {
+        if (Objects.isNull(this.groups)) this.groups = new ArrayList<>();
+        return this.groups;
+    }
+
+    public List<FacetFieldRequest> getFacets() {
+        if (Objects.isNull(this.facets)) this.facets = new ArrayList<>();
+        return this.facets;
+    }
+}
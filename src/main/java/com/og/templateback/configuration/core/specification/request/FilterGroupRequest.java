@@ -0,0 +1,59 @@
+package com.og.templateback.configuration.core.specification.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.og.templateback.configuration.core.specification.enums.LogicalOperator;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A data contract for a group of filters and nested groups combined by one logical operator,
+ * e.g. {@code {"operator": "OR", "filters": [...], "groups": [{"operator": "NOT", "filters": [...]}]}}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class FilterGroupRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -1745205386931146528L;
+
+    /**
+     * AND if null.
+     */
+    private LogicalOperator operator;
+
+    private List<FilterRequest> filters;
+
+    private List<FilterGroupRequest> groups;
+
+    public LogicalOperator getOperator() {
+        if (Objects.isNull(this.operator)) this.operator = LogicalOperator.AND;
+        return this.operator;
+    }
+
+    public List<FilterRequest> getFilters() {
+        if (Objects.isNull(this.filters)) this.filters = new ArrayList<>();
+        return this.filters;
+    }
+
+    public List<FilterGroupRequest> getGroups() {
+        if (Objects.isNull(this.groups)) this.groups = new ArrayList<>();
+        return this.groups;
+    }
+}
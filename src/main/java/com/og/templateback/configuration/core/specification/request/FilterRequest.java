@@ -8,6 +8,7 @@ import com.og.templateback.configuration.core.specification.enums.Operator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.io.Serial;
@@ -37,10 +38,16 @@ public class FilterRequest implements Serializable {
 
     private FieldType fieldType;
 
+    /**
+     * Values are transient, lombok leaves them out of equals unless included: requests differing in values only are not equal.
+     */
+    @EqualsAndHashCode.Include
     private transient Object value;
 
+    @EqualsAndHashCode.Include
     private transient Object valueTo;
 
+    @EqualsAndHashCode.Include
     private transient List<Object> values;
 
 }
\ No newline at end of file
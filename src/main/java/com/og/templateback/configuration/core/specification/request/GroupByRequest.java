@@ -0,0 +1,43 @@
+package com.og.templateback.configuration.core.specification.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.og.templateback.configuration.core.specification.enums.DateTruncation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * One group-by key of an {@link AggregateRequest}: a column of the entity or of its to-one associations, e.g. {@code region.title}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class GroupByRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -3390145587406279021L;
+
+    private String key;
+
+    /**
+     * Unit a date or timestamp key is truncated to, the value itself if null.
+     */
+    private DateTruncation truncate;
+
+    /**
+     * Name of the column in the result, the key if null.
+     */
+    private String alias;
+}
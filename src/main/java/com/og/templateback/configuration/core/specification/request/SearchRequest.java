@@ -1,8 +1,11 @@
 package com.og.templateback.configuration.core.specification.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.PaginationMode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -38,20 +41,82 @@ public class SearchRequest implements Serializable {
 
     private List<FilterRequest> filters;
 
+    /**
+     * Filter groups AND-ed with the filters, for OR and NOT logic.
+     */
+    private List<FilterGroupRequest> groups;
+
     private List<SortRequest> sorts;
 
     private Integer page;
 
     private Integer size;
 
+    private PaginationMode pagination;
+
+    /**
+     * Continuation token of keyset pagination, taken from {@code nextCursor} of the previous page.
+     */
+    private String cursor;
+
+    /**
+     * How to calculate the total of offset pagination, exact count if null.
+     */
+    private CountStrategy count;
+
+    /**
+     * Keys to select, nested paths included, e.g. "name", "region.title". Empty to select whole entities.
+     * Rows are returned as nested maps with id and keyset sort keys always present.
+     */
+    private List<String> fields;
+
     public List<FilterRequest> getFilters() {
         if (Objects.isNull(this.filters)) this.filters = new ArrayList<>();
         return this.filters;
     }
 
+    public List<FilterGroupRequest> getGroups() {
+        if (Objects.isNull(this.groups)) this.groups = new ArrayList<>();
+        return this.groups;
+    }
+
     public List<SortRequest> getSorts() {
         if (Objects.isNull(this.sorts)) this.sorts = new ArrayList<>();
         return this.sorts;
     }
 
+    public List<String> getFields() {
+        if (Objects.isNull(this.fields)) this.fields = new ArrayList<>();
+        return this.fields;
+    }
+
+    /**
+     * @return true if the request has filters or filter groups
+     */
+    @JsonIgnore
+    public boolean isFiltered() {
+        return !getFilters().isEmpty() || !getGroups().isEmpty();
+    }
+
+    /**
+     * @return true if the request selects fields instead of whole entities
+     */
+    @JsonIgnore
+    public boolean isProjection() {
+        return !getFields().isEmpty();
+    }
+
+    /**
+     * @return true if the request pages by keyset (seek) instead of offset
+     */
+    @JsonIgnore
+    public boolean isKeyset() {
+        return this.pagination == PaginationMode.KEYSET || hasCursor();
+    }
+
+    @JsonIgnore
+    public boolean hasCursor() {
+        return Objects.nonNull(this.cursor) && !this.cursor.isBlank();
+    }
+
 }
\ No newline at end of file
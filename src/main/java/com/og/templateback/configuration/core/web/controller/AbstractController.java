@@ -1,18 +1,28 @@
 package com.og.templateback.configuration.core.web.controller;
 
 import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.ExportFormat;
+import com.og.templateback.configuration.core.specification.request.AggregateRequest;
+import com.og.templateback.configuration.core.specification.request.DistinctRequest;
+import com.og.templateback.configuration.core.specification.request.FacetRequest;
 import com.og.templateback.configuration.core.specification.request.SearchRequest;
 import com.og.templateback.configuration.core.web.controller.advice.exception.DeleteException;
 import com.og.templateback.configuration.core.web.controller.advice.exception.FindException;
 import com.og.templateback.configuration.core.web.controller.advice.exception.SaveException;
 import com.og.templateback.configuration.core.web.controller.advice.exception.UpdateException;
+import com.og.templateback.configuration.core.web.dto.AggregateResponse;
 import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.BulkWriteResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -29,21 +39,47 @@ public interface AbstractController<E extends AbstractEntity> {
     @GetMapping("all")
     ResponseEntity<List<E>> getAll() throws FindException;
 
-    @Operation(summary = "Получить постранично", security = @SecurityRequirement(name = "JWT"))
+    @Operation(summary = "Получить постранично (cursor - keyset пагинация, пустой cursor - первая страница; count - способ подсчета total; fields - выбрать только указанные поля)", security = @SecurityRequirement(name = "JWT"))
     @ResponseStatus(HttpStatus.OK)
     @GetMapping
-    ResponseEntity<ApiPaginationResponse> getPage(@RequestParam(required = false) Integer page, @RequestParam(required = false) Integer size) throws FindException;
+    ResponseEntity<ApiPaginationResponse> getPage(@RequestParam(required = false) Integer page, @RequestParam(required = false) Integer size,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) CountStrategy count,
+                                                  @RequestParam(required = false) List<String> fields) throws FindException;
 
-    @Operation(summary = "Получить все уникальные значение по названию поля", security = @SecurityRequirement(name = "JWT"))
+    @Operation(summary = "Получить все уникальные значение по названию поля (prefix - начало значения без учета регистра)", security = @SecurityRequirement(name = "JWT"))
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("distinct")
-    ResponseEntity<List<?>> findAllUniqueByFieldName(@RequestParam String fieldName) throws FindException;
+    ResponseEntity<List<?>> findAllUniqueByFieldName(@RequestParam String fieldName, @RequestParam(required = false) String prefix,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) Integer offset) throws FindException;
+
+    @Operation(summary = "Уникальные значения поля постранично с учетом фильтров (cursor - продолжение с nextCursor)", security = @SecurityRequirement(name = "JWT"))
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("distinct")
+    ResponseEntity<ApiPaginationResponse> distinct(@RequestBody DistinctRequest request) throws FindException;
 
     @Operation(summary = "Поиск по фильтрам", security = @SecurityRequirement(name = "JWT"))
     @ResponseStatus(HttpStatus.OK)
     @PostMapping("filter")
     ResponseEntity<ApiPaginationResponse> searchFilter(@RequestBody SearchRequest request) throws FindException;
 
+    @Operation(summary = "Количество записей по значениям полей с учетом фильтров (фасеты)", security = @SecurityRequirement(name = "JWT"))
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("facets")
+    ResponseEntity<List<FacetResponse>> facets(@RequestBody FacetRequest request) throws FindException;
+
+    @Operation(summary = "Агрегаты (count, sum, avg, min, max) по группам значений полей с учетом фильтров", security = @SecurityRequirement(name = "JWT"))
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("aggregate")
+    ResponseEntity<AggregateResponse> aggregate(@RequestBody AggregateRequest request) throws FindException;
+
+    @Operation(summary = "Выгрузка всех записей по фильтрам потоком без пагинации (format - NDJSON или CSV, fields - колонки)", security = @SecurityRequirement(name = "JWT"))
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("export")
+    void export(@RequestBody SearchRequest request, @RequestParam(required = false) ExportFormat format,
+                HttpServletResponse response) throws FindException, IOException;
+
     @Operation(summary = "Получить по id", security = @SecurityRequirement(name = "JWT"))
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("{id}")
@@ -54,11 +90,21 @@ public interface AbstractController<E extends AbstractEntity> {
     @PatchMapping
     ResponseEntity<E> update(@RequestBody E update) throws FindException, UpdateException;
 
+    @Operation(summary = "Обновить сущности пачкой по id (null поля не меняются; в ответе id обновленных и ошибки по номеру элемента)", security = @SecurityRequirement(name = "JWT"))
+    @ResponseStatus(HttpStatus.OK)
+    @PatchMapping("bulk")
+    ResponseEntity<BulkWriteResponse> updateAll(@RequestBody List<E> update) throws UpdateException;
+
     @Operation(summary = "Создать сущность", security = @SecurityRequirement(name = "JWT"))
     @ResponseStatus(HttpStatus.OK)
     @PostMapping
     ResponseEntity<E> create(@RequestBody E create) throws SaveException;
 
+    @Operation(summary = "Создать сущности пачкой (в ответе id созданных и ошибки по номеру элемента, сохраненные части не откатываются)", security = @SecurityRequirement(name = "JWT"))
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("bulk")
+    ResponseEntity<BulkWriteResponse> createAll(@RequestBody List<E> create) throws SaveException;
+
     @Operation(summary = "Удалить сущность по id (HARD)", security = @SecurityRequirement(name = "JWT"))
     @ResponseStatus(HttpStatus.OK)
     @DeleteMapping("{id}")
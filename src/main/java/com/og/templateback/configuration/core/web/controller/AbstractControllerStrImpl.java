@@ -2,15 +2,28 @@ package com.og.templateback.configuration.core.web.controller;
 
 import com.og.templateback.configuration.core.entity.AbstractEntityStr;
 import com.og.templateback.configuration.core.service.AbstractServiceStr;
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.ExportFormat;
+import com.og.templateback.configuration.core.specification.request.AggregateRequest;
+import com.og.templateback.configuration.core.specification.request.DistinctRequest;
+import com.og.templateback.configuration.core.specification.request.FacetRequest;
 import com.og.templateback.configuration.core.specification.request.SearchRequest;
 import com.og.templateback.configuration.core.web.controller.advice.exception.*;
+import com.og.templateback.configuration.core.web.dto.AggregateResponse;
 import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.BulkWriteResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -31,13 +44,22 @@ public abstract class AbstractControllerStrImpl<E extends AbstractEntityStr, S e
     /**
      * Retrieves a page of entities.
      *
-     * @param page The page number.
-     * @param size The page size.
+     * @param page   The page number.
+     * @param size   The page size.
+     * @param cursor The continuation token of keyset pagination, if present the page number is ignored.
+     * @param count  How to calculate the total, exact count if null.
+     * @param fields Keys to select instead of whole entities, rows are returned as maps.
      * @return The ResponseEntity containing the page of entities.
      */
     @Override
-    public ResponseEntity<ApiPaginationResponse> getPage(@RequestParam(required = false) Integer page, @RequestParam(required = false) Integer size) {
-        return ResponseEntity.ok(service.findAll(page, size));
+    public ResponseEntity<ApiPaginationResponse> getPage(@RequestParam(required = false) Integer page, @RequestParam(required = false) Integer size,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) CountStrategy count,
+                                                         @RequestParam(required = false) List<String> fields) throws FilterException {
+        if (cursor != null) {
+            return ResponseEntity.ok(service.findAllAfter(cursor, size, fields));
+        }
+        return ResponseEntity.ok(service.findAll(page, size, count, fields));
     }
 
     /**
@@ -62,6 +84,48 @@ public abstract class AbstractControllerStrImpl<E extends AbstractEntityStr, S e
         return ResponseEntity.ok(service.searchFilter(request));
     }
 
+    /**
+     * Counts values of the requested fields among the entities matching the filters.
+     *
+     * @param request The FacetRequest object containing the filters and the fields.
+     * @return The ResponseEntity containing the counts of every field.
+     */
+    @Override
+    public ResponseEntity<List<FacetResponse>> facets(@RequestBody FacetRequest request) throws FilterException {
+        return ResponseEntity.ok(service.facets(request));
+    }
+
+    /**
+     * Aggregates the entities matching the filters per group of the requested keys.
+     *
+     * @param request The AggregateRequest object containing the filters, group-by keys and aggregate functions.
+     * @return The ResponseEntity containing the column names and one row per group.
+     */
+    @Override
+    public ResponseEntity<AggregateResponse> aggregate(@RequestBody AggregateRequest request) throws FilterException {
+        return ResponseEntity.ok(service.aggregate(request));
+    }
+
+    /**
+     * Streams every entity matching the filters to the response as an attachment.
+     *
+     * @param request  The SearchRequest object containing the filters, sorts and optional fields, the page is ignored.
+     * @param format   The format of the rows, NDJSON if null.
+     * @param response The response to write to.
+     */
+    @Override
+    public void export(@RequestBody SearchRequest request, @RequestParam(required = false) ExportFormat format,
+                       HttpServletResponse response) throws FilterException, IOException {
+        ExportFormat exportFormat = format == null ? ExportFormat.NDJSON : format;
+        response.setContentType(exportFormat.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("export." + exportFormat.getExtension())
+                .build()
+                .toString());
+        service.export(request, exportFormat, response.getOutputStream());
+    }
+
     /**
      * Updates an existing entity.
      *
@@ -73,6 +137,17 @@ public abstract class AbstractControllerStrImpl<E extends AbstractEntityStr, S e
         return ResponseEntity.ok(service.update(update));
     }
 
+    /**
+     * Updates existing entities in chunks.
+     *
+     * @param update The patches, every one with the id of the entity to update.
+     * @return The ResponseEntity containing the ids of the updated entities and the errors of the others.
+     */
+    @Override
+    public ResponseEntity<BulkWriteResponse> updateAll(@RequestBody List<E> update) throws UpdateException {
+        return ResponseEntity.ok(service.updateAll(update));
+    }
+
     /**
      * Creates a new entity.
      *
@@ -84,6 +159,17 @@ public abstract class AbstractControllerStrImpl<E extends AbstractEntityStr, S e
         return ResponseEntity.ok(service.save(create));
     }
 
+    /**
+     * Creates new entities in chunks.
+     *
+     * @param create The entities to be created.
+     * @return The ResponseEntity containing the ids of the created entities and the errors of the others.
+     */
+    @Override
+    public ResponseEntity<BulkWriteResponse> createAll(@RequestBody List<E> create) throws SaveException {
+        return ResponseEntity.ok(service.saveAll(create));
+    }
+
     /**
      * Deletes an entity by ID.
      *
@@ -99,8 +185,39 @@ public abstract class AbstractControllerStrImpl<E extends AbstractEntityStr, S e
         return ResponseEntity.ok(service.findAll());
     }
 
+    /**
+     * Retrieves distinct values of a field, all of them up to {@code search.distinct.max-limit} if no limit is given.
+     *
+     * @param fieldName The field.
+     * @param prefix    Case-insensitive prefix of the values, for text fields only.
+     * @param limit     Number of values.
+     * @param offset    Number of values to skip.
+     * @return The ResponseEntity containing the values in ascending order.
+     */
+    @Override
+    public ResponseEntity<List<?>> findAllUniqueByFieldName(@RequestParam String fieldName, @RequestParam(required = false) String prefix,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) Integer offset) throws FindException {
+        if (prefix == null && limit == null && offset == null) {
+            return ResponseEntity.ok(service.getAllUniqueValuesFromField(fieldName));
+        }
+        DistinctRequest request = DistinctRequest.builder()
+                .key(fieldName)
+                .prefix(prefix)
+                .limit(limit == null ? Integer.MAX_VALUE : limit)
+                .offset(offset)
+                .build();
+        return ResponseEntity.ok((List<?>) service.distinct(request).getContent());
+    }
+
+    /**
+     * Retrieves one page of distinct values of a field among the entities matching the filters.
+     *
+     * @param request The DistinctRequest object containing the field, filters, prefix and page.
+     * @return The ResponseEntity containing the values and the cursor of the next page.
+     */
     @Override
-    public ResponseEntity<List<?>> findAllUniqueByFieldName(@RequestParam String fieldName) throws FindException {
-        return ResponseEntity.ok(service.getAllUniqueValuesFromField(fieldName));
+    public ResponseEntity<ApiPaginationResponse> distinct(@RequestBody DistinctRequest request) throws FindException {
+        return ResponseEntity.ok(service.distinct(request));
     }
 }
\ No newline at end of file
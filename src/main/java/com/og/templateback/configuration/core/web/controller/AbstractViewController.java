@@ -1,16 +1,27 @@
 package com.og.templateback.configuration.core.web.controller;
 
+import com.og.templateback.configuration.core.specification.enums.ExportFormat;
+import com.og.templateback.configuration.core.specification.request.AggregateRequest;
+import com.og.templateback.configuration.core.specification.request.FacetRequest;
 import com.og.templateback.configuration.core.specification.request.SearchRequest;
 import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.UpdateException;
+import com.og.templateback.configuration.core.web.dto.AggregateResponse;
 import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.io.IOException;
+import java.util.List;
+
 /**
  * @author ogbozoyan
  * @date 18.06.2023
@@ -23,5 +34,26 @@ public interface AbstractViewController {
     @PostMapping("filter")
     ResponseEntity<ApiPaginationResponse> searchFilter(@RequestBody SearchRequest request) throws FilterException;
 
+    @Operation(summary = "Количество записей по значениям полей с учетом фильтров (фасеты)", security = @SecurityRequirement(name = "JWT"))
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("facets")
+    ResponseEntity<List<FacetResponse>> facets(@RequestBody FacetRequest request) throws FilterException;
+
+    @Operation(summary = "Агрегаты (count, sum, avg, min, max) по группам значений полей с учетом фильтров", security = @SecurityRequirement(name = "JWT"))
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("aggregate")
+    ResponseEntity<AggregateResponse> aggregate(@RequestBody AggregateRequest request) throws FilterException;
+
+    @Operation(summary = "Выгрузка всех записей по фильтрам потоком без пагинации (format - NDJSON или CSV, fields - колонки)", security = @SecurityRequirement(name = "JWT"))
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("export")
+    void export(@RequestBody SearchRequest request, @RequestParam(required = false) ExportFormat format,
+                HttpServletResponse response) throws FilterException, IOException;
+
+    @Operation(summary = "Обновить материализованное представление (чтение не блокируется)", security = @SecurityRequirement(name = "JWT"))
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("refresh")
+    void refresh() throws UpdateException;
+
 
 }
@@ -2,12 +2,26 @@ package com.og.templateback.configuration.core.web.controller;
 
 import com.og.templateback.configuration.core.entity.AbstractViewEntity;
 import com.og.templateback.configuration.core.service.AbstractViewService;
+import com.og.templateback.configuration.core.specification.enums.ExportFormat;
+import com.og.templateback.configuration.core.specification.request.AggregateRequest;
+import com.og.templateback.configuration.core.specification.request.FacetRequest;
 import com.og.templateback.configuration.core.specification.request.SearchRequest;
 import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.UpdateException;
+import com.og.templateback.configuration.core.web.dto.AggregateResponse;
 import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.FacetResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * @author ogbozoyan
@@ -31,4 +45,54 @@ public class AbstractViewControllerImpl<E extends AbstractViewEntity, S extends
         return ResponseEntity.ok(service.searchFilter(request));
     }
 
+    /**
+     * Counts values of the requested fields among the entities matching the filters.
+     *
+     * @param request The FacetRequest object containing the filters and the fields.
+     * @return The ResponseEntity containing the counts of every field.
+     */
+    @Override
+    public ResponseEntity<List<FacetResponse>> facets(@RequestBody FacetRequest request) throws FilterException {
+        return ResponseEntity.ok(service.facets(request));
+    }
+
+    /**
+     * Aggregates the rows matching the filters per group of the requested keys.
+     *
+     * @param request The AggregateRequest object containing the filters, group-by keys and aggregate functions.
+     * @return The ResponseEntity containing the column names and one row per group.
+     */
+    @Override
+    public ResponseEntity<AggregateResponse> aggregate(@RequestBody AggregateRequest request) throws FilterException {
+        return ResponseEntity.ok(service.aggregate(request));
+    }
+
+    /**
+     * Streams every entity matching the filters to the response as an attachment.
+     *
+     * @param request  The SearchRequest object containing the filters, sorts and optional fields, the page is ignored.
+     * @param format   The format of the rows, NDJSON if null.
+     * @param response The response to write to.
+     */
+    @Override
+    public void export(@RequestBody SearchRequest request, @RequestParam(required = false) ExportFormat format,
+                       HttpServletResponse response) throws FilterException, IOException {
+        ExportFormat exportFormat = format == null ? ExportFormat.NDJSON : format;
+        response.setContentType(exportFormat.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("export." + exportFormat.getExtension())
+                .build()
+                .toString());
+        service.export(request, exportFormat, response.getOutputStream());
+    }
+
+    /**
+     * Refreshes the materialized view backing the entity.
+     */
+    @Override
+    public void refresh() throws UpdateException {
+        service.refresh();
+    }
+
 }
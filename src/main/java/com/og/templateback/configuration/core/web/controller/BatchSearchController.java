@@ -0,0 +1,44 @@
+package com.og.templateback.configuration.core.web.controller;
+
+import com.og.templateback.configuration.core.service.BatchSearchService;
+import com.og.templateback.configuration.core.specification.request.BatchSearchRequest;
+import com.og.templateback.configuration.core.web.dto.BatchSearchResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Searches of several entities in one request, e.g. for a dashboard that would otherwise call {@code /filter} of every entity.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@RestController
+@RequestMapping("batch")
+@RequiredArgsConstructor
+public class BatchSearchController {
+
+    private final BatchSearchService batchSearchService;
+
+    /**
+     * Runs the searches in parallel, each as its entity's {@code /filter} endpoint would.
+     *
+     * @param requests The entities and their SearchRequest objects.
+     * @return The ResponseEntity containing one page or error per request, in the same order.
+     */
+    @Operation(summary = "Несколько поисков по фильтрам разных сущностей за один запрос (ошибка одного поиска не влияет на остальные)", security = @SecurityRequirement(name = "JWT"))
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("filter")
+    public ResponseEntity<List<BatchSearchResponse>> searchFilter(@RequestBody List<BatchSearchRequest> requests) {
+        return ResponseEntity.ok(batchSearchService.search(requests));
+    }
+}
@@ -4,6 +4,8 @@ import com.og.templateback.configuration.core.web.controller.advice.exception.Ab
 import com.og.templateback.configuration.core.web.controller.advice.exception.AbstractNotFoundException;
 import com.og.templateback.configuration.core.web.controller.advice.exception.CustomErrorMessage;
 import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException.Reason;
 import feign.FeignException;
 import feign.RetryableException;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +25,7 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Date;
+import java.util.Map;
 
 /**
  * To dynamic handling 500 need to extend  AbstractInternalException, for 404 AbstractNotFoundException
@@ -60,6 +63,40 @@ public class ControllerAdvice {
         return new ResponseEntity<>(errorMessage, headers, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Query guard rejection handler, the details tell the reason, the limit and the actual value
+     */
+    @ExceptionHandler(QueryRejectedException.class)
+    public ResponseEntity<CustomErrorMessage> handleQueryRejected(QueryRejectedException ex, WebRequest req) {
+        CustomErrorMessage errorMessage = CustomErrorMessage.builder()
+                .statusCode(ex.getReason().getStatus().value())
+                .timestamp(new Date())
+                .message(ex.getMessage())
+                .description(req.getDescription(false))
+                .exceptionName(ex.getClass().getName())
+                .details(ex.getDetails())
+                .build();
+        log.info("ControllerAdvice: {} {}", req.getRemoteUser(), errorMessage);
+        return new ResponseEntity<>(errorMessage, headers, ex.getReason().getStatus());
+    }
+
+    /**
+     * 503 Exception handler of statements cancelled by the statement timeout
+     */
+    @ExceptionHandler({jakarta.persistence.QueryTimeoutException.class, org.springframework.dao.QueryTimeoutException.class})
+    public ResponseEntity<CustomErrorMessage> handleQueryTimeout(Exception ex, WebRequest req) {
+        CustomErrorMessage errorMessage = CustomErrorMessage.builder()
+                .statusCode(Reason.TIMEOUT.getStatus().value())
+                .timestamp(new Date())
+                .message(Reason.TIMEOUT.getMessage() + ": " + ex.getMessage())
+                .description(req.getDescription(false))
+                .exceptionName(ex.getClass().getName())
+                .details(Map.of("reason", Reason.TIMEOUT))
+                .build();
+        log.info("ControllerAdvice: {} {}", req.getRemoteUser(), errorMessage);
+        return new ResponseEntity<>(errorMessage, headers, Reason.TIMEOUT.getStatus());
+    }
+
     /**
      * 500 Exception handler
      */
@@ -1,10 +1,12 @@
 package com.og.templateback.configuration.core.web.controller.advice.exception;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 import java.util.Date;
+import java.util.Map;
 
 /**
  * @author ogbozoyan
@@ -19,4 +21,10 @@ public class CustomErrorMessage {
     private String message;
     private String description;
     private String exceptionName;
+
+    /**
+     * Machine-readable details of the error, e.g. the reason, limit and actual value of a rejected query. Omitted if none.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Object> details;
 }
@@ -0,0 +1,93 @@
+package com.og.templateback.configuration.core.web.controller.advice.exception;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thrown when the query guard refuses a search before it runs, because of its page size, number of rows, estimated cost or the size of its batch,
+ * or a bulk write is larger than allowed.
+ * {@link com.og.templateback.configuration.core.web.controller.advice.ControllerAdvice} returns the reason, the limit and the actual value,
+ * so a client can adjust the request instead of retrying it.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Getter
+public class QueryRejectedException extends RuntimeException implements Serializable {
+    private final Reason reason;
+    private final String entity;
+    private final Number limit;
+
+    /**
+     * Null if only known to exceed the limit.
+     */
+    private final Number actual;
+
+    public QueryRejectedException(Reason reason, Class<?> entityClass, Number limit, Number actual) {
+        this(reason, entityClass.getSimpleName(), limit, actual);
+    }
+
+    /**
+     * @param entity simple class name of the entity, null if the request is not about one entity
+     */
+    public QueryRejectedException(Reason reason, String entity, Number limit, Number actual) {
+        super(reason.describe(entity, limit, actual));
+        this.reason = reason;
+        this.entity = entity;
+        this.limit = limit;
+        this.actual = actual;
+    }
+
+    /**
+     * @return the reason, entity, limit and actual value for {@link CustomErrorMessage#getDetails()}
+     */
+    public Map<String, Object> getDetails() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("reason", reason);
+        details.put("entity", entity);
+        details.put("limit", limit);
+        details.put("actual", actual);
+        return details;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Reason {
+        /**
+         * More rows per page than the maximum page size of the entity.
+         */
+        PAGE_SIZE(HttpStatus.BAD_REQUEST, "Page size %3$s of %1$s exceeds the maximum %2$s"),
+        /**
+         * More rows than may be read without pagination.
+         */
+        UNPAGED_ROWS(HttpStatus.BAD_REQUEST, "%1$s has more than %2$s rows, read it by pages or export it"),
+        /**
+         * Planner estimate of the search over the cost budget of the entity.
+         */
+        COST(HttpStatus.BAD_REQUEST, "Estimated cost %3$s of the %1$s search exceeds the budget %2$s, add selective filters"),
+        /**
+         * More searches in one batch than the maximum batch size.
+         */
+        BATCH_SIZE(HttpStatus.BAD_REQUEST, "Batch of %3$s searches exceeds the maximum %2$s"),
+        /**
+         * More entities in one bulk write than the maximum bulk size.
+         */
+        BULK_SIZE(HttpStatus.BAD_REQUEST, "Bulk of %3$s %1$s entities exceeds the maximum %2$s"),
+        /**
+         * Statement cancelled after the statement timeout, reported for {@link jakarta.persistence.QueryTimeoutException}.
+         */
+        TIMEOUT(HttpStatus.SERVICE_UNAVAILABLE, "Search exceeded its statement timeout");
+
+        private final HttpStatus status;
+        private final String message;
+
+        private String describe(String entity, Number limit, Number actual) {
+            return String.format(message, entity, limit, actual);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.og.templateback.configuration.core.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Aggregated groups as compact rows: the names of the columns once, then one array of values per group in the same order,
+ * group-by keys first.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregateResponse implements Serializable {
+    private List<String> columns;
+    private List<List<Object>> rows;
+
+    /**
+     * True if there are more groups than returned.
+     */
+    private Boolean hasMore;
+}
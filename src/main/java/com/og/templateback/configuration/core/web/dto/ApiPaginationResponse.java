@@ -1,5 +1,7 @@
 package com.og.templateback.configuration.core.web.dto;
 
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,6 +11,7 @@ import java.io.Serializable;
 /**
  * A data transfer object representing the response of an abstract operation.
  * It contains the content, total number of elements, and total number of pages.
+ * {@code totalKind} tells how the total was calculated, keyset pages carry {@code nextCursor} instead of totals.
  *
  * @author ogbozoyan
  * @since 13.02.2023
@@ -16,11 +19,27 @@ import java.io.Serializable;
 @Data
 @Builder
 @NoArgsConstructor
+@AllArgsConstructor
 public class ApiPaginationResponse implements Serializable {
     private Object content;
     private Long totalElements;
     private Integer totalPages;
 
+    /**
+     * Continuation token of keyset pagination, null on the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * True if there are rows after this page.
+     */
+    private Boolean hasNext;
+
+    /**
+     * Kind of {@code totalElements}: exact, capped (a lower bound), estimated or none (no total at all).
+     */
+    private CountStrategy totalKind;
+
     /**
      * Constructs an ApiPaginationResponse object with the specified content, total number of elements,
      * and total number of pages.
@@ -33,5 +52,6 @@ public class ApiPaginationResponse implements Serializable {
         this.content = content;
         this.totalElements = totalElements;
         this.totalPages = totalPages;
+        this.totalKind = CountStrategy.EXACT;
     }
 }
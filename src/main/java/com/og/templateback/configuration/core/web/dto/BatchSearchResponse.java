@@ -0,0 +1,26 @@
+package com.og.templateback.configuration.core.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.og.templateback.configuration.core.web.controller.advice.exception.CustomErrorMessage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one search of a batch, in the position of its request: either the page or the error it failed with,
+ * so one failed search doesn't fail the others.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchSearchResponse {
+    private String entity;
+    private ApiPaginationResponse result;
+    private CustomErrorMessage error;
+}
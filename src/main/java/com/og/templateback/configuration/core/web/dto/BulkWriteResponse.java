@@ -0,0 +1,29 @@
+package com.og.templateback.configuration.core.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.og.templateback.configuration.core.web.controller.advice.exception.CustomErrorMessage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a bulk write: the ids of the written entities in the positions of their items, null for failed items,
+ * and one error per failed item with its position in {@code description}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkWriteResponse {
+    private int succeeded;
+    private int failed;
+    private List<Object> ids;
+    private List<CustomErrorMessage> errors;
+}
@@ -0,0 +1,37 @@
+package com.og.templateback.configuration.core.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Counts of the most frequent values of one key among the rows matching the filters, ordered by count descending.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetResponse implements Serializable {
+    private String key;
+    private List<FacetValue> values;
+
+    /**
+     * True if the key has more values than returned.
+     */
+    private Boolean hasMore;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetValue implements Serializable {
+        private Object value;
+        private Long count;
+    }
+}
@@ -0,0 +1,170 @@
+package com.og.templateback.configuration.core.web.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.og.templateback.configuration.core.specification.enums.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Writes exported rows to an output stream one by one, as soon as they are read,
+ * with the same JSON serialization as the rest of the API.
+ * Nothing but the current row and the stream buffers is kept in memory, a slow client blocks the writes and so the reads.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchExporter {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Opens a writer of rows in the format. Closing the writer flushes it, the stream is left open.
+     *
+     * @param format format of the rows
+     * @param fields keys of the CSV columns, the scalar properties of the first row if empty
+     * @param out    stream to write to
+     * @return writer accepting entities or projected rows
+     * @throws IOException if the stream can't be written
+     */
+    public RowWriter open(ExportFormat format, List<String> fields, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(out);
+            case CSV -> new CsvWriter(fields, out);
+        };
+    }
+
+    /**
+     * Accepts rows to write, {@link UncheckedIOException} is thrown if the stream fails, e.g. the client went away.
+     */
+    public interface RowWriter extends Consumer<Object>, Closeable {
+    }
+
+    private final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        /**
+         * Flushing after every row would send a network packet per row, the stream buffers flush by themselves when full.
+         */
+        private final ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        private NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory()
+                    .createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        public void accept(Object row) {
+            try {
+                rowWriter.writeValue(generator, row);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private final class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        /**
+         * Null until the first row if no fields were requested.
+         */
+        private List<String> columns;
+
+        private boolean headerWritten;
+
+        private CsvWriter(List<String> fields, OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.columns = fields == null || fields.isEmpty() ? null : fields;
+        }
+
+        @Override
+        public void accept(Object row) {
+            JsonNode node = objectMapper.valueToTree(row);
+            try {
+                if (columns == null) {
+                    columns = scalarProperties(node);
+                }
+                writeHeaderOnce();
+                List<String> values = new ArrayList<>(columns.size());
+                for (String column : columns) {
+                    JsonNode value = node.at("/" + column.replace('.', '/'));
+                    values.add(value.isValueNode() && !value.isNull() ? value.asText() : "");
+                }
+                writeLine(values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeHeaderOnce() throws IOException {
+            if (!headerWritten) {
+                headerWritten = true;
+                writeLine(columns);
+            }
+        }
+
+        private void writeLine(List<String> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values.get(i)));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (columns != null) {
+                writeHeaderOnce();
+            }
+            writer.flush();
+        }
+    }
+
+    private static List<String> scalarProperties(JsonNode node) {
+        List<String> properties = new ArrayList<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> property = it.next();
+            if (property.getValue().isValueNode()) {
+                properties.add(property.getKey());
+            }
+        }
+        return properties;
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,147 @@
+package com.og.templateback.configuration.core.cache;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.repository.AbstractRepository;
+import com.og.templateback.configuration.core.service.AbstractServiceImpl;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs searches through a service with the result cache enabled for its entity, and changes the rows behind the cache:
+ * by native SQL, which the cache doesn't notice, and by hibernate, which evicts the results of the entity on commit.
+ * Pages of entities are never cached, cached rows are read-only.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "search.result-cache.entities.ResultCacheItem.enabled=true",
+        "search.result-cache.entities.ResultCacheItem.ttl=5m"
+})
+class SearchResultCacheTest {
+
+    @Autowired
+    private ResultCacheItemService service;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        inTransaction("TRUNCATE result_cache_item");
+        inTransaction("INSERT INTO result_cache_item (id, title) VALUES (1, 'first'), (2, 'second')");
+        searchResultCache.invalidateAll();
+    }
+
+    @Test
+    void repeatedSearchIsServedFromTheCache() {
+        assertEquals(List.of("first", "second"), titles(service.searchFilter(request(10))));
+
+        //a native update bypasses hibernate events, the cached result is served until it expires
+        inTransaction("UPDATE result_cache_item SET title = 'changed'");
+
+        assertEquals(List.of("first", "second"), titles(service.searchFilter(request(10))));
+        assertEquals(List.of("changed", "changed"), titles(service.searchFilter(request(5))));
+    }
+
+    @Test
+    void hibernateWriteEvictsTheResultsOfTheEntity() {
+        assertEquals(List.of("first", "second"), titles(service.searchFilter(request(10))));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.find(ResultCacheItem.class, 1L).setTitle("updated"));
+
+        assertEquals(List.of("updated", "second"), titles(service.searchFilter(request(10))));
+    }
+
+    @Test
+    void pagesOfEntitiesAreNotCached() {
+        SearchRequest request = SearchRequest.builder()
+                .sorts(List.of(new SortRequest("id", SortDirection.ASC)))
+                .build();
+        assertEquals("first", ((ResultCacheItem) ((List<?>) service.searchFilter(request).getContent()).get(0)).getTitle());
+
+        inTransaction("UPDATE result_cache_item SET title = 'changed'");
+
+        assertEquals("changed", ((ResultCacheItem) ((List<?>) service.searchFilter(request).getContent()).get(0)).getTitle());
+    }
+
+    @Test
+    void cachedRowsCanNotBeChangedByCallers() {
+        service.searchFilter(request(10));
+        ApiPaginationResponse hit = service.searchFilter(request(10));
+        assertThrows(UnsupportedOperationException.class, () -> ((List<?>) hit.getContent()).clear());
+        assertThrows(UnsupportedOperationException.class, () -> ((Map<?, ?>) ((List<?>) hit.getContent()).get(0)).clear());
+        hit.setTotalElements(-1L);
+
+        assertEquals(2L, service.searchFilter(request(10)).getTotalElements());
+    }
+
+    private void inTransaction(String sql) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager.createNativeQuery(sql).executeUpdate());
+    }
+
+    private static SearchRequest request(int size) {
+        return SearchRequest.builder()
+                .size(size)
+                .fields(List.of("title"))
+                .sorts(List.of(new SortRequest("id", SortDirection.ASC)))
+                .build();
+    }
+
+    private static List<?> titles(ApiPaginationResponse response) {
+        return ((List<?>) response.getContent()).stream().map(row -> ((Map<?, ?>) row).get("title")).toList();
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "ResultCacheItem")
+    @Table(name = "result_cache_item")
+    static class ResultCacheItem extends AbstractEntity {
+        private String title;
+    }
+
+    static class ResultCacheItemService extends AbstractServiceImpl<ResultCacheItem, AbstractRepository<ResultCacheItem>> {
+        ResultCacheItemService() {
+            //searches don't use the repository
+            super(null);
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ResultCacheItemService resultCacheItemService() {
+            return new ResultCacheItemService();
+        }
+    }
+}
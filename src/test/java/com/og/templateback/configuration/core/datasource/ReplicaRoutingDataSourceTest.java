@@ -0,0 +1,122 @@
+package com.og.templateback.configuration.core.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Routes transactions with one replica, which is the primary database connected under another application name,
+ * so the server a transaction runs on is told by {@code application_name}: read-only transactions go to the replica,
+ * read-write ones and read-only ones after a write of the same request go to the primary.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = {
+        "search.replica.enabled=true",
+        "search.replica.lag-check-interval=100ms",
+        "search.replica.instances[0].url=${spring.datasource.url}?ApplicationName=" + ReplicaRoutingDataSourceTest.REPLICA
+})
+class ReplicaRoutingDataSourceTest {
+    static final String REPLICA = "replica-routing-test";
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void awaitHealthyReplica() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (replicaRoutingDataSource.maxLag("replica-0") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    @AfterEach
+    void endRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionRunsOnTheReplica() {
+        assertEquals("replica-0 " + REPLICA, inTransaction(true, this::server));
+    }
+
+    @Test
+    void readWriteTransactionRunsOnThePrimary() {
+        String server = inTransaction(false, this::server);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, server.split(" ")[0]);
+        assertNotEquals(REPLICA, server.split(" ", 2)[1]);
+    }
+
+    @Test
+    void requestReadsItsOwnWritesOnThePrimary() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertEquals("replica-0 " + REPLICA, inTransaction(true, this::server));
+        inTransaction(false, this::server);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, inTransaction(true, this::server).split(" ")[0]);
+    }
+
+    @Test
+    void suspendedTransactionKeepsItsRoute() {
+        //outside of a request, else the write of the outer transaction sends the inner one to the primary
+        RequestContextHolder.resetRequestAttributes();
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        inner.setReadOnly(true);
+
+        String routes = inTransaction(false, () -> {
+            String outer = server().split(" ")[0];
+            String nested = inner.execute(status -> server().split(" ")[0]);
+            return outer + "," + nested + "," + server().split(" ")[0];
+        });
+
+        assertEquals("primary,replica-0,primary", routes);
+    }
+
+    @Test
+    void pinnedRouteIsTakenByTransactionsOfTheThread() {
+        RequestContextHolder.resetRequestAttributes();
+
+        String server = ReplicaRoutingDataSource.onRoute(ReplicaRoutingDataSource.PRIMARY, () -> inTransaction(true, this::server));
+
+        assertNotEquals(REPLICA, server.split(" ", 2)[1]);
+    }
+
+    /**
+     * @return the route of the current transaction and the application name of its connection
+     */
+    private String server() {
+        Object applicationName = entityManager.createNativeQuery("SELECT current_setting('application_name')").getSingleResult();
+        return ReplicaRoutingDataSource.currentRoute() + " " + applicationName;
+    }
+
+    private <R> R inTransaction(boolean readOnly, Supplier<R> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> work.get());
+    }
+}
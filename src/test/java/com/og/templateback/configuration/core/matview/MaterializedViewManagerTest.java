@@ -0,0 +1,164 @@
+package com.og.templateback.configuration.core.matview;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.entity.AbstractViewEntity;
+import com.og.templateback.configuration.core.specification.SearchQueryExecutor;
+import com.og.templateback.configuration.core.specification.SearchSpecification;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Backs a view entity with a materialized view refreshed on writes of its source entity, against postgres:
+ * the view and its unique index are created instead of a table, on demand refreshes show rows written by SQL,
+ * and a committed write of the source entity refreshes the view by itself.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class MaterializedViewManagerTest {
+
+    @Autowired
+    private MaterializedViewManager materializedViewManager;
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private SearchPlanCache searchPlanCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("TRUNCATE matview_order").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO matview_order (id, customer, total) " +
+                    "VALUES (-1, 'ann', 10), (-2, 'ann', 5), (-3, 'bob', 7)").executeUpdate();
+        });
+        materializedViewManager.refresh(MatviewTotals.class);
+    }
+
+    @Test
+    void viewIsCreatedWithTheUniqueIndexOfItsId() {
+        assertEquals(List.of("matview_totals"), nativeQuery("SELECT matviewname FROM pg_matviews WHERE matviewname = 'matview_totals'"));
+        assertEquals(List.of(), nativeQuery("SELECT tablename FROM pg_tables WHERE tablename = 'matview_totals'"));
+        assertEquals(List.of("matview_totals_id_idx"), nativeQuery("SELECT indexname FROM pg_indexes " +
+                "WHERE tablename = 'matview_totals' AND indexdef LIKE 'CREATE UNIQUE INDEX%(id)'"));
+    }
+
+    @Test
+    void refreshShowsRowsWrittenBehindHibernate() {
+        assertEquals(List.of("ann 2 15.0", "bob 1 7.0"), totals());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.createNativeQuery("INSERT INTO matview_order (id, customer, total) VALUES (-4, 'bob', 3)").executeUpdate());
+        assertEquals(List.of("ann 2 15.0", "bob 1 7.0"), totals());
+
+        materializedViewManager.refresh(MatviewTotals.class);
+
+        assertEquals(List.of("ann 2 15.0", "bob 2 10.0"), totals());
+    }
+
+    @Test
+    void committedWriteOfASourceRefreshesTheView() throws InterruptedException {
+        long refreshes = refreshes();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager.persist(new MatviewOrder("cid", 1.0)));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (totals().size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(List.of("ann 2 15.0", "bob 1 7.0", "cid 1 1.0"), totals());
+        assertTrue(refreshes() > refreshes);
+    }
+
+    @Test
+    void onlyMaterializedViewsAreRefreshed() {
+        assertThrows(IllegalArgumentException.class, () -> materializedViewManager.refresh(MatviewOrder.class));
+    }
+
+    private List<String> totals() {
+        SearchRequest request = SearchRequest.builder().sorts(List.of(new SortRequest("customer", SortDirection.ASC))).build();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> searchQueryExecutor.findAll(MatviewTotals.class,
+                        new SearchSpecification<>(request, searchPlanCache.resolve(MatviewTotals.class, request)), 0, 10)
+                .stream()
+                .map(row -> (MatviewTotals) row)
+                .map(totals -> totals.getCustomer() + " " + totals.getOrders() + " " + totals.getTotal())
+                .toList());
+    }
+
+    private long refreshes() {
+        Timer timer = meterRegistry.find("search.matview.refresh").tags("view", "MatviewTotals", "outcome", "success").timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private List<?> nativeQuery(String sql) {
+        return entityManager.createNativeQuery(sql).getResultList();
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @Entity(name = "MatviewOrder")
+    @Table(name = "matview_order")
+    static class MatviewOrder extends AbstractEntity {
+        private String customer;
+
+        private Double total;
+
+        MatviewOrder(String customer, Double total) {
+            this.customer = customer;
+            this.total = total;
+        }
+    }
+
+    @Getter
+    @Entity(name = "MatviewTotals")
+    @Table(name = "matview_totals")
+    @MaterializedView(
+            query = "SELECT min(id) AS id, customer, count(*) AS orders, sum(total) AS total FROM matview_order GROUP BY customer",
+            refresh = RefreshPolicy.ON_WRITE,
+            interval = "100ms",
+            sources = MatviewOrder.class)
+    static class MatviewTotals extends AbstractViewEntity {
+        private String customer;
+
+        private Long orders;
+
+        private Double total;
+    }
+}
@@ -0,0 +1,179 @@
+package com.og.templateback.configuration.core.service;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.repository.AbstractRepository;
+import com.og.templateback.configuration.core.specification.enums.FieldType;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.request.BatchSearchRequest;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import com.og.templateback.configuration.core.web.controller.advice.exception.FindException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException.Reason;
+import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import com.og.templateback.configuration.core.web.dto.BatchSearchResponse;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs batches of searches through a service against postgres: results come back in the order of the items, searches run
+ * on the batch threads, identical items run once, and a failed or unknown item gets its error without failing the others.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "search.batch.threads=2",
+        "search.batch.max-items=5"
+})
+class BatchSearchServiceTest {
+
+    @Autowired
+    private BatchSearchService batchSearchService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("TRUNCATE batch_item").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO batch_item (id, title) VALUES (1, 'a'), (2, 'b'), (3, 'c')").executeUpdate();
+        });
+        BatchItemService.THREADS.clear();
+        BatchItemService.SEARCHES.clear();
+    }
+
+    @Test
+    void resultsComeInTheOrderOfTheItems() {
+        List<BatchSearchResponse> responses = batchSearchService.search(List.of(
+                item("BatchItem", titled("c")),
+                item("batchitem", titled("a")),
+                item("BatchItem", SearchRequest.builder().sorts(List.of(new SortRequest("id", SortDirection.DESC))).build())));
+
+        assertEquals(List.of("c"), titles(responses.get(0)));
+        assertEquals(List.of("a"), titles(responses.get(1)));
+        assertEquals(List.of("c", "b", "a"), titles(responses.get(2)));
+        assertTrue(BatchItemService.THREADS.stream().allMatch(thread -> thread.startsWith("search-batch-")), BatchItemService.THREADS::toString);
+    }
+
+    @Test
+    void identicalItemsRunOnce() {
+        List<BatchSearchResponse> responses = batchSearchService.search(List.of(
+                item("BatchItem", titled("a")), item("BatchItem", titled("b")), item("BatchItem", titled("a"))));
+
+        assertEquals(2, BatchItemService.SEARCHES.size());
+        assertEquals(List.of("a"), titles(responses.get(0)));
+        assertEquals(List.of("b"), titles(responses.get(1)));
+        assertEquals(List.of("a"), titles(responses.get(2)));
+    }
+
+    @Test
+    void failedItemsDoNotFailTheOthers() {
+        SearchRequest unknownKey = SearchRequest.builder()
+                .filters(List.of(FilterRequest.builder().key("missing").operator(Operator.EQUAL).fieldType(FieldType.STRING).value("a").build()))
+                .build();
+
+        List<BatchSearchResponse> responses = batchSearchService.search(List.of(
+                item("Unknown", titled("a")), item("BatchItem", unknownKey), item("BatchItem", titled("b"))));
+
+        assertNull(responses.get(0).getResult());
+        assertEquals(404, responses.get(0).getError().getStatusCode());
+        assertEquals("item=0", responses.get(0).getError().getDescription());
+        assertNull(responses.get(1).getResult());
+        assertEquals("item=1", responses.get(1).getError().getDescription());
+        assertEquals(List.of("b"), titles(responses.get(2)));
+    }
+
+    @Test
+    void batchLargerThanTheMaximumIsRejected() {
+        List<BatchSearchRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            requests.add(item("BatchItem", titled("a")));
+        }
+
+        QueryRejectedException rejected = assertThrows(QueryRejectedException.class, () -> batchSearchService.search(requests));
+
+        assertEquals(Reason.BATCH_SIZE, rejected.getReason());
+        assertTrue(BatchItemService.SEARCHES.isEmpty());
+    }
+
+    private static BatchSearchRequest item(String entity, SearchRequest request) {
+        return BatchSearchRequest.builder().entity(entity).request(request).build();
+    }
+
+    private static SearchRequest titled(String title) {
+        return SearchRequest.builder()
+                .filters(List.of(FilterRequest.builder().key("title").operator(Operator.EQUAL).fieldType(FieldType.STRING).value(title).build()))
+                .build();
+    }
+
+    private static List<?> titles(BatchSearchResponse response) {
+        assertNull(response.getError());
+        return ((List<?>) response.getResult().getContent()).stream().map(row -> ((BatchItem) row).getTitle()).toList();
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "BatchItem")
+    @Table(name = "batch_item")
+    static class BatchItem extends AbstractEntity {
+        private String title;
+    }
+
+    static class BatchItemService extends AbstractServiceImpl<BatchItem, AbstractRepository<BatchItem>> {
+        //static, the bean is a transactional proxy without the fields of the service
+        static final Set<String> THREADS = ConcurrentHashMap.newKeySet();
+
+        static final Map<SearchRequest, Boolean> SEARCHES = new ConcurrentHashMap<>();
+
+        BatchItemService() {
+            //searches don't use the repository
+            super(null);
+        }
+
+        @Override
+        public ApiPaginationResponse searchFilter(SearchRequest request) throws FindException {
+            THREADS.add(Thread.currentThread().getName());
+            SEARCHES.put(request, Boolean.TRUE);
+            return super.searchFilter(request);
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        BatchItemService batchItemService() {
+            return new BatchItemService();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.og.templateback.configuration.core.service;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.entity.PooledSequence;
+import com.og.templateback.configuration.core.web.controller.advice.exception.CustomErrorMessage;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException.Reason;
+import com.og.templateback.configuration.core.web.dto.BulkWriteResponse;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Writes entities with ids of a pooled sequence and a unique column through {@link BulkWriter} in chunks of three:
+ * a chunk with a failing item is retried item by item, so only that item fails and the rest of its chunk is written.
+ * Patches of a chunk are applied to entities loaded with one query, patches of missing entities fail with 404.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "bulk.chunk-size=3",
+        "bulk.max-items=10"
+})
+class BulkWriterTest {
+
+    @Autowired
+    private BulkWriter bulkWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void truncate() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.createNativeQuery("TRUNCATE bulk_item").executeUpdate());
+    }
+
+    @Test
+    void createInsertsEveryChunkWithIdsOfTheSequence() {
+        BulkWriteResponse response = bulkWriter.create(BulkItem.class, items("a", "b", "c", "d", "e", "f", "g"));
+
+        assertEquals(7, response.getSucceeded());
+        assertEquals(0, response.getFailed());
+        assertEquals(7, response.getIds().stream().filter(Objects::nonNull).distinct().count());
+        assertEquals(response.getIds(), ids("a", "b", "c", "d", "e", "f", "g"));
+    }
+
+    @Test
+    void failedItemDoesNotFailTheRestOfItsChunk() {
+        bulkWriter.create(BulkItem.class, items("taken"));
+
+        BulkWriteResponse response = bulkWriter.create(BulkItem.class, items("a", "taken", "b", "c"));
+
+        assertEquals(3, response.getSucceeded());
+        assertNull(response.getIds().get(1));
+        CustomErrorMessage error = response.getErrors().get(0);
+        assertEquals(409, error.getStatusCode());
+        assertEquals("item=1", error.getDescription());
+        //the item was persisted with an id in the rolled back chunk, it is written again without it
+        assertEquals(Arrays.asList(response.getIds().get(0), null, response.getIds().get(2), response.getIds().get(3)),
+                ids("a", null, "b", "c"));
+    }
+
+    @Test
+    void invalidItemsAreReportedWithoutWriting() {
+        BulkItem withId = new BulkItem("with id");
+        withId.setId(1L);
+
+        BulkWriteResponse response = bulkWriter.create(BulkItem.class, Arrays.asList(null, withId, new BulkItem("a")));
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(List.of(400, 400), response.getErrors().stream().map(CustomErrorMessage::getStatusCode).toList());
+        assertEquals(List.of("item=0", "item=1"), response.getErrors().stream().map(CustomErrorMessage::getDescription).toList());
+    }
+
+    @Test
+    void updatePatchesLoadedEntitiesAndReportsMissingOnes() {
+        List<Object> ids = bulkWriter.create(BulkItem.class, items("a", "b", "c", "d")).getIds();
+        long missing = (Long) Collections.max(ids, (left, right) -> Long.compare((Long) left, (Long) right)) + 100;
+
+        BulkWriteResponse response = bulkWriter.update(BulkItem.class,
+                List.of(patch(ids.get(0), "a2"), patch(missing, "x"), patch(ids.get(2), "b"), patch(ids.get(3), "d2")),
+                BulkItem::getId, this::load, (patch, entity) -> entity.setTitle(patch.getTitle()));
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(List.of(404, 409), response.getErrors().stream().map(CustomErrorMessage::getStatusCode).toList());
+        assertEquals(List.of("item=1", "item=2"), response.getErrors().stream().map(CustomErrorMessage::getDescription).toList());
+        assertEquals(List.of("a2", "b", "c", "d2"), titles());
+    }
+
+    @Test
+    void bulkLargerThanTheMaximumIsRejected() {
+        List<BulkItem> items = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            items.add(new BulkItem("item " + i));
+        }
+
+        QueryRejectedException rejected = assertThrows(QueryRejectedException.class, () -> bulkWriter.create(BulkItem.class, items));
+
+        assertEquals(Reason.BULK_SIZE, rejected.getReason());
+        assertEquals(List.of(), titles());
+    }
+
+    private static List<BulkItem> items(String... titles) {
+        return Arrays.stream(titles).map(BulkItem::new).toList();
+    }
+
+    private static BulkItem patch(Object id, String title) {
+        BulkItem patch = new BulkItem(title);
+        patch.setId((Long) id);
+        return patch;
+    }
+
+    private List<BulkItem> load(List<Long> ids) {
+        return entityManager.createQuery("SELECT i FROM BulkItem i WHERE i.id IN :ids", BulkItem.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * @return ids of the rows with the titles, null for a null title
+     */
+    private List<Object> ids(String... titles) {
+        List<Object> ids = new ArrayList<>();
+        for (String title : titles) {
+            ids.add(title == null ? null : entityManager.createQuery("SELECT i.id FROM BulkItem i WHERE i.title = :title", Long.class)
+                    .setParameter("title", title)
+                    .getSingleResult());
+        }
+        return ids;
+    }
+
+    private List<String> titles() {
+        return entityManager.createQuery("SELECT i.title FROM BulkItem i ORDER BY i.title", String.class).getResultList();
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @PooledSequence(allocationSize = 2)
+    @Entity(name = "BulkItem")
+    @Table(name = "bulk_item")
+    static class BulkItem extends AbstractEntity {
+        @Column(unique = true, nullable = false)
+        private String title;
+
+        BulkItem(String title) {
+            this.title = title;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.og.templateback.configuration.core.specification;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.FieldType;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fetches pages of {@value #ROWS} rows with every {@link CountStrategy} and a cap of {@value #CAP}, in the transactions
+ * of {@link SearchQueryExecutor#inPageTransaction}, so exact and capped totals are counted on another connection.
+ * The last page has an exact total without counting.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "search.count.cap=" + CountStrategyTest.CAP,
+        "search.count.parallel.enabled=true"
+})
+class CountStrategyTest {
+    static final int CAP = 10;
+    private static final int ROWS = 25;
+    private static final int PAGE_SIZE = 5;
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private SearchPlanCache searchPlanCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("TRUNCATE count_strategy_item").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO count_strategy_item (id, rank) SELECT g, g % 4 FROM generate_series(1, :rows) g")
+                    .setParameter("rows", ROWS)
+                    .executeUpdate();
+            //the estimate of the table without filters is its reltuples
+            entityManager.createNativeQuery("ANALYZE count_strategy_item").executeUpdate();
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            //strategy, rank filter, total, kind of the total
+            "EXACT,     ,  25, EXACT",
+            "EXACT,     1, 7,  EXACT",
+            "CAPPED,    ,  10, CAPPED",
+            "CAPPED,    1, 7,  EXACT",
+            "ESTIMATED, ,  25, ESTIMATED"
+    })
+    void firstPageHasTheTotalOfTheStrategy(CountStrategy strategy, Integer rank, long total, CountStrategy kind) throws Exception {
+        ApiPaginationResponse page = page(strategy, rank, 0);
+
+        assertEquals(PAGE_SIZE, ((List<?>) page.getContent()).size());
+        assertTrue(page.getHasNext());
+        assertEquals(total, page.getTotalElements());
+        assertEquals((int) ((total + PAGE_SIZE - 1) / PAGE_SIZE), page.getTotalPages());
+        assertEquals(kind, page.getTotalKind());
+    }
+
+    @Test
+    void noneHasNoTotal() throws Exception {
+        ApiPaginationResponse page = page(CountStrategy.NONE, null, 0);
+
+        assertTrue(page.getHasNext());
+        assertNull(page.getTotalElements());
+        assertEquals(CountStrategy.NONE, page.getTotalKind());
+    }
+
+    @Test
+    void lastPageHasAnExactTotalWithAnyStrategy() throws Exception {
+        for (CountStrategy strategy : CountStrategy.values()) {
+            ApiPaginationResponse page = page(strategy, null, ROWS / PAGE_SIZE - 1);
+
+            assertFalse(page.getHasNext());
+            assertEquals(strategy == CountStrategy.NONE ? CountStrategy.NONE : CountStrategy.EXACT, page.getTotalKind());
+            if (strategy != CountStrategy.NONE) {
+                assertEquals(ROWS, page.getTotalElements());
+            }
+        }
+    }
+
+    private ApiPaginationResponse page(CountStrategy strategy, Integer rank, int page) throws Exception {
+        SearchRequest.SearchRequestBuilder request = SearchRequest.builder();
+        if (rank != null) {
+            request.filters(List.of(FilterRequest.builder().key("rank").operator(Operator.EQUAL).fieldType(FieldType.INTEGER).value(rank.toString()).build()));
+        }
+        SearchRequest search = request.build();
+        SearchSpecification<Item> specification = new SearchSpecification<>(search, searchPlanCache.resolve(Item.class, search));
+        return searchQueryExecutor.inPageTransaction(strategy, () ->
+                searchQueryExecutor.page(Item.class, specification, PageRequest.of(page, PAGE_SIZE), strategy, search.isFiltered()));
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "CountStrategyItem")
+    @Table(name = "count_strategy_item")
+    static class Item extends AbstractEntity {
+        private Integer rank;
+    }
+}
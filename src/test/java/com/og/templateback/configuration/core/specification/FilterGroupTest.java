@@ -0,0 +1,124 @@
+package com.og.templateback.configuration.core.specification;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.specification.enums.FieldType;
+import com.og.templateback.configuration.core.specification.enums.LogicalOperator;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.FilterGroupRequest;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs NOT groups over a nullable column and a left-joined association against postgres and compares them with
+ * the rows not matched by the same filters: rows where the filters are null, as the column or the association is missing,
+ * are kept by NOT, as they don't match the filters.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class FilterGroupTest {
+    private static final int ROWS = 12;
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private SearchPlanCache searchPlanCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("TRUNCATE filter_group_item, filter_group_category").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO filter_group_category (id, title) VALUES (1, 'north'), (2, 'south')").executeUpdate();
+            //every third item has no category, every fourth no rank
+            entityManager.createNativeQuery("INSERT INTO filter_group_item (id, rank, category_id) " +
+                            "SELECT g, CASE WHEN g % 4 = 0 THEN NULL ELSE g % 2 END, CASE WHEN g % 3 = 0 THEN NULL ELSE 1 + g % 2 END " +
+                            "FROM generate_series(1, :rows) g")
+                    .setParameter("rows", ROWS)
+                    .executeUpdate();
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "category.title = north;                 c.title = 'north'",
+            "rank = 1;                               i.rank = 1",
+            "category.title = north, rank = 1;       c.title = 'north' AND i.rank = 1",
+            "category.title = south, category.id = 2; c.title = 'south' AND c.id = 2"
+    })
+    void notKeepsRowsWhereTheFiltersAreNull(String filters, String where) {
+        List<FilterRequest> requests = new ArrayList<>();
+        for (String filter : filters.split(",")) {
+            String[] keyAndValue = filter.trim().split(" = ");
+            boolean text = keyAndValue[0].equals("category.title");
+            requests.add(FilterRequest.builder()
+                    .key(keyAndValue[0])
+                    .operator(Operator.EQUAL)
+                    .fieldType(text ? FieldType.STRING : FieldType.INTEGER)
+                    .value(keyAndValue[1])
+                    .build());
+        }
+        SearchRequest request = SearchRequest.builder()
+                .groups(List.of(new FilterGroupRequest(LogicalOperator.NOT, requests, List.of())))
+                .build();
+
+        List<Long> found = searchQueryExecutor.findAll(Item.class,
+                        new SearchSpecification<>(request, searchPlanCache.resolve(Item.class, request)), 0, ROWS)
+                .stream()
+                .map(row -> ((Item) row).getId())
+                .sorted(Comparator.naturalOrder())
+                .toList();
+
+        List<?> expected = entityManager.createNativeQuery("SELECT i.id FROM filter_group_item i LEFT JOIN filter_group_category c ON c.id = i.category_id " +
+                        "WHERE NOT coalesce(" + where + ", false) ORDER BY i.id", Long.class)
+                .getResultList();
+        assertEquals(expected, found);
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "FilterGroupCategory")
+    @Table(name = "filter_group_category")
+    static class Category extends AbstractEntity {
+        private String title;
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "FilterGroupItem")
+    @Table(name = "filter_group_item")
+    static class Item extends AbstractEntity {
+        private Integer rank;
+
+        @ManyToOne
+        private Category category;
+    }
+}
@@ -0,0 +1,213 @@
+package com.og.templateback.configuration.core.specification;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.specification.enums.FieldType;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs searches with several filters and sorts on one to-one path and filters on a collection path against postgres,
+ * capturing their SQL: every to-one path of the request is joined once, inner only if a filter rejects nulls, and fetched by that join;
+ * filters under a collection share one {@code EXISTS}, so a row matches only if one element matches them all.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class JoinGraphTest {
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private SearchPlanCache searchPlanCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("TRUNCATE join_graph_order, join_graph_customer, join_graph_region").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO join_graph_region (id, title) VALUES (1, 'north'), (2, 'south')").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO join_graph_customer (id, name, region_id) " +
+                    "VALUES (1, 'ann', 1), (2, 'bob', 2), (3, 'cid', NULL), (4, 'dan', 1)").executeUpdate();
+            //bob has a paid order and a large one, but no large paid one
+            entityManager.createNativeQuery("INSERT INTO join_graph_order (id, status, total, customer_id) " +
+                    "VALUES (1, 'paid', 500, 1), (2, 'paid', 700, 1), (3, 'paid', 10, 2), (4, 'new', 900, 2), (5, 'paid', 800, 4)").executeUpdate();
+        });
+        Statements.SQL.clear();
+    }
+
+    @Test
+    void filtersAndSortsOfOnePathShareOneFetchJoin() {
+        SearchRequest request = SearchRequest.builder()
+                .filters(List.of(filter("region.title", Operator.IN, FieldType.STRING, null, List.of("north", "south")),
+                        filter("region.id", Operator.BETWEEN, FieldType.LONG, "1", "2")))
+                .sorts(List.of(new SortRequest("region.title", SortDirection.DESC), new SortRequest("name", SortDirection.ASC)))
+                .build();
+
+        assertEquals(List.of("bob", "ann", "dan"), names(request));
+
+        String sql = singleStatement();
+        assertEquals(1, occurrences(sql, "join_graph_region"));
+        assertFalse(sql.contains("left join"), sql);
+    }
+
+    @Test
+    void pathOnlySortedByIsLeftJoined() {
+        SearchRequest request = SearchRequest.builder()
+                .sorts(List.of(new SortRequest("region.title", SortDirection.ASC), new SortRequest("name", SortDirection.ASC)))
+                .build();
+
+        assertEquals(List.of("ann", "dan", "bob", "cid"), names(request));
+
+        String sql = singleStatement();
+        assertEquals(1, occurrences(sql, "join_graph_region"));
+        assertTrue(sql.contains("left join"), sql);
+    }
+
+    @Test
+    void filtersOfOneCollectionMatchTheSameElement() {
+        SearchRequest request = SearchRequest.builder()
+                .filters(List.of(filter("orders.status", Operator.EQUAL, FieldType.STRING, "paid", null),
+                        filter("orders.total", Operator.BETWEEN, FieldType.DOUBLE, "600", "1000")))
+                .sorts(List.of(new SortRequest("name", SortDirection.ASC)))
+                .build();
+
+        //ann has two matching orders and is returned once
+        assertEquals(List.of("ann", "dan"), names(request));
+
+        //the region is not a path of the request, it is loaded by its own statement
+        String sql = Statements.SQL.get(0);
+        assertEquals(1, occurrences(sql, "exists"));
+        assertEquals(1, occurrences(sql, "join_graph_order"));
+    }
+
+    private List<String> names(SearchRequest request) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> searchQueryExecutor.findAll(Customer.class,
+                        new SearchSpecification<>(request, searchPlanCache.resolve(Customer.class, request)), 0, 10)
+                .stream()
+                .map(row -> ((Customer) row).getName())
+                .toList());
+    }
+
+    /**
+     * @return the only statement of the search, the associations were loaded by its joins
+     */
+    private static String singleStatement() {
+        assertEquals(1, Statements.SQL.size(), Statements.SQL::toString);
+        return Statements.SQL.get(0);
+    }
+
+    private static int occurrences(String sql, String token) {
+        Matcher matcher = Pattern.compile("\\b" + token + "\\b").matcher(sql);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static FilterRequest filter(String key, Operator operator, FieldType fieldType, Object value, Object valueTo) {
+        FilterRequest.FilterRequestBuilder filter = FilterRequest.builder().key(key).operator(operator).fieldType(fieldType);
+        if (valueTo instanceof List<?> values) {
+            return filter.values(List.copyOf(values)).build();
+        }
+        return filter.value(value).valueTo(valueTo).build();
+    }
+
+    /**
+     * Collects the SQL of every statement hibernate prepares, after the inspector of the application.
+     */
+    @TestConfiguration
+    static class Statements {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Bean
+        @Order(Ordered.LOWEST_PRECEDENCE)
+        HibernatePropertiesCustomizer collectingStatementInspector() {
+            return properties -> {
+                StatementInspector application = (StatementInspector) properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    SQL.add(sql);
+                    return application == null ? sql : application.inspect(sql);
+                });
+            };
+        }
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "JoinGraphRegion")
+    @Table(name = "join_graph_region")
+    static class Region extends AbstractEntity {
+        private String title;
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "JoinGraphCustomer")
+    @Table(name = "join_graph_customer")
+    static class Customer extends AbstractEntity {
+        private String name;
+
+        @ManyToOne
+        private Region region;
+
+        @OneToMany(mappedBy = "customer")
+        private List<Purchase> orders;
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "JoinGraphOrder")
+    @Table(name = "join_graph_order")
+    static class Purchase extends AbstractEntity {
+        private String status;
+
+        private Double total;
+
+        @ManyToOne
+        private Customer customer;
+    }
+}
@@ -0,0 +1,131 @@
+package com.og.templateback.configuration.core.specification;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.specification.enums.PaginationMode;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import jakarta.persistence.Basic;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Walks keyset pages of {@link SearchQueryExecutor#seek} over rows with null sort keys, on the entity table and behind
+ * a left join, and compares them with one query ordered by postgres: every row must come exactly once, in the same order.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class KeysetPaginationTest {
+    private static final int ROWS = 40;
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private SearchPlanCache searchPlanCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("TRUNCATE keyset_item, keyset_category").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO keyset_category (id, title) VALUES (1, 'north'), (2, 'south')").executeUpdate();
+            //every sort key is null for some rows, and repeats for others
+            entityManager.createNativeQuery("INSERT INTO keyset_item (id, rank, category_id) " +
+                            "SELECT g, CASE WHEN g % 4 = 0 THEN NULL ELSE g % 5 END, CASE WHEN g % 3 = 0 THEN NULL ELSE 1 + g % 2 END " +
+                            "FROM generate_series(1, :rows) g")
+                    .setParameter("rows", ROWS)
+                    .executeUpdate();
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "rank ASC;                          i.rank ASC",
+            "rank DESC;                         i.rank DESC",
+            "category.title ASC;                c.title ASC",
+            "category.title DESC;               c.title DESC",
+            "category.id ASC;                   c.id ASC",
+            "category.title ASC, rank DESC;     c.title ASC, i.rank DESC",
+            "category.title DESC, rank ASC;     c.title DESC, i.rank ASC",
+            "id DESC;                           i.id DESC"
+    })
+    void pagesMatchOneOrderedQuery(String sorts, String orderBy) {
+        List<SortRequest> sortRequests = new ArrayList<>();
+        for (String sort : sorts.split(",")) {
+            String[] keyAndDirection = sort.trim().split(" ");
+            sortRequests.add(new SortRequest(keyAndDirection[0], SortDirection.valueOf(keyAndDirection[1])));
+        }
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            SearchRequest request = SearchRequest.builder()
+                    .sorts(sortRequests)
+                    .pagination(PaginationMode.KEYSET)
+                    .cursor(cursor)
+                    .build();
+            ApiPaginationResponse page = searchQueryExecutor.seek(Item.class,
+                    new SearchSpecification<>(request, searchPlanCache.resolve(Item.class, request)), PAGE_SIZE);
+            ((List<?>) page.getContent()).forEach(row -> paged.add(((Item) row).getId()));
+            cursor = page.getNextCursor();
+            if (!page.getHasNext()) {
+                assertNull(cursor);
+            }
+        } while (cursor != null && paged.size() <= ROWS);
+
+        List<?> expected = entityManager.createNativeQuery("SELECT i.id FROM keyset_item i LEFT JOIN keyset_category c ON c.id = i.category_id " +
+                        "ORDER BY " + orderBy + (orderBy.startsWith("i.id") ? "" : ", i.id"), Long.class)
+                .getResultList();
+        assertEquals(expected, paged);
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "KeysetPaginationCategory")
+    @Table(name = "keyset_category")
+    static class Category extends AbstractEntity {
+        //not optional itself, but null for items without a category
+        @Basic(optional = false)
+        private String title;
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "KeysetPaginationItem")
+    @Table(name = "keyset_item")
+    static class Item extends AbstractEntity {
+        private Integer rank;
+
+        @ManyToOne
+        private Category category;
+    }
+}
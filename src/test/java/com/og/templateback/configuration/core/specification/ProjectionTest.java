@@ -0,0 +1,187 @@
+package com.og.templateback.configuration.core.specification;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.specification.enums.FieldType;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Selects fields of an entity and its to-one association against postgres: rows are nested maps of the requested fields
+ * and the id, read by one statement selecting only their columns, a missing association gives null fields.
+ * Fields through a collection are rejected.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class ProjectionTest {
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private SearchPlanCache searchPlanCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("TRUNCATE projection_tag, projection_item, projection_region").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO projection_region (id, title, code) VALUES (1, 'north', 'N'), (2, 'south', 'S')").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO projection_item (id, name, secret, region_id) " +
+                    "VALUES (1, 'ann', 'a', 1), (2, 'bob', 'b', 2), (3, 'cid', 'c', NULL)").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO projection_tag (id, label, item_id) VALUES (1, 'x', 1)").executeUpdate();
+        });
+        Statements.SQL.clear();
+    }
+
+    @Test
+    void rowsAreNestedMapsOfTheFieldsAndTheId() {
+        SearchRequest request = SearchRequest.builder()
+                .fields(List.of("name", "region.title"))
+                .sorts(List.of(new SortRequest("name", SortDirection.ASC)))
+                .build();
+
+        assertEquals(List.of(row(1, "ann", "north"), row(2, "bob", "south"), row(3, "cid", null)), rows(request));
+
+        assertEquals(1, Statements.SQL.size(), Statements.SQL::toString);
+        String sql = Statements.SQL.get(0);
+        assertFalse(sql.contains("secret"), sql);
+        assertFalse(sql.contains("code"), sql);
+    }
+
+    @Test
+    void filtersApplyToProjectedRows() {
+        SearchRequest request = SearchRequest.builder()
+                .fields(List.of("region.title"))
+                .filters(List.of(FilterRequest.builder().key("name").operator(Operator.EQUAL).fieldType(FieldType.STRING).value("bob").build()))
+                .build();
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("region", Map.of("title", "south"));
+        expected.put("id", 2L);
+        assertEquals(List.of(expected), rows(request));
+    }
+
+    @Test
+    void fieldsThroughCollectionsAreRejected() {
+        SearchRequest request = SearchRequest.builder().fields(List.of("tags.label")).build();
+
+        assertThrows(FilterException.class, () -> searchPlanCache.resolve(Item.class, request));
+    }
+
+    private List<?> rows(SearchRequest request) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> searchQueryExecutor.findAll(Item.class,
+                new SearchSpecification<>(request, searchPlanCache.resolve(Item.class, request)), 0, 10));
+    }
+
+    private static Map<String, Object> row(long id, String name, String region) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", name);
+        //a null value can't go into Map.of
+        Map<String, Object> title = new LinkedHashMap<>();
+        title.put("title", region);
+        row.put("region", title);
+        row.put("id", id);
+        return row;
+    }
+
+    /**
+     * Collects the SQL of every statement hibernate prepares, after the inspector of the application.
+     */
+    @TestConfiguration
+    static class Statements {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Bean
+        @Order(Ordered.LOWEST_PRECEDENCE)
+        HibernatePropertiesCustomizer collectingStatementInspector() {
+            return properties -> {
+                StatementInspector application = (StatementInspector) properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    SQL.add(sql);
+                    return application == null ? sql : application.inspect(sql);
+                });
+            };
+        }
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "ProjectionRegion")
+    @Table(name = "projection_region")
+    static class Region extends AbstractEntity {
+        private String title;
+
+        private String code;
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "ProjectionItem")
+    @Table(name = "projection_item")
+    static class Item extends AbstractEntity {
+        private String name;
+
+        private String secret;
+
+        @ManyToOne
+        private Region region;
+
+        @OneToMany(mappedBy = "item")
+        private List<Tag> tags;
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "ProjectionTag")
+    @Table(name = "projection_tag")
+    static class Tag extends AbstractEntity {
+        private String label;
+
+        @ManyToOne
+        private Item item;
+    }
+}
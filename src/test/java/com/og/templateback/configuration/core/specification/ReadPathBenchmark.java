@@ -0,0 +1,122 @@
+package com.og.templateback.configuration.core.specification;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the read path of {@link SearchQueryExecutor} with managed loading: the same {@link SearchQueryExecutor#findAll(Class)}
+ * of {@value #ROWS} rows in a read-only transaction, where entities are loaded read-only, and in a read-write one,
+ * where hibernate keeps a dirty-checking snapshot of every entity. Logs the median latency, the bytes allocated by the load
+ * and the heap retained by the persistence context after it.
+ * <p>
+ * Needs the database of {@code application.yaml} and is not run by {@code mvn test}, run it with
+ * {@code mvn test -Dtest=ReadPathBenchmark}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class ReadPathBenchmark {
+    private static final int ROWS = 10_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("TRUNCATE read_path_benchmark").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO read_path_benchmark (id, name, description, city) " +
+                            "SELECT g, 'name ' || g, repeat('description ', 10) || g, 'city ' || g % 100 FROM generate_series(1, :rows) g")
+                    .setParameter("rows", ROWS)
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    void readOnlyVersusManaged() {
+        Result managed = measure(false);
+        Result readOnly = measure(true);
+        log.info(String.format("%-10s %12s %16s %16s", "mode", "median ms", "allocated KiB", "retained KiB"));
+        log.info(String.format("%-10s %12.2f %16d %16d", "managed", managed.medianMillis, managed.allocated / 1024, managed.retained / 1024));
+        log.info(String.format("%-10s %12.2f %16d %16d", "read-only", readOnly.medianMillis, readOnly.allocated / 1024, readOnly.retained / 1024));
+    }
+
+    private Result measure(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        double[] millis = new double[ITERATIONS];
+        long allocated = 0;
+        long retained = 0;
+        for (int i = -WARMUP; i < ITERATIONS; i++) {
+            long before = usedHeap();
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            long[] measured = transaction.execute(status -> {
+                List<Row> rows = searchQueryExecutor.findAll(Row.class);
+                long elapsed = System.nanoTime() - start;
+                long allocatedAfter = allocatedBytes();
+                assertEquals(ROWS, rows.size());
+                //the persistence context still holds the entities and their snapshots
+                return new long[]{elapsed, allocatedAfter - allocatedBefore, usedHeap() - before};
+            });
+            if (i >= 0) {
+                millis[i] = measured[0] / 1_000_000.0;
+                allocated += measured[1];
+                retained += measured[2];
+            }
+        }
+        Arrays.sort(millis);
+        return new Result(millis[ITERATIONS / 2], allocated / ITERATIONS, retained / ITERATIONS);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private record Result(double medianMillis, long allocated, long retained) {
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "ReadPathBenchmarkRow")
+    @Table(name = "read_path_benchmark")
+    static class Row extends AbstractEntity {
+        private String name;
+        private String description;
+        private String city;
+    }
+}
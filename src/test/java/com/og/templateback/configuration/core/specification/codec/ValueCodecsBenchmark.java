@@ -0,0 +1,95 @@
+package com.og.templateback.configuration.core.specification.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Compares the parsing throughput of {@link ValueCodecs} with the exception based parsing {@code FieldType.parse} did before:
+ * {@code Long.valueOf}, {@code Double.valueOf}, {@code Timestamp.valueOf} and {@code Date.valueOf} in a try-catch.
+ * Valid and invalid values are measured apart, as only invalid ones throw. The old parsing also logged every failure
+ * at INFO, which is left out here, so its numbers are a lower bound. Logs the median nanoseconds and the bytes
+ * allocated per value.
+ * <p>
+ * Is not run by {@code mvn test}, run it with {@code mvn test -Dtest=ValueCodecsBenchmark}.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@Slf4j
+class ValueCodecsBenchmark {
+    private static final int VALUES = 100_000;
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 20;
+
+    /**
+     * Keeps the results reachable, so the parsing is not optimized away.
+     */
+    private static int sink;
+
+    @Test
+    void codecsVersusExceptions() {
+        log.info(String.format("%-10s %-8s %-10s %10s %14s", "type", "values", "parser", "ns/value", "bytes/value"));
+        run("long", Long.class, Long::valueOf, index -> String.valueOf(index * 7919L), index -> index + "x");
+        run("double", Double.class, Double::valueOf, index -> index + "." + index % 100, index -> index + ".x");
+        run("timestamp", Timestamp.class, Timestamp::valueOf,
+                index -> String.format("2024-%02d-%02d %02d:%02d:%02d.%06d", 1 + index % 12, 1 + index % 28, index % 24, index % 60, index % 60, index),
+                index -> String.format("2024-13-%02d %02d:00:00", 1 + index % 28, index % 24));
+        run("date", Date.class, Date::valueOf,
+                index -> String.format("%04d-%02d-%02d", 1900 + index % 200, 1 + index % 12, 1 + index % 28),
+                index -> String.format("%04d/%02d/%02d", 1900 + index % 200, 1 + index % 12, 1 + index % 28));
+    }
+
+    private static void run(String name, Class<?> type, Function<String, Object> jdk,
+                            Function<Integer, String> valid, Function<Integer, String> invalid) {
+        ValueCodec<?> codec = ValueCodecs.of(type);
+        Function<String, Object> exceptions = value -> {
+            try {
+                return jdk.apply(value);
+            } catch (Exception e) {
+                return null;
+            }
+        };
+        for (String values : new String[]{"valid", "invalid"}) {
+            Function<Integer, String> generator = values.equals("valid") ? valid : invalid;
+            String[] input = new String[VALUES];
+            Arrays.setAll(input, generator::apply);
+            print(name, values, "codec", measure(input, codec::decode));
+            print(name, values, "exception", measure(input, exceptions));
+        }
+    }
+
+    private static long[] measure(String[] input, Function<String, ?> parser) {
+        long[] nanos = new long[ITERATIONS];
+        long allocated = 0;
+        for (int i = -WARMUP; i < ITERATIONS; i++) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (String value : input) {
+                Object parsed = parser.apply(value);
+                sink += parsed == null ? 0 : 1;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (i >= 0) {
+                nanos[i] = elapsed;
+                allocated += allocatedBytes() - allocatedBefore;
+            }
+        }
+        Arrays.sort(nanos);
+        return new long[]{nanos[ITERATIONS / 2], allocated / ITERATIONS};
+    }
+
+    private static void print(String type, String values, String parser, long[] measured) {
+        log.info(String.format("%-10s %-8s %-10s %10.1f %14.1f", type, values, parser,
+                (double) measured[0] / VALUES, (double) measured[1] / VALUES));
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,187 @@
+package com.og.templateback.configuration.core.specification.codec;
+
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+class ValueCodecsTest {
+
+    private static Object decode(Class<?> type, Object raw) {
+        return ValueCodecs.of(type).decode(raw);
+    }
+
+    @Test
+    void resolvesCodecsByBoxedType() {
+        assertSame(ValueCodecs.of(Integer.class), ValueCodecs.of(int.class));
+        assertSame(ValueCodecs.of(SortDirection.class), ValueCodecs.of(SortDirection.class));
+        assertNull(ValueCodecs.of(Object.class));
+    }
+
+    @Test
+    void keepsValuesOfTheTypeAndNull() {
+        BigDecimal value = new BigDecimal("1.10");
+        assertSame(value, decode(BigDecimal.class, value));
+        List<Object> json = List.of(1, "a");
+        assertSame(json, decode(List.class, json));
+        assertNull(decode(Long.class, null));
+    }
+
+    @Test
+    void parsesIntegralNumbersWithinTheirRange() {
+        assertEquals(42, decode(Integer.class, "42"));
+        assertEquals(7L, decode(Long.class, "+7"));
+        assertEquals(Long.MIN_VALUE, decode(Long.class, "-9223372036854775808"));
+        assertEquals(Long.MAX_VALUE, decode(Long.class, "9223372036854775807"));
+        assertEquals((short) -32768, decode(Short.class, "-32768"));
+        assertEquals((byte) 127, decode(Byte.class, 127));
+        assertEquals(3, decode(Integer.class, 3.0));
+        assertEquals(1000L, decode(Long.class, new BigDecimal("1e3")));
+        assertEquals(new BigInteger("10"), decode(BigInteger.class, "10.00"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"9223372036854775808", "-9223372036854775809", "99999999999999999999", "", "-", "+", "1.5", "1e3", " 1", "0x10"})
+    void rejectsInvalidOrOverflowingLongs(String text) {
+        assertNull(decode(Long.class, text));
+    }
+
+    @Test
+    void rejectsNumbersOutsideOfTheType() {
+        assertNull(decode(Integer.class, "2147483648"));
+        assertNull(decode(Integer.class, 2147483648L));
+        assertNull(decode(Short.class, "32768"));
+        assertNull(decode(Byte.class, -129));
+        assertNull(decode(Long.class, 1e19));
+        assertNull(decode(Integer.class, 3.5));
+        assertNull(decode(BigInteger.class, "10.5"));
+        assertNull(decode(Long.class, Double.NaN));
+    }
+
+    @Test
+    void parsesDecimalNumbers() {
+        assertEquals(new BigDecimal("12.50"), decode(BigDecimal.class, "12.50"));
+        assertEquals(new BigDecimal("0.5"), decode(BigDecimal.class, ".5"));
+        assertEquals(new BigDecimal("5"), decode(BigDecimal.class, "5."));
+        assertEquals(new BigDecimal("-1.5E+3"), decode(BigDecimal.class, "-1.5e3"));
+        assertEquals(0.25, decode(Double.class, "2.5E-1"));
+        assertEquals(1.5f, decode(Float.class, 1.5));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"NaN", "Infinity", "1e", "1e+", "e3", ".", "1.2.3", "1e9999999999", "12a", "1_000"})
+    void rejectsInvalidDecimals(String text) {
+        assertNull(decode(BigDecimal.class, text));
+        assertNull(decode(Double.class, text));
+    }
+
+    @Test
+    void parsesBooleansAndEnumsIgnoringCase() {
+        assertEquals(Boolean.TRUE, decode(Boolean.class, "TRUE"));
+        assertEquals(Boolean.FALSE, decode(Boolean.class, "false"));
+        assertNull(decode(Boolean.class, "yes"));
+        assertNull(decode(Boolean.class, 1));
+        assertEquals(SortDirection.ASC, decode(SortDirection.class, "asc"));
+        assertEquals(SortDirection.DESC, decode(SortDirection.class, "DESC"));
+        assertNull(decode(SortDirection.class, "up"));
+    }
+
+    @Test
+    void parsesUuids() {
+        UUID uuid = UUID.randomUUID();
+        assertEquals(uuid, decode(UUID.class, uuid.toString()));
+        assertEquals(uuid, decode(UUID.class, uuid.toString().toUpperCase()));
+        assertNull(decode(UUID.class, uuid.toString().substring(1)));
+        assertNull(decode(UUID.class, uuid.toString().replace('-', '_')));
+        assertNull(decode(UUID.class, "g" + uuid.toString().substring(1)));
+    }
+
+    @Test
+    void parsesDates() {
+        assertEquals(LocalDate.of(2024, 2, 29), decode(LocalDate.class, "2024-02-29"));
+        assertEquals(java.sql.Date.valueOf("2024-01-31"), decode(java.sql.Date.class, "2024-01-31"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2023-02-29", "2024-13-01", "2024-00-10", "2024-04-31", "2024-1-01", "2024/01/01", "2024-01-01T00:00", "20240101"})
+    void rejectsInvalidDates(String text) {
+        assertNull(decode(LocalDate.class, text));
+    }
+
+    @Test
+    void parsesTimesWithFractions() {
+        assertEquals(LocalTime.of(10, 15), decode(LocalTime.class, "10:15"));
+        assertEquals(LocalTime.of(10, 15, 30), decode(LocalTime.class, "10:15:30"));
+        assertEquals(LocalTime.of(10, 15, 30, 100_000_000), decode(LocalTime.class, "10:15:30.1"));
+        assertEquals(LocalTime.of(10, 15, 30, 123_456_000), decode(LocalTime.class, "10:15:30.123456"));
+        assertEquals(LocalTime.of(23, 59, 59, 999_999_999), decode(LocalTime.class, "23:59:59.999999999"));
+        assertEquals(LocalTime.of(10, 15, 30, 5_000_000), decode(LocalTime.class, "10:15:30.005"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"24:00", "10:60", "10:15:60", "10:15:30.", "10:15:30.1234567890", "10:15:30,1", "10-15", "1:15", "10:15:3"})
+    void rejectsInvalidTimes(String text) {
+        assertNull(decode(LocalTime.class, text));
+    }
+
+    @Test
+    void parsesDateTimes() {
+        LocalDateTime expected = LocalDateTime.of(2024, 1, 31, 10, 15, 30, 123_000_000);
+        assertEquals(expected, decode(LocalDateTime.class, "2024-01-31T10:15:30.123"));
+        assertEquals(expected, decode(LocalDateTime.class, "2024-01-31 10:15:30.123"));
+        assertEquals(LocalDate.of(2024, 1, 31).atStartOfDay(), decode(LocalDateTime.class, "2024-01-31"));
+        assertNull(decode(LocalDateTime.class, "2024-01-31X10:15"));
+        assertNull(decode(LocalDateTime.class, "2024-01-31T"));
+    }
+
+    @Test
+    void parsesOffsetsInEveryForm() {
+        LocalDateTime local = LocalDateTime.of(2024, 1, 31, 10, 15, 30);
+        assertEquals(OffsetDateTime.of(local, ZoneOffset.UTC), decode(OffsetDateTime.class, "2024-01-31T10:15:30Z"));
+        assertEquals(OffsetDateTime.of(local, ZoneOffset.UTC), decode(OffsetDateTime.class, "2024-01-31T10:15:30"));
+        assertEquals(OffsetDateTime.of(local, ZoneOffset.ofHours(3)), decode(OffsetDateTime.class, "2024-01-31T10:15:30+03"));
+        assertEquals(OffsetDateTime.of(local, ZoneOffset.ofHours(3)), decode(OffsetDateTime.class, "2024-01-31T10:15:30+0300"));
+        assertEquals(OffsetDateTime.of(local, ZoneOffset.ofHours(3)), decode(OffsetDateTime.class, "2024-01-31T10:15:30+03:00"));
+        assertEquals(OffsetDateTime.of(local, ZoneOffset.ofHoursMinutes(-5, -30)), decode(OffsetDateTime.class, "2024-01-31T10:15:30-05:30"));
+        assertEquals(OffsetDateTime.of(local.toLocalDate().atStartOfDay(), ZoneOffset.UTC), decode(OffsetDateTime.class, "2024-01-31"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-01-31T10:15:30+19:00", "2024-01-31T10:15:30+03:60", "2024-01-31T10:15:30+3", "2024-01-31T10:15:30+03:0",
+            "2024-01-31T10:15:30+030", "2024-01-31T10:15:30+03-00", "2024-01-31T10:15:30ZZ", "Z"})
+    void rejectsInvalidOffsets(String text) {
+        assertNull(decode(OffsetDateTime.class, text));
+    }
+
+    @Test
+    void parsesInstantsAndTimestamps() {
+        Instant instant = Instant.parse("2024-01-31T07:15:30Z");
+        assertEquals(instant, decode(Instant.class, "2024-01-31T10:15:30+03:00"));
+        assertEquals(instant, decode(Instant.class, instant.toEpochMilli()));
+        assertEquals(Timestamp.from(instant), decode(Timestamp.class, "2024-01-31T10:15:30+03:00"));
+        assertEquals(Timestamp.from(instant), decode(Timestamp.class, instant.toEpochMilli()));
+        //without an offset a timestamp is local, as Timestamp.valueOf
+        assertEquals(Timestamp.valueOf("2024-01-31 10:15:30.123456"), decode(Timestamp.class, "2024-01-31 10:15:30.123456"));
+        assertNull(decode(Timestamp.class, "yesterday"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.og.templateback.configuration.core.specification.enums;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+class InListModeTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 0",
+            "1, 1",
+            "2, 2",
+            "3, 4",
+            "4, 4",
+            "5, 8",
+            "8, 8",
+            "9, 16",
+            "33, 64",
+            "64, 64"
+    })
+    void padsListsToTheNextPowerOfTwo(int size, int padded) {
+        assertEquals(padded, InListMode.paddedSize(size));
+    }
+
+    @Test
+    void paddedListsNeverShrinkAndShareFewStatements() {
+        long statements = 0;
+        int previous = -1;
+        for (int size = 1; size <= InListMode.MAX_LIST_SIZE; size++) {
+            int padded = InListMode.paddedSize(size);
+            assertTrue(padded >= size && padded < 2 * size, size + " -> " + padded);
+            if (padded != previous) {
+                statements++;
+                previous = padded;
+            }
+        }
+        assertEquals(7, statements);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, LIST",
+            "1, LIST",
+            "64, LIST",
+            "65, ARRAY",
+            "4999, ARRAY",
+            "5000, UNNEST",
+            "100000, UNNEST"
+    })
+    void choosesModeBySize(int size, InListMode mode) {
+        assertEquals(mode, InListMode.of(size));
+    }
+}
@@ -0,0 +1,83 @@
+package com.og.templateback.configuration.core.specification.enums;
+
+import com.og.templateback.configuration.core.specification.SearchFunctionContributor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+class LogicalOperatorTest {
+    private final CriteriaBuilder cb = mock(CriteriaBuilder.class);
+    private final Predicate first = mock(Predicate.class);
+    private final Predicate second = mock(Predicate.class);
+    private final Predicate third = mock(Predicate.class);
+    private final Predicate combined = mock(Predicate.class);
+
+    @ParameterizedTest
+    @EnumSource(LogicalOperator.class)
+    void firstMemberIsTakenAsIs(LogicalOperator operator) {
+        assertSame(first, operator.combine(cb, null, first));
+        verifyNoInteractions(cb);
+    }
+
+    @Test
+    void andCombinesByConjunction() {
+        when(cb.and(first, second)).thenReturn(combined);
+
+        assertSame(combined, LogicalOperator.AND.combine(cb, first, second));
+        assertSame(combined, LogicalOperator.AND.close(cb, combined));
+    }
+
+    @Test
+    void orCombinesByDisjunction() {
+        when(cb.or(first, second)).thenReturn(combined);
+
+        assertSame(combined, LogicalOperator.OR.combine(cb, first, second));
+        assertSame(combined, LogicalOperator.OR.close(cb, combined));
+    }
+
+    @Test
+    void notNegatesTheConjunctionOfAllMembers() {
+        Predicate firstTwo = mock(Predicate.class);
+        Predicate negated = mock(Predicate.class);
+        when(cb.and(first, second)).thenReturn(firstTwo);
+        when(cb.and(firstTwo, third)).thenReturn(combined);
+        negates(combined, negated);
+
+        Predicate predicate = LogicalOperator.NOT.combine(cb, null, first);
+        predicate = LogicalOperator.NOT.combine(cb, predicate, second);
+        predicate = LogicalOperator.NOT.combine(cb, predicate, third);
+
+        //(a AND b AND c) IS NOT TRUE, not NOT a AND NOT b AND NOT c
+        assertSame(combined, predicate);
+        assertSame(negated, LogicalOperator.NOT.close(cb, predicate));
+        verify(cb).function(SearchFunctionContributor.NOT_TRUE, Boolean.class, combined);
+    }
+
+    @Test
+    void notOfOneMemberNegatesIt() {
+        Predicate negated = mock(Predicate.class);
+        negates(first, negated);
+
+        assertSame(negated, LogicalOperator.NOT.close(cb, LogicalOperator.NOT.combine(cb, null, first)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void negates(Predicate predicate, Predicate negated) {
+        Expression<Boolean> notTrue = mock(Expression.class);
+        when(cb.function(SearchFunctionContributor.NOT_TRUE, Boolean.class, predicate)).thenReturn(notTrue);
+        when(cb.isTrue(notTrue)).thenReturn(negated);
+    }
+}
@@ -0,0 +1,156 @@
+package com.og.templateback.configuration.core.specification.guard;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.specification.SearchQueryExecutor;
+import com.og.templateback.configuration.core.specification.SearchSpecification;
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.FieldType;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException;
+import com.og.templateback.configuration.core.web.controller.advice.exception.QueryRejectedException.Reason;
+import com.og.templateback.configuration.core.web.dto.ApiPaginationResponse;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.QueryTimeoutException;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs searches of an entity with tight limits of {@link QueryGuard} against postgres: too large pages and unpaged reads
+ * are rejected, statements are cancelled at the timeout, and with explaining enabled a page estimated over the budget
+ * is rejected while an exact total over it is estimated instead.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "search.guard.explain.enabled=true",
+        "search.guard.entities.GuardItem.max-page-size=5",
+        "search.guard.entities.GuardItem.max-unpaged-rows=10",
+        "search.guard.entities.GuardItem.statement-timeout=1s",
+        "search.guard.entities.GuardItem.max-cost=100"
+})
+class QueryGuardTest {
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private SearchPlanCache searchPlanCache;
+
+    @Autowired
+    private QueryGuard queryGuard;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("TRUNCATE guard_item").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO guard_item (id, title, rank) SELECT g, 'title ' || g, g % 100 FROM generate_series(1, :rows) g")
+                    .setParameter("rows", ROWS)
+                    .executeUpdate();
+            //the planner estimates need statistics of the table
+            entityManager.createNativeQuery("ANALYZE guard_item").executeUpdate();
+        });
+    }
+
+    @Test
+    void pageLargerThanTheMaximumIsRejected() {
+        QueryRejectedException rejected = assertRejected(() -> page(SearchRequest.builder().build(), 6, CountStrategy.NONE));
+
+        assertEquals(Reason.PAGE_SIZE, rejected.getReason());
+        assertEquals(5, rejected.getLimit());
+        assertEquals(6, rejected.getActual());
+    }
+
+    @Test
+    void unpagedReadOfMoreRowsThanTheMaximumIsRejected() {
+        QueryRejectedException rejected = assertRejected(() -> inReadOnlyTransaction(() -> searchQueryExecutor.findAll(GuardItem.class)));
+
+        assertEquals(Reason.UNPAGED_ROWS, rejected.getReason());
+        assertEquals(10, rejected.getLimit());
+    }
+
+    @Test
+    void statementIsCancelledAtTheTimeout() {
+        assertThrows(QueryTimeoutException.class, () -> inReadOnlyTransaction(() ->
+                queryGuard.timeout(GuardItem.class, entityManager.createNativeQuery("SELECT pg_sleep(5)")).getSingleResult()));
+    }
+
+    @Test
+    void pageEstimatedOverTheBudgetIsRejected() {
+        //the top rows of an unindexed sort are known only after the whole table is read
+        SearchRequest sorted = SearchRequest.builder().sorts(List.of(new SortRequest("title", SortDirection.DESC))).build();
+
+        QueryRejectedException rejected = assertRejected(() -> page(sorted, 5, CountStrategy.NONE));
+
+        assertEquals(Reason.COST, rejected.getReason());
+    }
+
+    @Test
+    void exactTotalEstimatedOverTheBudgetFallsBack() {
+        //the first rows are found at once, counting them all reads the whole table
+        SearchRequest filtered = SearchRequest.builder()
+                .filters(List.of(FilterRequest.builder().key("rank").operator(Operator.NOT_EQUAL).fieldType(FieldType.INTEGER).value("-1").build()))
+                .build();
+
+        ApiPaginationResponse page = page(filtered, 5, CountStrategy.EXACT);
+
+        assertEquals(5, ((List<?>) page.getContent()).size());
+        assertEquals(CountStrategy.ESTIMATED, page.getTotalKind());
+    }
+
+    private ApiPaginationResponse page(SearchRequest request, int size, CountStrategy count) {
+        return inReadOnlyTransaction(() -> searchQueryExecutor.page(GuardItem.class,
+                new SearchSpecification<>(request, searchPlanCache.resolve(GuardItem.class, request)),
+                PageRequest.of(0, size), count, request.isFiltered()));
+    }
+
+    private <R> R inReadOnlyTransaction(Supplier<R> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> work.get());
+    }
+
+    private static QueryRejectedException assertRejected(Executable search) {
+        return assertThrows(QueryRejectedException.class, search);
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "GuardItem")
+    @Table(name = "guard_item")
+    static class GuardItem extends AbstractEntity {
+        private String title;
+
+        private Integer rank;
+    }
+}
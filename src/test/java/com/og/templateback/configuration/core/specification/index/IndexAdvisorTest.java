@@ -0,0 +1,172 @@
+package com.og.templateback.configuration.core.specification.index;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.specification.SearchQueryExecutor;
+import com.og.templateback.configuration.core.specification.SearchSpecification;
+import com.og.templateback.configuration.core.specification.enums.CountStrategy;
+import com.og.templateback.configuration.core.specification.enums.FieldType;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Feeds the index advisor with searches run against postgres: it suggests the index each shape of searches misses,
+ * stops suggesting it once the index exists, leaves out rarely searched shapes and lists indexes nobody scans.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "search.index-advisor.min-searches=3"
+})
+class IndexAdvisorTest {
+
+    @Autowired
+    private IndexAdvisor indexAdvisor;
+
+    @Autowired
+    private SearchUsageRecorder searchUsageRecorder;
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private SearchPlanCache searchPlanCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("DROP INDEX IF EXISTS advisor_ticket_status_priority_desc_idx");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS advisor_ticket_title_idx");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS advisor_ticket_title_unique_idx");
+        jdbcTemplate.execute("TRUNCATE advisor_ticket");
+        jdbcTemplate.execute("INSERT INTO advisor_ticket (id, status, priority, active, title) " +
+                "SELECT g, 'status' || (g % 100), g % 5, g % 2 = 0, 'Ticket ' || g FROM generate_series(1, 2000) g");
+        jdbcTemplate.execute("ANALYZE advisor_ticket");
+        searchUsageRecorder.reset();
+    }
+
+    @Test
+    void equalityAndSortSuggestACompositeIndexUntilItExists() {
+        SearchRequest request = SearchRequest.builder()
+                .filters(List.of(filter("status", Operator.EQUAL, FieldType.STRING, "status7")))
+                .sorts(List.of(new SortRequest("priority", SortDirection.DESC)))
+                .build();
+        search(request, 3);
+
+        IndexAdvice.Suggestion suggestion = single(indexAdvisor.advise().getMissing());
+        assertEquals(IndexAdvice.Kind.COMPOSITE, suggestion.getKind());
+        assertEquals(List.of("status", "priority DESC"), suggestion.getColumns());
+        assertEquals("CREATE INDEX CONCURRENTLY IF NOT EXISTS advisor_ticket_status_priority_desc_idx ON advisor_ticket " +
+                "USING btree (status, priority DESC)", suggestion.getDdl());
+        assertEquals(3, suggestion.getSearches());
+        assertEquals(0.01, suggestion.getSelectivity(), 0.005);
+
+        jdbcTemplate.execute(suggestion.getDdl());
+
+        assertEquals(List.of(), indexAdvisor.advise().getMissing());
+    }
+
+    @Test
+    void booleanEqualityAndPrefixSearchSuggestPartialAndPatternIndexes() {
+        search(SearchRequest.builder()
+                .filters(List.of(filter("active", Operator.EQUAL, FieldType.BOOLEAN, Boolean.TRUE),
+                        filter("status", Operator.EQUAL, FieldType.STRING, "status8")))
+                .build(), 3);
+        search(SearchRequest.builder()
+                .filters(List.of(filter("title", Operator.STARTS_WITH, FieldType.STRING, "ticket 12")))
+                .build(), 3);
+
+        List<String> ddl = indexAdvisor.advise().getMissing().stream().map(IndexAdvice.Suggestion::getDdl).sorted().toList();
+
+        assertEquals(List.of(
+                "CREATE INDEX CONCURRENTLY IF NOT EXISTS advisor_ticket_lower_title_text_pattern_ops_idx ON advisor_ticket " +
+                        "USING btree (lower(title) text_pattern_ops)",
+                "CREATE INDEX CONCURRENTLY IF NOT EXISTS advisor_ticket_status_partial_idx ON advisor_ticket " +
+                        "USING btree (status) WHERE active = true"), ddl);
+    }
+
+    @Test
+    void rarelySearchedShapesAreNotSuggested() {
+        search(SearchRequest.builder()
+                .filters(List.of(filter("status", Operator.EQUAL, FieldType.STRING, "status7")))
+                .build(), 2);
+
+        IndexAdvice advice = indexAdvisor.advise();
+
+        assertEquals(2, single(advice.getSearches()).getSearches());
+        assertEquals(List.of(), advice.getMissing());
+    }
+
+    @Test
+    void indexesNeverScannedAreListedUnlessUnique() {
+        jdbcTemplate.execute("CREATE INDEX advisor_ticket_title_idx ON advisor_ticket (title)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX advisor_ticket_title_unique_idx ON advisor_ticket (title)");
+
+        List<IndexAdvice.Unused> unused = indexAdvisor.advise().getUnused();
+
+        assertTrue(unused.stream().anyMatch(index -> index.getIndex().endsWith("advisor_ticket_title_idx")
+                && index.getDdl().startsWith("DROP INDEX CONCURRENTLY IF EXISTS ")), unused::toString);
+        assertFalse(unused.stream().anyMatch(index -> index.getIndex().endsWith("advisor_ticket_title_unique_idx")));
+    }
+
+    private void search(SearchRequest request, int times) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        for (int i = 0; i < times; i++) {
+            transaction.executeWithoutResult(status -> searchQueryExecutor.page(Ticket.class,
+                    new SearchSpecification<>(request, searchPlanCache.resolve(Ticket.class, request)),
+                    PageRequest.of(0, 10), CountStrategy.EXACT, true));
+        }
+    }
+
+    private static FilterRequest filter(String key, Operator operator, FieldType fieldType, Object value) {
+        return FilterRequest.builder().key(key).operator(operator).fieldType(fieldType).value(value).build();
+    }
+
+    private static <T> T single(List<T> list) {
+        assertEquals(1, list.size(), list::toString);
+        return list.get(0);
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "AdvisorTicket")
+    @Table(name = "advisor_ticket")
+    static class Ticket extends AbstractEntity {
+        private String status;
+
+        private Integer priority;
+
+        private Boolean active;
+
+        private String title;
+    }
+}
@@ -0,0 +1,168 @@
+package com.og.templateback.configuration.core.specification.index;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.specification.SearchQueryExecutor;
+import com.og.templateback.configuration.core.specification.SearchSpecification;
+import com.og.templateback.configuration.core.specification.enums.FieldType;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.explain.QueryExplainer;
+import com.og.templateback.configuration.core.specification.plan.SearchPlan;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs text operators over {@value #ROWS} rows against postgres before and after the index serving them is created:
+ * the results are the same, the cached plan is kept, and the query the operator renders once the catalog sees the index
+ * is estimated far cheaper, as the planner reads it through the index instead of scanning the table.
+ * Wildcards in values are matched literally with and without indexes.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class TextIndexTest {
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private SearchPlanCache searchPlanCache;
+
+    @Autowired
+    private TextIndexCatalog textIndexCatalog;
+
+    @Autowired
+    private QueryExplainer queryExplainer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        execute("CREATE EXTENSION IF NOT EXISTS pg_trgm",
+                "DROP INDEX IF EXISTS text_index_item_trgm",
+                "DROP INDEX IF EXISTS text_index_item_lower_pattern",
+                "TRUNCATE text_index_item",
+                "INSERT INTO text_index_item (id, title) SELECT g, 'Item ' || md5(CAST(g AS text)) FROM generate_series(1, " + ROWS + ") g",
+                "INSERT INTO text_index_item (id, title) VALUES (-1, 'Rate 50% off'), (-2, 'Rate 500 off'), (-3, 'snake_case'), (-4, 'snakeXcase')",
+                "ANALYZE text_index_item");
+        textIndexCatalog.invalidateAll();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            //operator, value, index
+            "LIKE,        c4ca4238a0b9,  CREATE INDEX text_index_item_trgm ON text_index_item USING gin (title gin_trgm_ops)",
+            "LIKE,        C4CA4238A0B9,  CREATE INDEX text_index_item_trgm ON text_index_item USING gin (lower(title) gin_trgm_ops)",
+            "STARTS_WITH, item c4ca4238, CREATE INDEX text_index_item_lower_pattern ON text_index_item (lower(title) text_pattern_ops)",
+            "STARTS_WITH, ITEM C4CA4238, CREATE INDEX text_index_item_trgm ON text_index_item USING gin (title gin_trgm_ops)"
+    })
+    void operatorUsesTheIndexOnceItExists(Operator operator, String value, String index) {
+        SearchRequest request = request(operator, value);
+        SearchPlan plan = searchPlanCache.resolve(Item.class, request);
+        List<String> unindexed = titles(request);
+        double scan = cost(request);
+
+        execute(index, "ANALYZE text_index_item");
+        textIndexCatalog.invalidateAll();
+
+        assertSame(plan, searchPlanCache.resolve(Item.class, request));
+        assertEquals(List.of("Item c4ca4238a0b923820dcc509a6f75849b"), unindexed);
+        assertEquals(unindexed, titles(request));
+        double indexed = cost(request);
+        assertTrue(indexed * 3 < scan, () -> "indexed " + indexed + ", scan " + scan);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "LIKE;        50%;   Rate 50% off",
+            "LIKE;        e_c;   snake_case",
+            "STARTS_WITH; SNAKE_; snake_case"
+    })
+    void wildcardsAreMatchedLiterallyWithAndWithoutIndexes(Operator operator, String value, String title) {
+        SearchRequest request = request(operator, value);
+
+        assertEquals(List.of(title), titles(request));
+
+        execute("CREATE INDEX text_index_item_trgm ON text_index_item USING gin (title gin_trgm_ops)", "ANALYZE text_index_item");
+        textIndexCatalog.invalidateAll();
+
+        assertEquals(List.of(title), titles(request));
+    }
+
+    @Test
+    void similarFindsMisspelledValues() {
+        assertEquals(List.of("snakeXcase", "snake_case"), titles(request(Operator.SIMILAR, "snake case")));
+    }
+
+    private static SearchRequest request(Operator operator, String value) {
+        return SearchRequest.builder()
+                .filters(List.of(FilterRequest.builder().key("title").operator(operator).fieldType(FieldType.STRING).value(value).build()))
+                .build();
+    }
+
+    private List<String> titles(SearchRequest request) {
+        return inReadOnlyTransaction(() -> searchQueryExecutor.findAll(Item.class, specification(request), 0, 10)
+                .stream()
+                .map(row -> ((Item) row).getTitle())
+                .sorted(Comparator.naturalOrder())
+                .toList());
+    }
+
+    private double cost(SearchRequest request) {
+        return inReadOnlyTransaction(() -> queryExplainer.explain(Item.class, specification(request), null).getTotalCost());
+    }
+
+    private SearchSpecification<Item> specification(SearchRequest request) {
+        return new SearchSpecification<>(request, searchPlanCache.resolve(Item.class, request));
+    }
+
+    private <R> R inReadOnlyTransaction(Supplier<R> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> work.get());
+    }
+
+    private void execute(String... statements) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String statement : statements) {
+                entityManager.createNativeQuery(statement).executeUpdate();
+            }
+        });
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "TextIndexItem")
+    @Table(name = "text_index_item")
+    static class Item extends AbstractEntity {
+        private String title;
+    }
+}
@@ -0,0 +1,65 @@
+package com.og.templateback.configuration.core.specification.pagination;
+
+import com.og.templateback.configuration.core.web.controller.advice.exception.FilterException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+class KeysetCursorTest {
+
+    @Test
+    void decodesEncodedValuesAsTheTypesOfTheSortKeys() {
+        UUID uuid = UUID.randomUUID();
+        String token = KeysetCursor.encode(42, Arrays.asList("name", 7L, new BigDecimal("12.50"), uuid, LocalDate.of(2024, 2, 29), null, 100L));
+
+        KeysetCursor cursor = KeysetCursor.decode(token);
+
+        assertEquals(42, cursor.getSortFingerprint());
+        assertEquals(7, cursor.size());
+        assertEquals("name", cursor.valueAt(0, String.class));
+        assertEquals(7L, cursor.valueAt(1, Long.class));
+        assertEquals(new BigDecimal("12.50"), cursor.valueAt(2, BigDecimal.class));
+        assertEquals(uuid, cursor.valueAt(3, UUID.class));
+        assertEquals(LocalDate.of(2024, 2, 29), cursor.valueAt(4, LocalDate.class));
+        assertNull(cursor.valueAt(5, String.class));
+        assertEquals(100L, cursor.valueAt(6, Long.class));
+    }
+
+    @Test
+    void keepsMicrosecondsOfTimestamps() {
+        Timestamp timestamp = Timestamp.from(Instant.parse("2024-01-31T10:15:30.123456Z"));
+
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(1, Arrays.asList(timestamp, 1L)));
+
+        assertEquals(timestamp, cursor.valueAt(0, Timestamp.class));
+        assertEquals(123456000, ((Timestamp) cursor.valueAt(0, Timestamp.class)).getNanos());
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = KeysetCursor.encode(-1, Arrays.asList("???>>>~~~", 1L));
+
+        assertFalse(token.contains("+") || token.contains("/") || token.contains("="), token);
+    }
+
+    @Test
+    void rejectsInvalidTokens() {
+        assertThrows(FilterException.class, () -> KeysetCursor.decode("not a cursor"));
+        assertThrows(FilterException.class, () -> KeysetCursor.decode("e30"));
+        assertThrows(FilterException.class, () -> KeysetCursor.decode(""));
+    }
+}
@@ -0,0 +1,126 @@
+package com.og.templateback.configuration.core.specification.plan;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.metamodel.EntityMetamodel;
+import com.og.templateback.configuration.core.specification.enums.FieldType;
+import com.og.templateback.configuration.core.specification.enums.Operator;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.index.TextIndexCatalog;
+import com.og.templateback.configuration.core.specification.request.FilterRequest;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Requests of one shape share a compiled plan of {@link SearchPlanCache}, requests of other entities, filters or sorts don't,
+ * and the cache stays within its maximum size.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class SearchPlanCacheTest {
+
+    @Autowired
+    private SearchPlanCache searchPlanCache;
+
+    @Autowired
+    private EntityMetamodel entityMetamodel;
+
+    @Autowired
+    private TextIndexCatalog textIndexCatalog;
+
+    @Test
+    void sameShapeWithOtherValuesSharesThePlan() {
+        SearchRequest first = request(List.of(filter("title", "a"), filter("rank", 1)), List.of());
+        SearchRequest second = request(List.of(filter("rank", 2), filter("title", "b")), List.of());
+
+        assertSame(searchPlanCache.resolve(Item.class, first), searchPlanCache.resolve(Item.class, second));
+    }
+
+    @Test
+    void otherEntitiesFiltersAndSortsGetOtherPlans() {
+        List<FilterRequest> filters = List.of(filter("title", "a"));
+        SearchPlan plan = searchPlanCache.resolve(Item.class, request(filters, List.of()));
+
+        assertNotSame(plan, searchPlanCache.resolve(Other.class, request(filters, List.of())));
+        assertNotSame(plan, searchPlanCache.resolve(Item.class, request(List.of(filter("rank", 1)), List.of())));
+        SearchPlan ascending = searchPlanCache.resolve(Item.class, request(filters, List.of(new SortRequest("rank", SortDirection.ASC))));
+        SearchPlan descending = searchPlanCache.resolve(Item.class, request(filters, List.of(new SortRequest("rank", SortDirection.DESC))));
+        assertNotSame(plan, ascending);
+        assertNotSame(ascending, descending);
+    }
+
+    @Test
+    void invalidatedPlansAreCompiledAgain() {
+        SearchRequest request = request(List.of(filter("title", "a")), List.of());
+        SearchPlan plan = searchPlanCache.resolve(Item.class, request);
+
+        searchPlanCache.invalidateAll();
+
+        assertNotSame(plan, searchPlanCache.resolve(Item.class, request));
+    }
+
+    @Test
+    void plansBeyondTheMaximumSizeAreEvicted() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SearchPlanCache cache = new SearchPlanCache(1, meterRegistry, entityMetamodel, textIndexCatalog);
+
+        cache.resolve(Item.class, request(List.of(filter("title", "a")), List.of()));
+        cache.resolve(Item.class, request(List.of(filter("rank", 1)), List.of()));
+
+        //caffeine evicts asynchronously after the write
+        long deadline = System.currentTimeMillis() + 5000;
+        double evictions = 0;
+        while (evictions < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            evictions = meterRegistry.get("cache.evictions").tag("cache", SearchPlanCache.CACHE_NAME).functionCounter().count();
+        }
+        assertEquals(1, evictions);
+        assertEquals(1, meterRegistry.get("cache.size").tag("cache", SearchPlanCache.CACHE_NAME).gauge().value());
+    }
+
+    private static SearchRequest request(List<FilterRequest> filters, List<SortRequest> sorts) {
+        return SearchRequest.builder().filters(filters).sorts(sorts).build();
+    }
+
+    private static FilterRequest filter(String key, Object value) {
+        return FilterRequest.builder()
+                .key(key)
+                .operator(Operator.EQUAL)
+                .fieldType(value instanceof String ? FieldType.STRING : FieldType.INTEGER)
+                .value(value)
+                .build();
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "SearchPlanItem")
+    @Table(name = "search_plan_item")
+    static class Item extends AbstractEntity {
+        private String title;
+
+        private Integer rank;
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "SearchPlanOther")
+    @Table(name = "search_plan_other")
+    static class Other extends AbstractEntity {
+        private String title;
+    }
+}
@@ -0,0 +1,149 @@
+package com.og.templateback.configuration.core.web.export;
+
+import com.og.templateback.configuration.core.entity.AbstractEntity;
+import com.og.templateback.configuration.core.specification.SearchQueryExecutor;
+import com.og.templateback.configuration.core.specification.SearchSpecification;
+import com.og.templateback.configuration.core.specification.enums.ExportFormat;
+import com.og.templateback.configuration.core.specification.enums.SortDirection;
+import com.og.templateback.configuration.core.specification.plan.SearchPlanCache;
+import com.og.templateback.configuration.core.specification.request.SearchRequest;
+import com.og.templateback.configuration.core.specification.request.SortRequest;
+import com.og.templateback.configuration.core.web.export.SearchExporter.RowWriter;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports {@value #ROWS} rows against postgres with a fetch size of {@value #FETCH_SIZE}: every row is written as it is read,
+ * in the order of the request, and the persistence context never holds more than one fetch of entities.
+ *
+ * @author ogbozoyan
+ * @since 17.10.2026
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "search.export.fetch-size=" + SearchExporterTest.FETCH_SIZE
+})
+class SearchExporterTest {
+    static final int FETCH_SIZE = 4;
+    private static final int ROWS = 10;
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private SearchPlanCache searchPlanCache;
+
+    @Autowired
+    private SearchExporter searchExporter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("TRUNCATE export_item").executeUpdate();
+            //the last title needs quoting in CSV
+            entityManager.createNativeQuery("INSERT INTO export_item (id, title, rank) " +
+                            "SELECT g, CASE WHEN g = :rows THEN 'a, \"b\"' ELSE 'item ' || g END, g FROM generate_series(1, :rows) g")
+                    .setParameter("rows", ROWS)
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    void ndjsonHasOneEntityPerLineWithABoundedPersistenceContext() {
+        List<Integer> managed = new ArrayList<>();
+
+        String ndjson = export(ExportFormat.NDJSON, SearchRequest.builder()
+                .sorts(List.of(new SortRequest("rank", SortDirection.DESC)))
+                .build(), row -> managed.add(entityManager.unwrap(Session.class).getStatistics().getEntityCount()));
+
+        String[] lines = ndjson.split("\n");
+        assertEquals(ROWS, lines.length);
+        assertEquals("{\"id\":10,\"title\":\"a, \\\"b\\\"\",\"rank\":10}", lines[0]);
+        assertEquals("{\"id\":1,\"title\":\"item 1\",\"rank\":1}", lines[ROWS - 1]);
+        assertTrue(managed.stream().allMatch(count -> count <= FETCH_SIZE), managed::toString);
+    }
+
+    @Test
+    void csvHasAHeaderOfTheFieldsAndEscapedValues() {
+        String csv = export(ExportFormat.CSV, SearchRequest.builder()
+                .fields(List.of("rank", "title"))
+                .sorts(List.of(new SortRequest("rank", SortDirection.ASC)))
+                .build(), row -> {
+        });
+
+        String[] lines = csv.split("\r\n");
+        assertEquals(ROWS + 1, lines.length);
+        assertEquals("rank,title", lines[0]);
+        assertEquals("1,item 1", lines[1]);
+        assertEquals("10,\"a, \"\"b\"\"\"", lines[ROWS]);
+    }
+
+    @Test
+    void csvOfNoRowsHasTheHeaderOnly() {
+        String csv = new TransactionTemplate(transactionManager).execute(status -> {
+            entityManager.createNativeQuery("TRUNCATE export_item").executeUpdate();
+            return export(ExportFormat.CSV, SearchRequest.builder().fields(List.of("title")).build(), row -> {
+            });
+        });
+
+        assertEquals("title\r\n", csv);
+    }
+
+    /**
+     * Streams the search into a writer of the format in a read-only transaction, as the export endpoints do.
+     *
+     * @param onRow called after every written row
+     */
+    private String export(ExportFormat format, SearchRequest request, Consumer<Object> onRow) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (RowWriter writer = searchExporter.open(format, request.getFields(), out)) {
+                searchQueryExecutor.stream(Item.class, new SearchSpecification<>(request, searchPlanCache.resolve(Item.class, request)),
+                        writer.andThen(onRow));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "ExportItem")
+    @Table(name = "export_item")
+    static class Item extends AbstractEntity {
+        private String title;
+
+        private Integer rank;
+    }
+}